@@ -23,7 +23,9 @@
 package pascal.taie.analysis.dataflow.analysis.constprop;
 
 import pascal.taie.analysis.dataflow.analysis.AbstractDataflowAnalysis;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
 import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
 import pascal.taie.config.AnalysisConfig;
 import pascal.taie.ir.IR;
 import pascal.taie.ir.exp.*;
@@ -40,8 +42,32 @@ public class ConstantPropagation extends
 
     public static final String ID = "constprop";
 
+    /**
+     * If true, solves constant propagation sparsely along def-use chains
+     * by {@link SparseCPSolver} instead of the dense solver.
+     */
+    private final boolean sparse;
+
+    /**
+     * If true, the sparse solver also tracks executable statements
+     * and prunes the branches whose conditions are constants.
+     * Only takes effect when {@link #sparse} is true.
+     */
+    private final boolean conditional;
+
     public ConstantPropagation(AnalysisConfig config) {
         super(config);
+        sparse = getOptions().getBooleanOrDefault("sparse", false);
+        conditional = getOptions().getBooleanOrDefault("sparse-conditional", false);
+    }
+
+    @Override
+    public DataflowResult<Stmt, CPFact> analyze(IR ir) {
+        if (sparse) {
+            CFG<Stmt> cfg = ir.getResult(CFGBuilder.ID);
+            return new SparseCPSolver(this, cfg, conditional).solve();
+        }
+        return super.analyze(ir);
     }
 
     @Override
@@ -0,0 +1,172 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis.constprop;
+
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.SetQueue;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Reaching definitions of the variables defined by
+ * {@link SparseCPSolver#getDefVar(Stmt)}, computed once for a CFG by
+ * an iterative forward pass over bit sets of definitions.
+ * <p>
+ * The entry node acts as the definition of the variables given to
+ * the constructor, e.g., the parameters; other variables are not defined
+ * at the entry. A definition reaches a node if some path from the
+ * definition to the node does not redefine the variable, thus the
+ * definitions that reach each node are the same as those found by
+ * searching backward from the node.
+ */
+class ReachingDefs {
+
+    private final CFG<Stmt> cfg;
+
+    /**
+     * Definitions indexed by their ids, where the entry node occurs
+     * once for each variable it defines.
+     */
+    private final List<Stmt> defs = new ArrayList<>();
+
+    /**
+     * Variables of the definitions indexed by their ids.
+     */
+    private final List<Var> defVars = new ArrayList<>();
+
+    /**
+     * Maps each variable to the ids of its definitions.
+     */
+    private final Map<Var, BitSet> varDefs = Maps.newMap();
+
+    /**
+     * Maps each statement definition to its id.
+     */
+    private final Map<Stmt, Integer> defIds = Maps.newMap();
+
+    /**
+     * Ids of the definitions which are generated by the entry node.
+     */
+    private final BitSet entryDefs = new BitSet();
+
+    /**
+     * Maps each node to the ids of the definitions that reach it.
+     */
+    private final Map<Stmt, BitSet> inDefs;
+
+    ReachingDefs(CFG<Stmt> cfg, Collection<Var> entryVars) {
+        this.cfg = cfg;
+        for (Var var : entryVars) {
+            entryDefs.set(addDef(cfg.getEntry(), var));
+        }
+        for (Stmt stmt : cfg) {
+            Var var = SparseCPSolver.getDefVar(stmt);
+            if (var != null) {
+                defIds.put(stmt, addDef(stmt, var));
+            }
+        }
+        inDefs = Maps.newMap(cfg.getNumberOfNodes());
+        solve();
+    }
+
+    private int addDef(Stmt def, Var var) {
+        int id = defs.size();
+        defs.add(def);
+        defVars.add(var);
+        varDefs.computeIfAbsent(var, unused -> new BitSet()).set(id);
+        return id;
+    }
+
+    private void solve() {
+        Map<Stmt, BitSet> outDefs = Maps.newMap(cfg.getNumberOfNodes());
+        Queue<Stmt> workList = new SetQueue<>();
+        cfg.forEach(workList::add);
+        while (!workList.isEmpty()) {
+            Stmt node = workList.poll();
+            BitSet in = new BitSet();
+            for (Stmt pred : cfg.getPredsOf(node)) {
+                BitSet predOut = outDefs.get(pred);
+                if (predOut != null) {
+                    in.or(predOut);
+                }
+            }
+            inDefs.put(node, in);
+            BitSet out;
+            if (cfg.isEntry(node)) {
+                out = entryDefs;
+            } else if (defIds.containsKey(node)) {
+                out = (BitSet) in.clone();
+                out.andNot(varDefs.get(SparseCPSolver.getDefVar(node)));
+                out.set(defIds.get(node));
+            } else {
+                out = in;
+            }
+            if (!out.equals(outDefs.get(node))) {
+                outDefs.put(node, out);
+                cfg.getSuccsOf(node).forEach(workList::add);
+            }
+        }
+    }
+
+    /**
+     * @return the definitions of given variable that reach given node.
+     * The entry node is included in the result if it defines the variable
+     * and some path from the entry to the node does not redefine it.
+     */
+    Set<Stmt> getDefs(Stmt node, Var var) {
+        BitSet ids = varDefs.get(var);
+        if (ids == null) {
+            return Set.of();
+        }
+        Set<Stmt> result = Sets.newHybridSet();
+        BitSet in = inDefs.get(node);
+        for (int id = ids.nextSetBit(0); id >= 0; id = ids.nextSetBit(id + 1)) {
+            if (in.get(id)) {
+                result.add(defs.get(id));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Performs given action for each definition that reaches given node,
+     * with the variable of the definition.
+     */
+    void forEachDef(Stmt node, BiConsumer<Var, Stmt> action) {
+        BitSet in = inDefs.get(node);
+        for (int id = in.nextSetBit(0); id >= 0; id = in.nextSetBit(id + 1)) {
+            action.accept(defVars.get(id), defs.get(id));
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis.constprop;
+
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Stmt;
+
+/**
+ * Result of {@link SparseCPSolver}. Only the value of each definition
+ * is stored; the in/out facts of statements are computed on demand
+ * from the precomputed {@link ReachingDefs}, thus each call of
+ * {@link #getInFact} or {@link #getOutFact} returns a fresh fact.
+ * This result cannot be modified.
+ */
+public class SparseCPResult extends DataflowResult<Stmt, CPFact> {
+
+    private final ConstantPropagation analysis;
+
+    private final CFG<Stmt> cfg;
+
+    private final CPFact boundaryFact;
+
+    private final Value[] values;
+
+    private final ReachingDefs reachingDefs;
+
+    SparseCPResult(ConstantPropagation analysis, CFG<Stmt> cfg,
+                   CPFact boundaryFact, Value[] values,
+                   ReachingDefs reachingDefs) {
+        this.analysis = analysis;
+        this.cfg = cfg;
+        this.boundaryFact = boundaryFact;
+        this.values = values;
+        this.reachingDefs = reachingDefs;
+    }
+
+    @Override
+    public CPFact getInFact(Stmt node) {
+        CPFact in = analysis.newInitialFact();
+        if (cfg.isEntry(node)) {
+            return in;
+        }
+        reachingDefs.forEachDef(node, (var, def) -> in.update(var,
+                analysis.meetValue(in.get(var), getDefValue(def, var))));
+        return in;
+    }
+
+    @Override
+    public CPFact getOutFact(Stmt node) {
+        if (cfg.isEntry(node)) {
+            return boundaryFact.copy();
+        }
+        CPFact out = getInFact(node);
+        Var var = SparseCPSolver.getDefVar(node);
+        if (var != null) {
+            out.update(var, values[node.getIndex()]);
+        }
+        return out;
+    }
+
+    private Value getDefValue(Stmt def, Var var) {
+        return cfg.isEntry(def) ? boundaryFact.get(var) : values[def.getIndex()];
+    }
+
+    @Override
+    public void setInFact(Stmt node, CPFact fact) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setOutFact(Stmt node, CPFact fact) {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -0,0 +1,270 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis.constprop;
+
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.Edge;
+import pascal.taie.ir.exp.BinaryExp;
+import pascal.taie.ir.exp.Exp;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.DefinitionStmt;
+import pascal.taie.ir.stmt.If;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.ir.stmt.SwitchStmt;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.SetQueue;
+import pascal.taie.util.collection.Sets;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Sparse solver of constant propagation, which propagates the values
+ * of variables along def-use chains instead of through every CFG node.
+ * <p>
+ * The IR is not in SSA form, so the def-use chains are built from the
+ * {@link ReachingDefs} of the CFG, which are computed once. The entry node
+ * acts as the definition of the variables in the boundary fact, e.g.,
+ * the parameters. Only the definitions of variables which can hold
+ * integers carry values; other statements are transparent, which gives
+ * the same answers as the dense {@link pascal.taie.analysis.dataflow.solver.Solver}.
+ * <p>
+ * In conditional mode (Wegman-Zadeck), a statement is evaluated only
+ * after it is found executable, and an {@link If} or {@link SwitchStmt}
+ * whose condition is a constant only makes the taken successors executable.
+ * The definitions which are never executable keep UNDEF, thus the results
+ * may be more precise than the dense ones.
+ */
+class SparseCPSolver {
+
+    private final ConstantPropagation analysis;
+
+    private final CFG<Stmt> cfg;
+
+    private final boolean conditional;
+
+    private final CPFact boundaryFact;
+
+    private final ReachingDefs reachingDefs;
+
+    /**
+     * Values of the variables defined by the statements, indexed by
+     * {@link Stmt#getIndex()}. The value of the entry node is kept
+     * in {@link #boundaryFact} as the entry is not in IR.
+     */
+    private final Value[] values;
+
+    /**
+     * Maps each statement to the definitions that reach
+     * its operands, grouped by operand.
+     */
+    private final Map<Stmt, MultiMap<Var, Stmt>> useDefs = Maps.newMap();
+
+    /**
+     * Maps each statement to the values of its operands, which only
+     * go down the lattice like the in facts of the dense solver.
+     * This keeps the solver terminating even though evaluation is not
+     * monotone, e.g., x / y is NAC for x = NAC and y = UNDEF,
+     * but UNDEF for y = 0.
+     */
+    private final Map<Stmt, CPFact> operandFacts = Maps.newMap();
+
+    /**
+     * Maps each definition to the statements that use it.
+     */
+    private final MultiMap<Stmt, Stmt> defUses = Maps.newMultiMap();
+
+    private final Set<Stmt> executable;
+
+    private final Queue<Stmt> workList = new SetQueue<>();
+
+    SparseCPSolver(ConstantPropagation analysis, CFG<Stmt> cfg, boolean conditional) {
+        this.analysis = analysis;
+        this.cfg = cfg;
+        this.conditional = conditional;
+        this.boundaryFact = analysis.newBoundaryFact(cfg);
+        this.reachingDefs = new ReachingDefs(cfg, boundaryFact.keySet());
+        this.values = new Value[cfg.getIR().getStmts().size()];
+        Arrays.fill(values, Value.getUndef());
+        this.executable = conditional ? Sets.newSet() : null;
+    }
+
+    SparseCPResult solve() {
+        buildDefUseChains();
+        if (conditional) {
+            markExecutable(cfg.getEntry());
+        } else {
+            for (Stmt stmt : cfg) {
+                if (getDefVar(stmt) != null) {
+                    workList.add(stmt);
+                }
+            }
+        }
+        while (!workList.isEmpty()) {
+            Stmt stmt = workList.poll();
+            if (getDefVar(stmt) != null) {
+                Value value = evaluate(stmt, ((DefinitionStmt<?, ?>) stmt).getRValue());
+                if (!value.equals(values[stmt.getIndex()])) {
+                    values[stmt.getIndex()] = value;
+                    for (Stmt use : defUses.get(stmt)) {
+                        if (!conditional || executable.contains(use)) {
+                            workList.add(use);
+                        }
+                    }
+                }
+            }
+            if (conditional) {
+                markSuccessors(stmt);
+            }
+        }
+        // def-use chains are only needed during solving
+        useDefs.clear();
+        operandFacts.clear();
+        defUses.clear();
+        return new SparseCPResult(analysis, cfg, boundaryFact, values, reachingDefs);
+    }
+
+    private void buildDefUseChains() {
+        for (Stmt stmt : cfg) {
+            List<Var> operands = getOperands(stmt);
+            if (!operands.isEmpty()) {
+                MultiMap<Var, Stmt> defs = Maps.newMultiMap();
+                for (Var operand : operands) {
+                    for (Stmt def : reachingDefs.getDefs(stmt, operand)) {
+                        defs.put(operand, def);
+                        defUses.put(def, stmt);
+                    }
+                }
+                useDefs.put(stmt, defs);
+            }
+        }
+    }
+
+    /**
+     * @return the variables read by given statement when evaluating
+     * its value or condition.
+     */
+    private static List<Var> getOperands(Stmt stmt) {
+        if (stmt instanceof If ifStmt) {
+            return getOperands(ifStmt.getCondition());
+        } else if (stmt instanceof SwitchStmt switchStmt) {
+            return List.of(switchStmt.getVar());
+        } else if (getDefVar(stmt) != null) {
+            return getOperands(((DefinitionStmt<?, ?>) stmt).getRValue());
+        } else {
+            return List.of();
+        }
+    }
+
+    private static List<Var> getOperands(Exp exp) {
+        if (exp instanceof Var var) {
+            return List.of(var);
+        } else if (exp instanceof BinaryExp binaryExp) {
+            return List.of(binaryExp.getOperand1(), binaryExp.getOperand2());
+        } else {
+            return List.of();
+        }
+    }
+
+    /**
+     * Evaluates given expression at given statement, where the value
+     * of each operand is the meet of the values of its reaching definitions.
+     */
+    private Value evaluate(Stmt stmt, Exp exp) {
+        CPFact in = operandFacts.computeIfAbsent(stmt, unused -> new CPFact());
+        MultiMap<Var, Stmt> defs = useDefs.get(stmt);
+        if (defs != null) {
+            defs.forEachSet((var, varDefs) -> in.update(var,
+                    analysis.meetValue(in.get(var), meetDefs(var, varDefs))));
+        }
+        return ConstantPropagation.evaluate(exp, in);
+    }
+
+    private Value meetDefs(Var var, Set<Stmt> defs) {
+        Value value = Value.getUndef();
+        for (Stmt def : defs) {
+            Value defValue = cfg.isEntry(def) ?
+                    boundaryFact.get(var) : values[def.getIndex()];
+            value = analysis.meetValue(value, defValue);
+        }
+        return value;
+    }
+
+    private void markExecutable(Stmt stmt) {
+        if (executable.add(stmt)) {
+            workList.add(stmt);
+        }
+    }
+
+    /**
+     * Marks the successors of given statement which may be executed
+     * under current values of the condition as executable.
+     */
+    private void markSuccessors(Stmt stmt) {
+        Value cond = null;
+        if (stmt instanceof If ifStmt) {
+            cond = evaluate(stmt, ifStmt.getCondition());
+        } else if (stmt instanceof SwitchStmt switchStmt) {
+            cond = evaluate(stmt, switchStmt.getVar());
+        }
+        if (cond == null || !cond.isConstant()) {
+            // UNDEF conditions are not pruned either, as the conditions
+            // on non-integer variables are always UNDEF
+            cfg.getSuccsOf(stmt).forEach(this::markExecutable);
+            return;
+        }
+        int c = cond.getConstant();
+        Set<Edge<Stmt>> outEdges = cfg.getOutEdgesOf(stmt);
+        boolean caseTaken = outEdges.stream().anyMatch(edge ->
+                edge.isSwitchCase() && edge.getCaseValue() == c);
+        for (Edge<Stmt> edge : outEdges) {
+            boolean taken = switch (edge.getKind()) {
+                case IF_TRUE -> c != 0;
+                case IF_FALSE -> c == 0;
+                case SWITCH_CASE -> edge.getCaseValue() == c;
+                case SWITCH_DEFAULT -> !caseTaken;
+                default -> true;
+            };
+            if (taken) {
+                markExecutable(edge.getTarget());
+            }
+        }
+    }
+
+    /**
+     * @return the variable defined by given statement if it can hold
+     * integers, otherwise null.
+     */
+    static Var getDefVar(Stmt stmt) {
+        if (stmt instanceof DefinitionStmt<?, ?> def &&
+                def.getLValue() instanceof Var var &&
+                ConstantPropagation.canHoldInt(var)) {
+            return var;
+        }
+        return null;
+    }
+}
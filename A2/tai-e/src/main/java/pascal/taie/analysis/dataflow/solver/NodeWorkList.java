@@ -0,0 +1,169 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Work list of CFG nodes which pops nodes in a fixed priority order,
+ * i.e., reverse post-order for forward analysis and post-order
+ * for backward analysis, so that a node is (mostly) visited
+ * after the nodes it depends on.
+ * <p>
+ * Each node is given a dense priority in [0, #nodes), and the queued nodes
+ * are kept in a {@link BitSet} indexed by priority, thus adding a node
+ * which is already in the work list has no effect.
+ * We do not use {@link pascal.taie.ir.stmt.Stmt#getIndex()} as the key as
+ * the entry/exit nodes of CFG are not in IR and have no valid index.
+ *
+ * @param <Node> type of CFG nodes
+ */
+class NodeWorkList<Node> {
+
+    /**
+     * Nodes sorted by their priorities.
+     */
+    private final List<Node> nodes;
+
+    /**
+     * Maps each node to its priority.
+     */
+    private final Map<Node, Integer> priorities;
+
+    /**
+     * Priorities of the nodes in this work list.
+     */
+    private final BitSet queued;
+
+    /**
+     * Lower bound of the priorities in {@link #queued}.
+     */
+    private int cursor = 0;
+
+    NodeWorkList(CFG<Node> cfg, boolean isForward) {
+        List<Node> postOrder = computePostOrder(cfg);
+        if (isForward) {
+            Collections.reverse(postOrder);
+        }
+        // nodes unreachable from entry are visited last
+        if (postOrder.size() < cfg.getNumberOfNodes()) {
+            Set<Node> reached = Sets.newSet(postOrder.size());
+            reached.addAll(postOrder);
+            for (Node node : cfg) {
+                if (!reached.contains(node)) {
+                    postOrder.add(node);
+                }
+            }
+        }
+        nodes = postOrder;
+        priorities = Maps.newMap(nodes.size());
+        for (int i = 0; i < nodes.size(); ++i) {
+            priorities.put(nodes.get(i), i);
+        }
+        queued = new BitSet(nodes.size());
+    }
+
+    /**
+     * Computes post-order of the nodes reachable from the entry of given CFG.
+     * The traversal is iterative to avoid stack overflow on large methods.
+     */
+    private static <Node> List<Node> computePostOrder(CFG<Node> cfg) {
+        List<Node> postOrder = new ArrayList<>(cfg.getNumberOfNodes());
+        Set<Node> visited = Sets.newSet(cfg.getNumberOfNodes());
+        Deque<Node> nodeStack = new ArrayDeque<>();
+        Deque<Iterator<Node>> succStack = new ArrayDeque<>();
+        Node entry = cfg.getEntry();
+        visited.add(entry);
+        nodeStack.push(entry);
+        succStack.push(cfg.getSuccsOf(entry).iterator());
+        while (!nodeStack.isEmpty()) {
+            Iterator<Node> succs = succStack.peek();
+            if (succs.hasNext()) {
+                Node succ = succs.next();
+                if (visited.add(succ)) {
+                    nodeStack.push(succ);
+                    succStack.push(cfg.getSuccsOf(succ).iterator());
+                }
+            } else {
+                postOrder.add(nodeStack.pop());
+                succStack.pop();
+            }
+        }
+        return postOrder;
+    }
+
+    /**
+     * Adds a node to this work list.
+     *
+     * @return true if the node was not in this work list, otherwise false.
+     */
+    boolean add(Node node) {
+        int priority = priorities.get(node);
+        if (queued.get(priority)) {
+            return false;
+        }
+        queued.set(priority);
+        if (priority < cursor) {
+            cursor = priority;
+        }
+        return true;
+    }
+
+    /**
+     * Adds all given nodes to this work list.
+     */
+    void addAll(Collection<Node> nodes) {
+        nodes.forEach(this::add);
+    }
+
+    /**
+     * Removes and returns the node with the highest priority
+     * in this work list, or null if this work list is empty.
+     */
+    Node poll() {
+        int priority = queued.nextSetBit(cursor);
+        if (priority < 0) {
+            return null;
+        }
+        queued.clear(priority);
+        cursor = priority;
+        return nodes.get(priority);
+    }
+
+    boolean isEmpty() {
+        return queued.isEmpty();
+    }
+}
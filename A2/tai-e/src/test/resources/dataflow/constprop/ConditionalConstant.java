@@ -0,0 +1,13 @@
+class ConditionalConstant {
+
+    static void deadBranch() {
+        int p = 1;
+        int x;
+        if (p > 0) {
+            x = 1;
+        } else {
+            x = 2;
+        }
+        int y = x;
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.World;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.config.ConfigException;
+import pascal.taie.ir.IR;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.AnalysisException;
+import pascal.taie.util.Timer;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+/**
+ * Creates and executes analyses based on given analysis configurations.
+ * <p>
+ * Consecutive method analyses in the plan, e.g., livevar, constprop
+ * and deadcode, are run together: each method is analyzed by all of them
+ * in plan order by a single task, and the methods are analyzed in parallel
+ * by a {@link ForkJoinPool}. As the plan puts the analyses required by
+ * an analysis before it, the results required by a method analysis are
+ * always available in the {@link IR} of the method. The results of an IR
+ * are only stored by the task analyzing its method, and are visible to
+ * later analyses after the pool finishes, thus no synchronization is needed.
+ */
+public class AnalysisManager {
+
+    private static final Logger logger = LogManager.getLogger(AnalysisManager.class);
+
+    /**
+     * System property which specifies the number of threads used to
+     * run method analyses. Defaults to the number of available processors.
+     */
+    public static final String THREADS_PROPERTY = "taie.threads";
+
+    /**
+     * Number of threads used to run method analyses.
+     */
+    private final int parallelism;
+
+    private List<JClass> classScope;
+
+    private List<JMethod> methodScope;
+
+    public AnalysisManager() {
+        this(Integer.getInteger(THREADS_PROPERTY,
+                Runtime.getRuntime().availableProcessors()));
+    }
+
+    public AnalysisManager(int parallelism) {
+        if (parallelism < 1) {
+            throw new ConfigException(
+                    "Number of threads should be positive: " + parallelism);
+        }
+        this.parallelism = parallelism;
+    }
+
+    public void execute(List<AnalysisConfig> analyses) {
+        List<MethodAnalysis> methodAnalyses = new ArrayList<>();
+        for (AnalysisConfig config : analyses) {
+            if (MethodAnalysis.class.isAssignableFrom(getAnalysisClass(config))) {
+                methodAnalyses.add((MethodAnalysis) createAnalysis(config));
+            } else {
+                runMethodAnalyses(methodAnalyses);
+                methodAnalyses.clear();
+                Timer.runAndCount(() -> runAnalysis(config), config.getId());
+            }
+        }
+        runMethodAnalyses(methodAnalyses);
+    }
+
+    private static Class<?> getAnalysisClass(AnalysisConfig config) {
+        try {
+            return Class.forName(config.getAnalysisClass());
+        } catch (ClassNotFoundException e) {
+            throw new AnalysisException("Failed to initialize " +
+                    config.getAnalysisClass(), e);
+        }
+    }
+
+    private static Analysis createAnalysis(AnalysisConfig config) {
+        try {
+            Constructor<?> ctor = getAnalysisClass(config)
+                    .getConstructor(AnalysisConfig.class);
+            return (Analysis) ctor.newInstance(config);
+        } catch (NoSuchMethodException | InstantiationException |
+                 IllegalAccessException | InvocationTargetException e) {
+            throw new AnalysisException("Failed to initialize " +
+                    config.getAnalysisClass(), e);
+        }
+    }
+
+    private void runAnalysis(AnalysisConfig config) {
+        Analysis analysis = createAnalysis(config);
+        if (analysis instanceof ProgramAnalysis pa) {
+            runProgramAnalysis(pa);
+        } else if (analysis instanceof ClassAnalysis ca) {
+            runClassAnalysis(ca);
+        } else {
+            logger.warn(analysis.getClass() + " is not an analysis");
+        }
+    }
+
+    private void runProgramAnalysis(ProgramAnalysis analysis) {
+        Object result = analysis.analyze();
+        if (result != null) {
+            World.get().storeResult(analysis.getId(), result);
+        }
+    }
+
+    private void runClassAnalysis(ClassAnalysis analysis) {
+        getClassScope().parallelStream().forEach(c -> {
+            Object result = analysis.analyze(c);
+            if (result != null) {
+                c.storeResult(analysis.getId(), result);
+            }
+        });
+    }
+
+    private List<JClass> getClassScope() {
+        if (classScope == null) {
+            String scope = World.get().getOptions().getScope();
+            classScope = switch (scope) {
+                case "app" -> World.get().getClassHierarchy()
+                        .applicationClasses().toList();
+                case "all" -> World.get().getClassHierarchy()
+                        .allClasses().toList();
+                // scope "reachable" is unsupported as this assignment
+                // does not build call graph
+                case "reachable" -> throw new ConfigException(
+                        "Unsupported scope option: " + scope);
+                default -> throw new ConfigException(
+                        "Unexpected scope option: " + scope);
+            };
+            logger.info("{} classes in scope ({}) of class analyses",
+                    classScope.size(), scope);
+        }
+        return classScope;
+    }
+
+    /**
+     * Runs given method analyses on all methods in scope. Each method is
+     * analyzed by the analyses in the given order.
+     */
+    private void runMethodAnalyses(List<MethodAnalysis> analyses) {
+        if (analyses.isEmpty()) {
+            return;
+        }
+        List<MethodAnalysis> batch = List.copyOf(analyses);
+        String ids = batch.stream()
+                .map(MethodAnalysis::getId)
+                .collect(Collectors.joining(", "));
+        Timer.runAndCount(() -> {
+            List<JMethod> methods = getMethodScope();
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                // parallel stream uses the pool it is started from
+                pool.submit(() -> methods.parallelStream().forEach(m -> {
+                    IR ir = m.getIR();
+                    for (MethodAnalysis analysis : batch) {
+                        Object result = analysis.analyze(ir);
+                        if (result != null) {
+                            ir.storeResult(analysis.getId(), result);
+                        }
+                    }
+                })).join();
+            } finally {
+                pool.shutdown();
+            }
+        }, ids);
+    }
+
+    private List<JMethod> getMethodScope() {
+        if (methodScope == null) {
+            String scope = World.get().getOptions().getScope();
+            methodScope = switch (scope) {
+                case "app", "all" -> getClassScope()
+                        .stream()
+                        .map(JClass::getDeclaredMethods)
+                        .flatMap(Collection::stream)
+                        .filter(m -> !m.isAbstract() && !m.isNative())
+                        .toList();
+                // scope "reachable" is unsupported as this assignment
+                // does not build call graph
+                case "reachable" -> throw new ConfigException(
+                        "Unsupported scope option: " + scope);
+                default -> throw new ConfigException(
+                        "Unexpected scope option: " + scope);
+            };
+            logger.info("{} methods in scope ({}) of method analyses",
+                    methodScope.size(), scope);
+        }
+        return methodScope;
+    }
+}
@@ -24,6 +24,7 @@ package pascal.taie.analysis.dataflow.analysis;
 
 import pascal.taie.analysis.MethodAnalysis;
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.solver.BlockSolver;
 import pascal.taie.analysis.dataflow.solver.Solver;
 import pascal.taie.analysis.graph.cfg.CFG;
 import pascal.taie.analysis.graph.cfg.CFGBuilder;
@@ -37,15 +38,48 @@ public abstract class AbstractDataflowAnalysis<Node, Fact>
 
     private final Solver<Node, Fact> solver;
 
+    /**
+     * Whether convert the results into {@link DataflowResult#freeze frozen}
+     * ones after solving, which saves memory for the results kept in IR.
+     */
+    private final boolean freezeResult;
+
+    /**
+     * Whether solve the analysis on basic blocks by {@link BlockSolver}.
+     */
+    private final boolean blockCFG;
+
     protected AbstractDataflowAnalysis(AnalysisConfig config) {
         super(config);
         solver = Solver.makeSolver(this);
+        freezeResult = getOptions().getBooleanOrDefault("freeze-result", false);
+        blockCFG = getOptions().getBooleanOrDefault("block-cfg", false);
     }
 
     @Override
     public DataflowResult<Node, Fact> analyze(IR ir) {
         CFG<Node> cfg = ir.getResult(CFGBuilder.ID);
-        return solver.solve(cfg);
+        return freeze(cfg, blockCFG ?
+                new BlockSolver<>(this).solve(cfg) : solver.solve(cfg));
+    }
+
+    /**
+     * Solves given analysis on given CFG by {@link BlockSolver}
+     * if option block-cfg is enabled, otherwise by {@link Solver}.
+     */
+    protected <F> DataflowResult<Node, F> solve(
+            DataflowAnalysis<Node, F> analysis, CFG<Node> cfg) {
+        return blockCFG ? new BlockSolver<>(analysis).solve(cfg) :
+                Solver.makeSolver(analysis).solve(cfg);
+    }
+
+    /**
+     * @return the frozen result of given result if option freeze-result
+     * is enabled, otherwise the given result.
+     */
+    protected DataflowResult<Node, Fact> freeze(
+            CFG<Node> cfg, DataflowResult<Node, Fact> result) {
+        return freezeResult ? result.freeze(cfg) : result;
     }
 
     /**
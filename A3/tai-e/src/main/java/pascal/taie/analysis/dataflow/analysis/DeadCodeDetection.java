@@ -69,29 +69,10 @@ public class DeadCodeDetection extends MethodAnalysis {
         while (!visitList.isEmpty()) { // bfs
             Stmt curStmt = visitList.remove(0);
             visitedSet.add(curStmt);
-            Set<Stmt> curStmtSuccessors;
-            if (curStmt instanceof AssignStmt<?, ?> assignStmt) {
-                SetFact<Var> curLiveVars = liveVars.getOutFact(curStmt);
-                if (!isUseLessAssignment(assignStmt,curLiveVars)) {
-                    deadCode.remove(curStmt);
-                }
-                curStmtSuccessors = cfg.getSuccsOf(curStmt);
-            } else if (curStmt instanceof If ifStmt) {
-                deadCode.remove(curStmt);
-
-                CPFact curCPFact = constants.getInFact(curStmt);
-                curStmtSuccessors = getSuccessorsOfIfStmt(ifStmt, curCPFact, cfg);
-            } else if (curStmt instanceof SwitchStmt switchStmt) {
-                deadCode.remove(curStmt);
-
-                CPFact curCPFact = constants.getInFact(curStmt);
-                curStmtSuccessors = getSuccessorsOfSwitchStmt(switchStmt, curCPFact, cfg);
-            } else { // DefinitionStmt and other stmt.class
+            if (!isDeadAssignment(curStmt, liveVars.getOutFact(curStmt))) {
                 deadCode.remove(curStmt);
-                curStmtSuccessors = cfg.getSuccsOf(curStmt);
             }
-
-            for (Stmt succes: curStmtSuccessors) {
+            for (Stmt succes: getLiveSuccessors(curStmt, constants.getInFact(curStmt), cfg)) {
                 if (!visitedSet.contains(succes)) {
                     visitedSet.add(succes);
                     visitList.add(succes);
@@ -101,6 +82,30 @@ public class DeadCodeDetection extends MethodAnalysis {
         return deadCode;
     }
 
+    /**
+     * @return true if given statement is an assignment whose result is
+     * never used and which has no side effect, otherwise false.
+     */
+    static boolean isDeadAssignment(Stmt stmt, SetFact<Var> liveVars) {
+        return stmt instanceof AssignStmt<?, ?> assignStmt
+                && isUseLessAssignment(assignStmt, liveVars);
+    }
+
+    /**
+     * @return the successors of given statement which may be executed,
+     * i.e., the branches of if and switch statements are pruned
+     * if their conditions are constants.
+     */
+    static Set<Stmt> getLiveSuccessors(Stmt stmt, CPFact in, CFG<Stmt> cfg) {
+        if (stmt instanceof If ifStmt) {
+            return getSuccessorsOfIfStmt(ifStmt, in, cfg);
+        } else if (stmt instanceof SwitchStmt switchStmt) {
+            return getSuccessorsOfSwitchStmt(switchStmt, in, cfg);
+        } else {
+            return cfg.getSuccsOf(stmt);
+        }
+    }
+
     private static boolean isUseLessAssignment(AssignStmt<?,?> assignStmt, SetFact<Var> curLiveVars) {
         LValue lValue = assignStmt.getLValue();
         if (lValue instanceof Var lVar) {
@@ -0,0 +1,213 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis;
+
+import pascal.taie.analysis.dataflow.analysis.constprop.CPFact;
+import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.fact.SetFact;
+import pascal.taie.analysis.dataflow.solver.IncrementalSolver;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.If;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.ir.stmt.SwitchStmt;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Keeps the results of constant propagation, live variable analysis
+ * and dead code detection of a method, and updates them incrementally
+ * after the method is edited, e.g., in an IDE.
+ * <p>
+ * The data-flow results are updated by {@link IncrementalSolver}s.
+ * The dead code is patched in the region affected by the edit:
+ * only the assignments whose live variables changed are re-checked,
+ * and only the branches whose constants changed are re-evaluated.
+ * The reachable statements are searched again only if the CFG or
+ * the outcome of some branch changed, reusing the outcomes of the
+ * other branches.
+ */
+public class IncrementalDeadCodeDetection {
+
+    private final IncrementalSolver<Stmt, CPFact> constantSolver;
+
+    private final IncrementalSolver<Stmt, SetFact<Var>> liveVarSolver;
+
+    private CFG<Stmt> cfg;
+
+    private DataflowResult<Stmt, CPFact> constants;
+
+    private DataflowResult<Stmt, SetFact<Var>> liveVars;
+
+    /**
+     * Successors of the branches which may be executed.
+     */
+    private final Map<Stmt, Set<Stmt>> liveSuccessors = Maps.newMap();
+
+    /**
+     * Dead assignments, including the unreachable ones.
+     */
+    private final Set<Stmt> deadAssignments = Sets.newSet();
+
+    private Set<Stmt> reachable = Set.of();
+
+    public IncrementalDeadCodeDetection(ConstantPropagation constantPropagation,
+                                        LiveVariableAnalysis liveVariableAnalysis) {
+        constantSolver = new IncrementalSolver<>(constantPropagation);
+        liveVarSolver = new IncrementalSolver<>(liveVariableAnalysis);
+    }
+
+    /**
+     * Analyzes given CFG from scratch.
+     *
+     * @return the dead code in the method of given CFG
+     */
+    public Set<Stmt> analyze(CFG<Stmt> cfg) {
+        this.cfg = cfg;
+        constants = constantSolver.solve(cfg);
+        liveVars = liveVarSolver.solve(cfg);
+        liveSuccessors.clear();
+        deadAssignments.clear();
+        for (Stmt stmt : cfg) {
+            updateStmt(stmt);
+        }
+        reachable = findReachable();
+        return getDeadCode();
+    }
+
+    /**
+     * Updates the results for the edited method.
+     *
+     * @param cfg     CFG of the edited method, which can be the previous one
+     * @param changed statements whose semantics changed, see
+     *                {@link IncrementalSolver#update(CFG, Collection)}
+     * @return the dead code in the edited method
+     */
+    public Set<Stmt> update(CFG<Stmt> cfg, Collection<Stmt> changed) {
+        if (this.cfg == null) {
+            return analyze(cfg);
+        }
+        CFG<Stmt> oldCFG = this.cfg;
+        boolean cfgChanged = cfg != oldCFG;
+        this.cfg = cfg;
+        constants = constantSolver.update(cfg, changed);
+        liveVars = liveVarSolver.update(cfg, changed);
+        Set<Stmt> affected = Sets.newSet();
+        if (cfgChanged) {
+            // forget the removed statements
+            liveSuccessors.keySet().removeIf(stmt -> !cfg.hasNode(stmt));
+            deadAssignments.removeIf(stmt -> !cfg.hasNode(stmt));
+            // re-evaluate the branches whose targets changed
+            liveSuccessors.keySet().forEach(branch -> {
+                Set<Stmt> succs = cfg.getSuccsOf(branch);
+                Set<Stmt> oldSuccs = oldCFG.getSuccsOf(branch);
+                if (succs.size() != oldSuccs.size() || !succs.containsAll(oldSuccs)) {
+                    affected.add(branch);
+                }
+            });
+        }
+        affected.addAll(changed);
+        affected.addAll(constantSolver.getAffectedNodes());
+        affected.addAll(liveVarSolver.getAffectedNodes());
+        boolean branchChanged = false;
+        for (Stmt stmt : affected) {
+            if (cfg.hasNode(stmt)) {
+                branchChanged |= updateStmt(stmt);
+            }
+        }
+        if (cfgChanged || branchChanged) {
+            reachable = findReachable();
+        }
+        return getDeadCode();
+    }
+
+    /**
+     * Re-checks given statement.
+     *
+     * @return true if the statement is a branch whose live successors changed.
+     */
+    private boolean updateStmt(Stmt stmt) {
+        if (DeadCodeDetection.isDeadAssignment(stmt, liveVars.getOutFact(stmt))) {
+            deadAssignments.add(stmt);
+        } else {
+            deadAssignments.remove(stmt);
+        }
+        if (stmt instanceof If || stmt instanceof SwitchStmt) {
+            Set<Stmt> succs = DeadCodeDetection.getLiveSuccessors(
+                    stmt, constants.getInFact(stmt), cfg);
+            return !succs.equals(liveSuccessors.put(stmt, succs));
+        }
+        return false;
+    }
+
+    private Set<Stmt> findReachable() {
+        Set<Stmt> visited = Sets.newSet(cfg.getNumberOfNodes());
+        Queue<Stmt> queue = new ArrayDeque<>();
+        visited.add(cfg.getEntry());
+        queue.add(cfg.getEntry());
+        while (!queue.isEmpty()) {
+            Stmt stmt = queue.poll();
+            Set<Stmt> succs = liveSuccessors.getOrDefault(
+                    stmt, cfg.getSuccsOf(stmt));
+            for (Stmt succ : succs) {
+                if (visited.add(succ)) {
+                    queue.add(succ);
+                }
+            }
+        }
+        return visited;
+    }
+
+    private Set<Stmt> getDeadCode() {
+        Set<Stmt> deadCode = new TreeSet<>(Comparator.comparing(Stmt::getIndex));
+        for (Stmt stmt : cfg.getIR()) {
+            if (!reachable.contains(stmt) || deadAssignments.contains(stmt)) {
+                deadCode.add(stmt);
+            }
+        }
+        return deadCode;
+    }
+
+    /**
+     * @return the result of constant propagation of the method.
+     */
+    public DataflowResult<Stmt, CPFact> getConstants() {
+        return constants;
+    }
+
+    /**
+     * @return the result of live variable analysis of the method.
+     */
+    public DataflowResult<Stmt, SetFact<Var>> getLiveVars() {
+        return liveVars;
+    }
+}
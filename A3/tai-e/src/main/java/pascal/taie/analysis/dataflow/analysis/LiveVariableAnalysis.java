@@ -22,9 +22,14 @@
 
 package pascal.taie.analysis.dataflow.analysis;
 
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.fact.IndexedSetFact;
 import pascal.taie.analysis.dataflow.fact.SetFact;
 import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.analysis.graph.cfg.Edge;
 import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.IR;
 import pascal.taie.ir.exp.LValue;
 import pascal.taie.ir.exp.RValue;
 import pascal.taie.ir.exp.Var;
@@ -41,8 +46,26 @@ public class LiveVariableAnalysis extends
 
     public static final String ID = "livevar";
 
+    /**
+     * Whether represent the live variables as {@link IndexedSetFact}.
+     */
+    private final boolean indexedFact;
+
     public LiveVariableAnalysis(AnalysisConfig config) {
         super(config);
+        indexedFact = getOptions().getBooleanOrDefault("indexed-fact", false);
+    }
+
+    @Override
+    public DataflowResult<Stmt, SetFact<Var>> analyze(IR ir) {
+        if (indexedFact) {
+            // the facts of IndexedSetFact are created over the variables
+            // of the method, thus we solve each method with its own analysis
+            CFG<Stmt> cfg = ir.getResult(CFGBuilder.ID);
+            return freeze(cfg, solve(new IndexedLiveVariableAnalysis(ir), cfg));
+        } else {
+            return super.analyze(ir);
+        }
     }
 
     @Override
@@ -96,4 +119,55 @@ public class LiveVariableAnalysis extends
             return true;
         }
     }
+
+    /**
+     * Live variable analysis of a specific method, which represents
+     * the live variables as {@link IndexedSetFact} over the variables
+     * of the method. It delegates the transfer and meet to
+     * the enclosing analysis.
+     */
+    private class IndexedLiveVariableAnalysis
+            implements DataflowAnalysis<Stmt, SetFact<Var>> {
+
+        private final List<Var> vars;
+
+        private IndexedLiveVariableAnalysis(IR ir) {
+            this.vars = ir.getVars();
+        }
+
+        @Override
+        public boolean isForward() {
+            return LiveVariableAnalysis.this.isForward();
+        }
+
+        @Override
+        public SetFact<Var> newBoundaryFact(CFG<Stmt> cfg) {
+            return new IndexedSetFact<>(vars);
+        }
+
+        @Override
+        public SetFact<Var> newInitialFact() {
+            return new IndexedSetFact<>(vars);
+        }
+
+        @Override
+        public void meetInto(SetFact<Var> fact, SetFact<Var> target) {
+            LiveVariableAnalysis.this.meetInto(fact, target);
+        }
+
+        @Override
+        public boolean transferNode(Stmt stmt, SetFact<Var> in, SetFact<Var> out) {
+            return LiveVariableAnalysis.this.transferNode(stmt, in, out);
+        }
+
+        @Override
+        public boolean needTransferEdge(Edge<Stmt> edge) {
+            return LiveVariableAnalysis.this.needTransferEdge(edge);
+        }
+
+        @Override
+        public SetFact<Var> transferEdge(Edge<Stmt> edge, SetFact<Var> nodeFact) {
+            return LiveVariableAnalysis.this.transferEdge(edge, nodeFact);
+        }
+    }
 }
@@ -0,0 +1,320 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis.constprop;
+
+import pascal.taie.analysis.dataflow.fact.MapFact;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.AnalysisException;
+import pascal.taie.util.collection.Sets;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * {@link CPFact} which stores the lattice values of the variables of
+ * a method in parallel arrays indexed by {@link Var#getIndex()},
+ * instead of a map. All variables in a fact must belong to the same method.
+ * <p>
+ * A fact created by {@link #DenseCPFact()} is unbound, i.e., it does not
+ * know the variables of the method yet; it is bound to the variables
+ * of a method when it is first updated or copied from a bound fact.
+ * An unbound fact maps all variables to UNDEF. Accessing a bound fact
+ * with a variable of another method, or combining facts bound to
+ * different methods, fails with {@link AnalysisException}.
+ * <p>
+ * The map inherited from {@link MapFact} is not allocated; a dense fact
+ * can still be copied into and compared with other {@link CPFact}s.
+ */
+public class DenseCPFact extends CPFact {
+
+    private static final byte UNDEF = 0;
+
+    private static final byte CONSTANT = 1;
+
+    private static final byte NAC = 2;
+
+    private static final byte[] EMPTY_KINDS = new byte[0];
+
+    private static final int[] EMPTY_VALUES = new int[0];
+
+    /**
+     * The variables of the method, where the variable of index i
+     * is at the i-th position. This field is null if this fact is unbound.
+     */
+    private List<Var> vars;
+
+    /**
+     * The method of {@link #vars}.
+     */
+    private JMethod method;
+
+    /**
+     * Kinds of the lattice values of the variables.
+     */
+    private byte[] kinds;
+
+    /**
+     * Integer constants of the variables whose kinds are {@link #CONSTANT};
+     * the slots of other variables are always 0.
+     */
+    private int[] values;
+
+    /**
+     * Constructs an unbound fact.
+     */
+    public DenseCPFact() {
+        this(null, EMPTY_KINDS, EMPTY_VALUES);
+    }
+
+    /**
+     * Constructs an empty fact bound to given variables.
+     *
+     * @param vars the variables of a method, where the variable of index i
+     *             must be the i-th one in the list.
+     */
+    public DenseCPFact(List<Var> vars) {
+        this(vars, new byte[vars.size()], new int[vars.size()]);
+    }
+
+    private DenseCPFact(List<Var> vars, byte[] kinds, int[] values) {
+        super((Void) null);
+        this.vars = vars;
+        this.method = methodOf(vars);
+        this.kinds = kinds;
+        this.values = values;
+    }
+
+    private static JMethod methodOf(List<Var> vars) {
+        return vars == null || vars.isEmpty() ? null : vars.get(0).getMethod();
+    }
+
+    private void bind(List<Var> vars) {
+        if (this.vars == null) {
+            this.vars = vars;
+            this.method = methodOf(vars);
+            kinds = new byte[vars.size()];
+            values = new int[vars.size()];
+        } else if (methodOf(vars) != method) {
+            throw new AnalysisException("Cannot combine facts of " +
+                    method + " and " + methodOf(vars));
+        }
+    }
+
+    /**
+     * Checks that given variable belongs to the method of this fact,
+     * if this fact is bound.
+     */
+    private void checkVar(Var var) {
+        if (vars != null && var.getMethod() != method) {
+            throw new AnalysisException("Variable " + var + " of " +
+                    var.getMethod() + " is not in the fact of " + method);
+        }
+    }
+
+    private Value valueAt(int i) {
+        return switch (kinds[i]) {
+            case CONSTANT -> Value.makeConstant(values[i]);
+            case NAC -> Value.getNAC();
+            default -> Value.getUndef();
+        };
+    }
+
+    @Override
+    public Value get(Var key) {
+        checkVar(key);
+        int i = key.getIndex();
+        return i < kinds.length ? valueAt(i) : Value.getUndef();
+    }
+
+    @Override
+    public boolean update(Var key, Value value) {
+        if (value.isUndef()) {
+            return remove(key) != null;
+        }
+        if (vars == null) {
+            bind(key.getMethod().getIR().getVars());
+        } else {
+            checkVar(key);
+        }
+        int i = key.getIndex();
+        byte kind = value.isConstant() ? CONSTANT : NAC;
+        int v = value.isConstant() ? value.getConstant() : 0;
+        if (kinds[i] == kind && values[i] == v) {
+            return false;
+        }
+        kinds[i] = kind;
+        values[i] = v;
+        return true;
+    }
+
+    @Override
+    public Value remove(Var key) {
+        checkVar(key);
+        int i = key.getIndex();
+        if (i >= kinds.length || kinds[i] == UNDEF) {
+            return null;
+        }
+        Value old = valueAt(i);
+        kinds[i] = UNDEF;
+        values[i] = 0;
+        return old;
+    }
+
+    @Override
+    public boolean copyFrom(MapFact<Var, Value> fact) {
+        if (fact instanceof DenseCPFact that) {
+            if (that.vars == null) {
+                return false;
+            }
+            bind(that.vars);
+            boolean changed = false;
+            for (int i = 0; i < kinds.length; ++i) {
+                byte kind = that.kinds[i];
+                if (kind != UNDEF &&
+                        (kinds[i] != kind || values[i] != that.values[i])) {
+                    kinds[i] = kind;
+                    values[i] = that.values[i];
+                    changed = true;
+                }
+            }
+            return changed;
+        } else {
+            return super.copyFrom(fact);
+        }
+    }
+
+    /**
+     * Meets given fact into this fact, slot by slot, without creating
+     * any {@link Value}. The result is the same as meeting each variable
+     * by {@link ConstantPropagation#meetValue(Value, Value)}.
+     *
+     * @return true if this fact changed as a result of the call, otherwise false.
+     */
+    public boolean meet(DenseCPFact fact) {
+        if (fact.vars == null) {
+            return false;
+        }
+        bind(fact.vars);
+        boolean changed = false;
+        for (int i = 0; i < kinds.length; ++i) {
+            byte kind = fact.kinds[i];
+            if (kind == UNDEF || kinds[i] == NAC) {
+                continue;
+            }
+            if (kinds[i] == UNDEF) {
+                kinds[i] = kind;
+                values[i] = fact.values[i];
+                changed = true;
+            } else if (kind == NAC || values[i] != fact.values[i]) {
+                // this slot is CONSTANT and meets NAC or another constant
+                kinds[i] = NAC;
+                values[i] = 0;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    @Override
+    public DenseCPFact copy() {
+        return new DenseCPFact(vars, kinds.clone(), values.clone());
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(kinds, UNDEF);
+        Arrays.fill(values, 0);
+    }
+
+    private IntStream indexes() {
+        return IntStream.range(0, kinds.length)
+                .filter(i -> kinds[i] != UNDEF);
+    }
+
+    @Override
+    public Set<Var> keySet() {
+        Set<Var> keys = Sets.newHybridSet();
+        indexes().forEach(i -> keys.add(vars.get(i)));
+        return keys;
+    }
+
+    @Override
+    public Stream<Map.Entry<Var, Value>> entries() {
+        return indexes().mapToObj(i -> Map.entry(vars.get(i), valueAt(i)));
+    }
+
+    @Override
+    public void forEach(BiConsumer<Var, Value> action) {
+        indexes().forEach(i -> action.accept(vars.get(i), valueAt(i)));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof DenseCPFact that)) {
+            return super.equals(o);
+        }
+        int n = Math.max(kinds.length, that.kinds.length);
+        for (int i = 0; i < n; ++i) {
+            byte kind = i < kinds.length ? kinds[i] : UNDEF;
+            byte thatKind = i < that.kinds.length ? that.kinds[i] : UNDEF;
+            if (kind != thatKind ||
+                    (kind == CONSTANT && values[i] != that.values[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        // same as the hash code of a map with the same mappings,
+        // so that equal facts of other representations have the same
+        // hash code; UNDEF slots are absent from the map
+        int hash = 0;
+        for (int i = 0; i < kinds.length; ++i) {
+            if (kinds[i] != UNDEF) {
+                hash += vars.get(i).hashCode() ^ valueAt(i).hashCode();
+            }
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "{" + entries()
+                .sorted(Comparator.comparing(e -> e.getKey().toString()))
+                .map(e -> e.getKey() + "=" + e.getValue())
+                .collect(Collectors.joining(", ")) + "}";
+    }
+}
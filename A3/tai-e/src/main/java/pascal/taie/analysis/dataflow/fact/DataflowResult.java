@@ -22,6 +22,8 @@
 
 package pascal.taie.analysis.dataflow.fact;
 
+import pascal.taie.analysis.graph.cfg.CFG;
+
 import java.util.LinkedHashMap;
 import java.util.Map;
 
@@ -33,9 +35,24 @@ import java.util.Map;
  */
 public class DataflowResult<Node, Fact> implements NodeResult<Node, Fact> {
 
-    private final Map<Node, Fact> inFacts = new LinkedHashMap<>();
+    private final Map<Node, Fact> inFacts;
+
+    private final Map<Node, Fact> outFacts;
 
-    private final Map<Node, Fact> outFacts = new LinkedHashMap<>();
+    public DataflowResult() {
+        inFacts = new LinkedHashMap<>();
+        outFacts = new LinkedHashMap<>();
+    }
+
+    /**
+     * Constructor for the subclasses which keep the facts
+     * in their own representation, thus the maps are not allocated.
+     * Such subclasses must override all methods accessing the facts.
+     */
+    protected DataflowResult(Void unused) {
+        inFacts = null;
+        outFacts = null;
+    }
 
     /**
      * @return the flowing-in fact of given node.
@@ -66,4 +83,16 @@ public class DataflowResult<Node, Fact> implements NodeResult<Node, Fact> {
     public void setOutFact(Node node, Fact fact) {
         outFacts.put(node, fact);
     }
+
+    /**
+     * Converts this result of given CFG into a compact read-only
+     * {@link FrozenDataflowResult}. This result is not modified.
+     * The nodes of the CFG, except the entry and exit, must be
+     * {@link pascal.taie.util.Indexable}, e.g., statements.
+     *
+     * @return the frozen result
+     */
+    public DataflowResult<Node, Fact> freeze(CFG<Node> cfg) {
+        return new FrozenDataflowResult<>(cfg, this);
+    }
 }
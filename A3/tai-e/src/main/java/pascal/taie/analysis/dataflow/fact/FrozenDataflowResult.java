@@ -0,0 +1,181 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.fact;
+
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.util.Indexable;
+import pascal.taie.util.collection.Maps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact and read-only snapshot of a solved {@link DataflowResult}.
+ * <p>
+ * Equal facts are stored only once and shared by all nodes holding them,
+ * e.g., the out fact of a node and the in fact of its single successor,
+ * or the facts of consecutive statements which do not change the fact.
+ * Each node is addressed by {@link Indexable#getIndex()} into arrays
+ * of fact numbers; the entry and exit of the CFG, which are not in IR,
+ * take the two numbers after the largest index. The out fact of a node
+ * which is equal to the in fact of its single successor is stored as
+ * the same fact number, thus it costs one int and is not recomputed on
+ * query, which would need the CFG or the analysis.
+ * <p>
+ * The facts are shared, thus they must not be modified. The nodes are not
+ * hashed, thus querying the facts of a node which is not in the CFG gives
+ * an unspecified result.
+ *
+ * @param <Node> type of nodes, which must be {@link Indexable}
+ *               except the entry and exit of the CFG
+ * @param <Fact> type of data-flow facts
+ */
+public class FrozenDataflowResult<Node, Fact> extends DataflowResult<Node, Fact> {
+
+    private final CFG<Node> cfg;
+
+    /**
+     * Position of the entry in {@link #inFacts} and {@link #outFacts}.
+     * The exit is right after it.
+     */
+    private final int entryPos;
+
+    /**
+     * Distinct facts of the result.
+     */
+    private final Object[] facts;
+
+    /**
+     * Positions of the in facts of the nodes in {@link #facts};
+     * -1 if a node has no in fact.
+     */
+    private final int[] inFacts;
+
+    /**
+     * Positions of the out facts of the nodes in {@link #facts};
+     * -1 if a node has no out fact.
+     */
+    private final int[] outFacts;
+
+    FrozenDataflowResult(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
+        super((Void) null);
+        this.cfg = cfg;
+        int maxIndex = -1;
+        for (Node node : cfg) {
+            if (!cfg.isEntry(node) && !cfg.isExit(node)) {
+                maxIndex = Math.max(maxIndex, indexOf(node));
+            }
+        }
+        entryPos = maxIndex + 1;
+        inFacts = new int[entryPos + 2];
+        outFacts = new int[entryPos + 2];
+        Arrays.fill(inFacts, -1);
+        Arrays.fill(outFacts, -1);
+        Map<Fact, Integer> positions = Maps.newMap();
+        List<Fact> distinctFacts = new ArrayList<>();
+        for (Node node : cfg) {
+            int pos = positionOf(node);
+            inFacts[pos] = intern(result.getInFact(node), positions, distinctFacts);
+            outFacts[pos] = intern(result.getOutFact(node), positions, distinctFacts);
+        }
+        facts = distinctFacts.toArray();
+    }
+
+    private static <Fact> int intern(Fact fact, Map<Fact, Integer> positions,
+                                     List<Fact> distinctFacts) {
+        if (fact == null) {
+            return -1;
+        }
+        return positions.computeIfAbsent(fact, f -> {
+            distinctFacts.add(f);
+            return distinctFacts.size() - 1;
+        });
+    }
+
+    private int indexOf(Node node) {
+        if (node instanceof Indexable indexable) {
+            return indexable.getIndex();
+        }
+        throw new IllegalArgumentException(
+                "Cannot freeze result of non-indexable node: " + node);
+    }
+
+    /**
+     * @return position of given node in {@link #inFacts} and
+     * {@link #outFacts}, or -1 if the node cannot be in the CFG.
+     */
+    private int positionOf(Node node) {
+        if (cfg.isEntry(node)) {
+            return entryPos;
+        } else if (cfg.isExit(node)) {
+            return entryPos + 1;
+        } else if (node instanceof Indexable indexable) {
+            return indexable.getIndex();
+        } else {
+            return -1;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Fact getFact(int[] positions, Node node) {
+        int pos = positionOf(node);
+        if (pos < 0 || pos >= positions.length || positions[pos] < 0) {
+            return null;
+        }
+        return (Fact) facts[positions[pos]];
+    }
+
+    @Override
+    public Fact getInFact(Node node) {
+        return getFact(inFacts, node);
+    }
+
+    @Override
+    public Fact getOutFact(Node node) {
+        return getFact(outFacts, node);
+    }
+
+    @Override
+    public void setInFact(Node node, Fact fact) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setOutFact(Node node, Fact fact) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * @return the number of distinct facts in this result.
+     */
+    int getNumberOfFacts() {
+        return facts.length;
+    }
+
+    @Override
+    public DataflowResult<Node, Fact> freeze(CFG<Node> cfg) {
+        return this;
+    }
+}
@@ -0,0 +1,260 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.fact;
+
+import pascal.taie.util.Indexable;
+import pascal.taie.util.collection.CollectionUtils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Represents set-like data-flow facts over a fixed universe of
+ * {@link Indexable} elements, e.g., the variables of a method.
+ * The set is represented as a bit vector indexed by
+ * {@link Indexable#getIndex()}, so that set operations work on
+ * whole words and do not allocate.
+ * <p>
+ * All facts of an analysis should be created over the same universe.
+ * This class inherits {@link SetFact} so that it can be used wherever
+ * a {@link SetFact} is expected, and does not allocate the inherited
+ * {@link #set}; it can be combined with and compared to other
+ * {@link SetFact}s, in which case the elements are handled one by one.
+ *
+ * @param <E> type of elements
+ */
+public class IndexedSetFact<E extends Indexable> extends SetFact<E> {
+
+    private static final int ADDRESS_BITS_PER_WORD = 6;
+
+    /**
+     * The universe of elements, where the element of index i is at
+     * the i-th position.
+     */
+    private final List<E> universe;
+
+    /**
+     * The bit vector holding the elements of this fact.
+     */
+    private final long[] words;
+
+    /**
+     * Constructs an empty fact over given universe.
+     *
+     * @param universe all elements that may be contained in this fact,
+     *                 the element of index i must be the i-th one in the list.
+     */
+    public IndexedSetFact(List<E> universe) {
+        this(universe, new long[wordIndex(universe.size() - 1) + 1]);
+    }
+
+    private IndexedSetFact(List<E> universe, long[] words) {
+        super((Void) null);
+        this.universe = universe;
+        this.words = words;
+    }
+
+    private static int wordIndex(int bitIndex) {
+        return bitIndex >> ADDRESS_BITS_PER_WORD;
+    }
+
+    @Override
+    public boolean contains(E e) {
+        int i = e.getIndex();
+        return (words[wordIndex(i)] & (1L << i)) != 0;
+    }
+
+    @Override
+    public boolean add(E e) {
+        int i = e.getIndex();
+        int wordIndex = wordIndex(i);
+        long old = words[wordIndex];
+        words[wordIndex] = old | (1L << i);
+        return words[wordIndex] != old;
+    }
+
+    @Override
+    public boolean remove(E e) {
+        int i = e.getIndex();
+        int wordIndex = wordIndex(i);
+        long old = words[wordIndex];
+        words[wordIndex] = old & ~(1L << i);
+        return words[wordIndex] != old;
+    }
+
+    @Override
+    public boolean removeIf(Predicate<E> filter) {
+        boolean changed = false;
+        for (int i = nextSetBit(0); i >= 0; i = nextSetBit(i + 1)) {
+            E e = universe.get(i);
+            if (filter.test(e)) {
+                changed |= remove(e);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Unions other fact into this fact in a single pass over the words.
+     *
+     * @return true if this fact changed as a result of the call, otherwise false.
+     */
+    @Override
+    public boolean union(SetFact<E> other) {
+        if (other instanceof IndexedSetFact<E> that) {
+            long changed = 0;
+            for (int i = 0; i < words.length; ++i) {
+                long old = words[i];
+                words[i] = old | that.words[i];
+                changed |= words[i] ^ old;
+            }
+            return changed != 0;
+        } else {
+            return super.union(other);
+        }
+    }
+
+    @Override
+    public IndexedSetFact<E> unionWith(SetFact<E> other) {
+        IndexedSetFact<E> result = copy();
+        result.union(other);
+        return result;
+    }
+
+    @Override
+    public boolean intersect(SetFact<E> other) {
+        if (other instanceof IndexedSetFact<E> that) {
+            long changed = 0;
+            for (int i = 0; i < words.length; ++i) {
+                long old = words[i];
+                words[i] = old & that.words[i];
+                changed |= words[i] ^ old;
+            }
+            return changed != 0;
+        } else {
+            return removeIf(e -> !other.contains(e));
+        }
+    }
+
+    @Override
+    public IndexedSetFact<E> intersectWith(SetFact<E> other) {
+        IndexedSetFact<E> result = copy();
+        result.intersect(other);
+        return result;
+    }
+
+    @Override
+    public void set(SetFact<E> other) {
+        if (other instanceof IndexedSetFact<E> that) {
+            System.arraycopy(that.words, 0, words, 0, words.length);
+        } else {
+            clear();
+            union(other);
+        }
+    }
+
+    @Override
+    public IndexedSetFact<E> copy() {
+        return new IndexedSetFact<>(universe, words.clone());
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(words, 0);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        for (long word : words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Stream<E> stream() {
+        return IntStream.iterate(nextSetBit(0), i -> i >= 0, i -> nextSetBit(i + 1))
+                .mapToObj(universe::get);
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (long word : words) {
+            size += Long.bitCount(word);
+        }
+        return size;
+    }
+
+    /**
+     * @return the index of the first element in this fact whose index
+     * is greater than or equal to given index, or -1 if there is no such element.
+     */
+    private int nextSetBit(int fromIndex) {
+        int wordIndex = wordIndex(fromIndex);
+        if (wordIndex >= words.length) {
+            return -1;
+        }
+        long word = words[wordIndex] & (-1L << fromIndex);
+        while (true) {
+            if (word != 0) {
+                return (wordIndex << ADDRESS_BITS_PER_WORD)
+                        + Long.numberOfTrailingZeros(word);
+            }
+            if (++wordIndex == words.length) {
+                return -1;
+            }
+            word = words[wordIndex];
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o instanceof IndexedSetFact<?> that) {
+            return Arrays.equals(words, that.words);
+        }
+        return super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        int hashCode = 0;
+        for (int i = nextSetBit(0); i >= 0; i = nextSetBit(i + 1)) {
+            hashCode += universe.get(i).hashCode();
+        }
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        return CollectionUtils.toString(stream().toList());
+    }
+}
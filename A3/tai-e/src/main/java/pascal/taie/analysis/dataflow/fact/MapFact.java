@@ -34,6 +34,13 @@ import java.util.stream.Stream;
 
 /**
  * Represents map-like data-flow facts.
+ * <p>
+ * Subclasses may keep the mappings in their own representation, in which
+ * case {@link #map} is null and they override all operations on the
+ * mappings. The operations taking other facts only access the mappings
+ * of the other fact via {@link #entries()} unless both facts are backed
+ * by {@link #map}, so that facts of different representations can be
+ * copied and compared.
  *
  * @param <K> type of keys
  * @param <V> type of values
@@ -41,7 +48,8 @@ import java.util.stream.Stream;
 public class MapFact<K, V> {
 
     /**
-     * The map holding the mappings of this MapFact.
+     * The map holding the mappings of this MapFact, or null if a subclass
+     * keeps the mappings in its own representation.
      */
     protected final Map<K, V> map;
 
@@ -54,6 +62,14 @@ public class MapFact<K, V> {
         this.map = Maps.newHybridMap(map);
     }
 
+    /**
+     * Constructor for the subclasses which keep the mappings
+     * in their own representation.
+     */
+    protected MapFact(Void unused) {
+        this.map = null;
+    }
+
     /**
      * @return the value to which the specified key is mapped,
      * or null if this map contains no mapping for the key.
@@ -88,7 +104,9 @@ public class MapFact<K, V> {
      */
     public boolean copyFrom(MapFact<K, V> fact) {
         boolean changed = false;
-        for (Map.Entry<K, V> entry : fact.map.entrySet()) {
+        Iterable<Map.Entry<K, V>> entries = fact.map != null ?
+                fact.map.entrySet() : fact.entries()::iterator;
+        for (Map.Entry<K, V> entry : entries) {
             changed |= update(entry.getKey(), entry.getValue());
         }
         return changed;
@@ -144,6 +162,34 @@ public class MapFact<K, V> {
         return map.equals(that.map);
     }
 
+    /**
+     * Compares the mappings of this fact and other fact, which may be of
+     * different representations.
+     */
+    protected boolean equalsMappings(MapFact<?, ?> other) {
+        return toMap().equals(other.toMap());
+    }
+
+    /**
+     * Computes the hash code of the mappings of this fact as specified by
+     * {@link Map#hashCode()}, so that facts of different representations
+     * with the same mappings have the same hash code.
+     */
+    protected int hashMappings() {
+        int[] hash = { 0 };
+        forEach((k, v) -> hash[0] += Objects.hashCode(k) ^ Objects.hashCode(v));
+        return hash[0];
+    }
+
+    private Map<K, V> toMap() {
+        if (map != null) {
+            return map;
+        }
+        Map<K, V> result = Maps.newHybridMap();
+        forEach(result::put);
+        return result;
+    }
+
     @Override
     public int hashCode() {
         return map.hashCode();
@@ -33,11 +33,22 @@ import java.util.stream.Stream;
 
 /**
  * Represents set-like data-flow facts.
+ * <p>
+ * Subclasses may keep the elements in their own representation, in which
+ * case {@link #set} is null and they override all operations on the
+ * elements. The operations taking other facts only access the elements
+ * of the other fact via {@link #contains(Object)} and {@link #stream()}
+ * unless both facts are backed by {@link #set}, so that facts of
+ * different representations can be combined and compared.
  *
  * @param <E> type of elements
  */
 public class SetFact<E> {
 
+    /**
+     * The elements of this fact, or null if a subclass keeps
+     * the elements in its own representation.
+     */
     protected final Set<E> set;
 
     public SetFact(Collection<E> c) {
@@ -48,6 +59,14 @@ public class SetFact<E> {
         this(Collections.emptySet());
     }
 
+    /**
+     * Constructor for the subclasses which keep the elements
+     * in their own representation.
+     */
+    protected SetFact(Void unused) {
+        set = null;
+    }
+
     /**
      * @return true if this set contains the specified element, otherwise false.
      */
@@ -89,7 +108,14 @@ public class SetFact<E> {
      * @return true if this fact changed as a result of the call, otherwise false.
      */
     public boolean union(SetFact<E> other) {
-        return set.addAll(other.set);
+        if (set != null && other.set != null) {
+            return set.addAll(other.set);
+        }
+        boolean changed = false;
+        for (E e : (Iterable<E>) other.stream()::iterator) {
+            changed |= add(e);
+        }
+        return changed;
     }
 
     /**
@@ -107,7 +133,10 @@ public class SetFact<E> {
      * @return true if this fact changed as a result of the call, otherwise false.
      */
     public boolean intersect(SetFact<E> other) {
-        return set.retainAll(other.set);
+        if (set != null && other.set != null) {
+            return set.retainAll(other.set);
+        }
+        return removeIf(e -> !other.contains(e));
     }
 
     /**
@@ -161,9 +190,25 @@ public class SetFact<E> {
         if (!(o instanceof SetFact<?> that)) {
             return false;
         }
-        return set.equals(that.set);
+        if (set != null && that.set != null) {
+            return set.equals(that.set);
+        }
+        return size() == that.size() && containsAll(that);
+    }
+
+    /**
+     * @return true if this fact contains all elements of other fact.
+     */
+    @SuppressWarnings("unchecked")
+    private boolean containsAll(SetFact<?> other) {
+        return other.stream().allMatch(e -> contains((E) e));
     }
 
+    /**
+     * @return the hash code of this fact, which is the sum of the hash
+     * codes of its elements as {@link Set#hashCode()}, so that equal facts
+     * of different representations have the same hash code.
+     */
     @Override
     public int hashCode() {
         return set.hashCode();
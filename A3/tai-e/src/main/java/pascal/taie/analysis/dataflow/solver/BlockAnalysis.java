@@ -0,0 +1,128 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
+import pascal.taie.analysis.graph.cfg.BasicBlock;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.Edge;
+
+import java.util.List;
+
+/**
+ * Lifts a data-flow analysis on CFG nodes to basic blocks,
+ * where the transfer function of a block is the composition of
+ * the transfer functions of its nodes.
+ * Like {@link WorkListSolver}, edge transfer is not applied.
+ */
+class BlockAnalysis<Node, Fact> implements DataflowAnalysis<BasicBlock<Node>, Fact> {
+
+    private final DataflowAnalysis<Node, Fact> analysis;
+
+    /**
+     * The underlying CFG, on which the boundary fact is created.
+     */
+    private final CFG<Node> cfg;
+
+    BlockAnalysis(DataflowAnalysis<Node, Fact> analysis, CFG<Node> cfg) {
+        this.analysis = analysis;
+        this.cfg = cfg;
+    }
+
+    @Override
+    public boolean isForward() {
+        return analysis.isForward();
+    }
+
+    @Override
+    public Fact newBoundaryFact(CFG<BasicBlock<Node>> blockCFG) {
+        return analysis.newBoundaryFact(cfg);
+    }
+
+    @Override
+    public Fact newInitialFact() {
+        return analysis.newInitialFact();
+    }
+
+    @Override
+    public void meetInto(Fact fact, Fact target) {
+        analysis.meetInto(fact, target);
+    }
+
+    @Override
+    public boolean transferNode(BasicBlock<Node> block, Fact in, Fact out) {
+        if (isForward()) {
+            Fact lastIn = transferInnerNodes(block, in, null, null);
+            return analysis.transferNode(block.getLast(), lastIn, out);
+        } else {
+            Fact firstOut = transferInnerNodes(block, out, null, null);
+            return analysis.transferNode(block.getFirst(), in, firstOut);
+        }
+    }
+
+    /**
+     * Applies the transfer functions of the nodes in given block in the
+     * direction of the analysis, except the node at the end of the block,
+     * i.e., the last node for forward analysis and the first node for
+     * backward analysis. The facts of each node are created afresh, and
+     * the fact flowing into a node is the meet of the fact of its only
+     * predecessor (successor), as the solver does.
+     *
+     * @param fact the in (out) fact of the block for forward (backward) analysis
+     * @param ins  if not null, receives the in facts of the transferred nodes,
+     *             indexed by their positions in the block
+     * @param outs if not null, receives the out facts of the transferred nodes
+     * @return the in (out) fact of the node at the end of the block
+     */
+    Fact transferInnerNodes(BasicBlock<Node> block, Fact fact,
+                            Object[] ins, Object[] outs) {
+        List<Node> nodes = block.getNodes();
+        int last = nodes.size() - 1;
+        for (int k = 0; k < last; ++k) {
+            int i = isForward() ? k : last - k;
+            Fact result = analysis.newInitialFact();
+            if (isForward()) {
+                analysis.transferNode(nodes.get(i), fact, result);
+            } else {
+                analysis.transferNode(nodes.get(i), result, fact);
+            }
+            if (ins != null) {
+                ins[i] = isForward() ? fact : result;
+                outs[i] = isForward() ? result : fact;
+            }
+            fact = analysis.newInitialFact();
+            analysis.meetInto(result, fact);
+        }
+        return fact;
+    }
+
+    @Override
+    public boolean needTransferEdge(Edge<BasicBlock<Node>> edge) {
+        return false;
+    }
+
+    @Override
+    public Fact transferEdge(Edge<BasicBlock<Node>> edge, Fact nodeFact) {
+        throw new UnsupportedOperationException();
+    }
+}
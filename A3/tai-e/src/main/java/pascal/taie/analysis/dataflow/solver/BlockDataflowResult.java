@@ -0,0 +1,116 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.graph.cfg.BasicBlock;
+import pascal.taie.analysis.graph.cfg.BlockCFG;
+
+/**
+ * Result of {@link BlockSolver}, which stores only the facts of the blocks
+ * and computes the facts of the nodes inside a block on demand.
+ * The facts of the most recently queried block are cached, so that
+ * querying the nodes of a block one by one replays the block only once.
+ * This result cannot be modified.
+ */
+class BlockDataflowResult<Node, Fact> extends DataflowResult<Node, Fact> {
+
+    private final BlockAnalysis<Node, Fact> analysis;
+
+    private final BlockCFG<Node> blockCFG;
+
+    private final DataflowResult<BasicBlock<Node>, Fact> blockResult;
+
+    private volatile Replay<Node> lastReplay;
+
+    /**
+     * Facts of the nodes in a block, indexed by positions in the block.
+     */
+    private record Replay<Node>(BasicBlock<Node> block, Object[] ins, Object[] outs) {
+    }
+
+    BlockDataflowResult(BlockAnalysis<Node, Fact> analysis, BlockCFG<Node> blockCFG,
+                        DataflowResult<BasicBlock<Node>, Fact> blockResult) {
+        super((Void) null);
+        this.analysis = analysis;
+        this.blockCFG = blockCFG;
+        this.blockResult = blockResult;
+    }
+
+    @Override
+    public Fact getInFact(Node node) {
+        return getFact(node, true);
+    }
+
+    @Override
+    public Fact getOutFact(Node node) {
+        return getFact(node, false);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Fact getFact(Node node, boolean isIn) {
+        BasicBlock<Node> block = blockCFG.getBlockOf(node);
+        if (block == null) {
+            return null;
+        }
+        if (block.size() == 1) {
+            return isIn ? blockResult.getInFact(block) : blockResult.getOutFact(block);
+        }
+        Replay<Node> replay = lastReplay;
+        if (replay == null || replay.block() != block) {
+            replay = replay(block);
+            lastReplay = replay;
+        }
+        int pos = blockCFG.getPositionOf(node);
+        return (Fact) (isIn ? replay.ins()[pos] : replay.outs()[pos]);
+    }
+
+    private Replay<Node> replay(BasicBlock<Node> block) {
+        Object[] ins = new Object[block.size()];
+        Object[] outs = new Object[block.size()];
+        Fact in = blockResult.getInFact(block);
+        Fact out = blockResult.getOutFact(block);
+        int last = block.size() - 1;
+        if (analysis.isForward()) {
+            ins[0] = in;
+            ins[last] = analysis.transferInnerNodes(block, in, ins, outs);
+            outs[last] = out;
+        } else {
+            outs[last] = out;
+            outs[0] = analysis.transferInnerNodes(block, out, ins, outs);
+            ins[0] = in;
+        }
+        return new Replay<>(block, ins, outs);
+    }
+
+    @Override
+    public void setInFact(Node node, Fact fact) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setOutFact(Node node, Fact fact) {
+        throw new UnsupportedOperationException();
+    }
+}
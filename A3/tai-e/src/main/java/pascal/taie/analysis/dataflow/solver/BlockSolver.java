@@ -0,0 +1,63 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.graph.cfg.BasicBlock;
+import pascal.taie.analysis.graph.cfg.BlockCFG;
+import pascal.taie.analysis.graph.cfg.CFG;
+
+/**
+ * Solver which solves a data-flow problem on the {@link BlockCFG}
+ * of the given CFG, so that the work list schedules basic blocks
+ * instead of single nodes, and only the facts at the boundaries
+ * of the blocks are stored. The facts of the nodes inside a block
+ * are computed on demand by replaying the transfer functions.
+ *
+ * @param <Node> type of CFG nodes
+ * @param <Fact> type of data-flow facts
+ */
+public class BlockSolver<Node, Fact> {
+
+    private final DataflowAnalysis<Node, Fact> analysis;
+
+    public BlockSolver(DataflowAnalysis<Node, Fact> analysis) {
+        this.analysis = analysis;
+    }
+
+    /**
+     * Starts this solver on the given CFG.
+     *
+     * @param cfg control-flow graph where the analysis is performed on
+     * @return the analysis result, which cannot be modified
+     */
+    public DataflowResult<Node, Fact> solve(CFG<Node> cfg) {
+        BlockCFG<Node> blockCFG = new BlockCFG<>(cfg);
+        BlockAnalysis<Node, Fact> blockAnalysis = new BlockAnalysis<>(analysis, cfg);
+        DataflowResult<BasicBlock<Node>, Fact> blockResult = Solver
+                .makeSolver(blockAnalysis)
+                .solve(blockCFG);
+        return new BlockDataflowResult<>(blockAnalysis, blockCFG, blockResult);
+    }
+}
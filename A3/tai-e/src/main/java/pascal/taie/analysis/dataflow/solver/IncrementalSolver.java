@@ -0,0 +1,402 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.SetQueue;
+import pascal.taie.util.collection.Sets;
+import pascal.taie.util.graph.SCC;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Solver which keeps the result of a method and updates it after
+ * the method is edited, instead of solving the edited method from scratch.
+ * <p>
+ * The nodes whose transfer functions or incoming edges (in the direction
+ * of the analysis) changed are re-seeded, and the changes are propagated
+ * over the strongly connected components (SCCs) of the CFG in topological
+ * order. A component is recomputed only if the facts flowing into it
+ * changed: a single node is transferred once from the meet of its
+ * predecessors (successors), and a loop is reset to the initial facts
+ * and solved again, so that stale facts which flow back along the loop
+ * never survive. The propagation stops where the new facts equal
+ * the old ones, and the facts of the other nodes are kept, thus the
+ * result is the same as solving the edited method from scratch.
+ *
+ * @param <Node> type of CFG nodes
+ * @param <Fact> type of data-flow facts
+ */
+public class IncrementalSolver<Node, Fact> {
+
+    private final DataflowAnalysis<Node, Fact> analysis;
+
+    private final boolean isForward;
+
+    private CFG<Node> cfg;
+
+    private DataflowResult<Node, Fact> result;
+
+    /**
+     * SCCs of {@link #cfg} in topological order in the direction
+     * of the analysis.
+     */
+    private List<List<Node>> components;
+
+    /**
+     * Maps each node of {@link #cfg} to the position of its SCC
+     * in {@link #components}.
+     */
+    private Map<Node, Integer> node2Component;
+
+    /**
+     * Nodes whose facts were computed by the last solving.
+     */
+    private Set<Node> affectedNodes = Set.of();
+
+    public IncrementalSolver(DataflowAnalysis<Node, Fact> analysis) {
+        this.analysis = analysis;
+        this.isForward = analysis.isForward();
+    }
+
+    /**
+     * Solves given CFG from scratch and keeps the result.
+     *
+     * @return the analysis result, which is updated by later
+     * calls to {@link #update(CFG, Collection)}
+     */
+    public DataflowResult<Node, Fact> solve(CFG<Node> cfg) {
+        setCFG(cfg);
+        result = Solver.makeSolver(analysis).solve(cfg);
+        affectedNodes = cfg.getNodes();
+        return result;
+    }
+
+    /**
+     * Updates the kept result for the edited method.
+     * <p>
+     * The nodes of given CFG which are also nodes of the previous CFG,
+     * and whose incoming edges are unchanged, are assumed to have
+     * the same transfer functions as before, unless they are given
+     * as changed. The entry and exit of the two CFGs are matched
+     * with each other.
+     *
+     * @param cfg     CFG of the edited method, which can be the previous one
+     * @param changed nodes whose transfer functions changed
+     * @return the updated result
+     */
+    public DataflowResult<Node, Fact> update(CFG<Node> cfg, Collection<Node> changed) {
+        if (result == null) {
+            return solve(cfg);
+        }
+        CFG<Node> oldCFG = this.cfg;
+        DataflowResult<Node, Fact> oldResult = result;
+        Set<Node> seeds = Sets.newSet();
+        seeds.addAll(changed);
+        if (cfg != oldCFG) {
+            setCFG(cfg);
+            // copy the facts of the kept nodes to a new result,
+            // so that the facts of removed nodes are discarded
+            result = new DataflowResult<>();
+            for (Node node : cfg) {
+                Node oldNode = getOldNode(node, oldCFG);
+                if (oldNode == null) {
+                    seeds.add(node);
+                    continue;
+                }
+                result.setInFact(node, oldResult.getInFact(oldNode));
+                result.setOutFact(node, oldResult.getOutFact(oldNode));
+                if (!hasSameSources(node, oldNode, oldCFG)) {
+                    seeds.add(node);
+                }
+            }
+        }
+        affectedNodes = Sets.newSet();
+        BitSet dirty = new BitSet(components.size());
+        for (Node node : seeds) {
+            Integer component = node2Component.get(node);
+            if (component != null) {
+                dirty.set(component);
+            }
+        }
+        updateBoundary(dirty);
+        for (int i = dirty.nextSetBit(0); i >= 0; i = dirty.nextSetBit(0)) {
+            dirty.clear(i);
+            List<Node> component = components.get(i);
+            if (component.size() == 1 && !hasSelfLoop(component.get(0))) {
+                updateNode(component.get(0), dirty);
+            } else {
+                updateLoop(component, dirty);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the nodes whose facts were computed by the last call of
+     * {@link #solve(CFG)} or {@link #update(CFG, Collection)}.
+     * The facts of other nodes are unchanged.
+     */
+    public Set<Node> getAffectedNodes() {
+        return Collections.unmodifiableSet(affectedNodes);
+    }
+
+    private void setCFG(CFG<Node> cfg) {
+        if (this.cfg == cfg) {
+            return;
+        }
+        this.cfg = cfg;
+        components = topologicalSort(new SCC<>(cfg).getComponents());
+        node2Component = Maps.newMap(cfg.getNumberOfNodes());
+        for (int i = 0; i < components.size(); ++i) {
+            for (Node node : components.get(i)) {
+                node2Component.put(node, i);
+            }
+        }
+    }
+
+    /**
+     * Sorts the SCCs of {@link #cfg} in the direction of the analysis.
+     */
+    private List<List<Node>> topologicalSort(List<List<Node>> sccs) {
+        Map<Node, Integer> node2SCC = Maps.newMap(cfg.getNumberOfNodes());
+        for (int i = 0; i < sccs.size(); ++i) {
+            for (Node node : sccs.get(i)) {
+                node2SCC.put(node, i);
+            }
+        }
+        int[] inDegrees = new int[sccs.size()];
+        for (Node node : cfg) {
+            for (Node target : getTargets(cfg, node)) {
+                if (!node2SCC.get(node).equals(node2SCC.get(target))) {
+                    ++inDegrees[node2SCC.get(target)];
+                }
+            }
+        }
+        List<List<Node>> sorted = new ArrayList<>(sccs.size());
+        Deque<Integer> ready = new ArrayDeque<>();
+        for (int i = 0; i < sccs.size(); ++i) {
+            if (inDegrees[i] == 0) {
+                ready.add(i);
+            }
+        }
+        while (!ready.isEmpty()) {
+            int i = ready.poll();
+            sorted.add(sccs.get(i));
+            for (Node node : sccs.get(i)) {
+                for (Node target : getTargets(cfg, node)) {
+                    int j = node2SCC.get(target);
+                    if (i != j && --inDegrees[j] == 0) {
+                        ready.add(j);
+                    }
+                }
+            }
+        }
+        return sorted;
+    }
+
+    /**
+     * Resets the facts of the boundary node, i.e., the entry for forward
+     * analysis and the exit for backward analysis, and marks the SCCs
+     * after it as dirty if its boundary fact changed.
+     */
+    private void updateBoundary(BitSet dirty) {
+        Node boundary = isForward ? cfg.getEntry() : cfg.getExit();
+        Fact boundaryFact = analysis.newBoundaryFact(cfg);
+        Fact oldFact = getOutput(boundary);
+        setInput(boundary, analysis.newInitialFact());
+        setOutput(boundary, boundaryFact);
+        affectedNodes.add(boundary);
+        if (!boundaryFact.equals(oldFact)) {
+            markTargets(boundary, dirty);
+        }
+        // the boundary node has no incoming edges, thus it forms its own
+        // SCC which must not be transferred
+        dirty.clear(node2Component.get(boundary));
+    }
+
+    /**
+     * Recomputes the facts of a node which is not in a loop.
+     */
+    private void updateNode(Node node, BitSet dirty) {
+        Fact input = analysis.newInitialFact();
+        for (Node source : getSources(cfg, node)) {
+            analysis.meetInto(getOutput(source), input);
+        }
+        Fact output = analysis.newInitialFact();
+        transfer(node, input, output);
+        Fact oldOutput = getOutput(node);
+        setInput(node, input);
+        setOutput(node, output);
+        affectedNodes.add(node);
+        if (!output.equals(oldOutput)) {
+            markTargets(node, dirty);
+        }
+    }
+
+    /**
+     * Resets the facts of the nodes in a loop and solves the loop
+     * with the facts flowing into it.
+     */
+    private void updateLoop(List<Node> loop, BitSet dirty) {
+        Map<Node, Fact> oldOutputs = Maps.newMap(loop.size());
+        for (Node node : loop) {
+            oldOutputs.put(node, getOutput(node));
+            setInput(node, analysis.newInitialFact());
+            setOutput(node, analysis.newInitialFact());
+        }
+        affectedNodes.addAll(loop);
+        int component = node2Component.get(loop.get(0));
+        Queue<Node> workList = new SetQueue<>();
+        workList.addAll(loop);
+        while (!workList.isEmpty()) {
+            Node node = workList.poll();
+            Fact input = getInput(node);
+            for (Node source : getSources(cfg, node)) {
+                analysis.meetInto(getOutput(source), input);
+            }
+            if (transfer(node, input, getOutput(node))) {
+                for (Node target : getTargets(cfg, node)) {
+                    if (node2Component.get(target) == component) {
+                        workList.add(target);
+                    }
+                }
+            }
+        }
+        for (Node node : loop) {
+            if (!getOutput(node).equals(oldOutputs.get(node))) {
+                markTargets(node, dirty);
+            }
+        }
+    }
+
+    private boolean transfer(Node node, Fact input, Fact output) {
+        return isForward ?
+                analysis.transferNode(node, input, output) :
+                analysis.transferNode(node, output, input);
+    }
+
+    /**
+     * Marks the SCCs of the targets of given node, except its own SCC,
+     * as dirty.
+     */
+    private void markTargets(Node node, BitSet dirty) {
+        int component = node2Component.get(node);
+        for (Node target : getTargets(cfg, node)) {
+            int targetComponent = node2Component.get(target);
+            if (targetComponent != component) {
+                dirty.set(targetComponent);
+            }
+        }
+    }
+
+    private boolean hasSelfLoop(Node node) {
+        return cfg.getSuccsOf(node).contains(node);
+    }
+
+    /**
+     * @return the node of the previous CFG which given node of
+     * the current CFG corresponds to, or null if there is no such node.
+     */
+    private Node getOldNode(Node node, CFG<Node> oldCFG) {
+        if (cfg.isEntry(node)) {
+            return oldCFG.getEntry();
+        } else if (cfg.isExit(node)) {
+            return oldCFG.getExit();
+        } else {
+            return oldCFG.hasNode(node) ? node : null;
+        }
+    }
+
+    /**
+     * @return true if the sources of given node in the current CFG are
+     * the sources of given old node in the previous CFG.
+     */
+    private boolean hasSameSources(Node node, Node oldNode, CFG<Node> oldCFG) {
+        Set<Node> sources = getSources(cfg, node);
+        Set<Node> oldSources = getSources(oldCFG, oldNode);
+        if (sources.size() != oldSources.size()) {
+            return false;
+        }
+        // the sets returned by CFG are views which are not comparable
+        // by equals(), thus we compare their elements
+        for (Node source : sources) {
+            if (!oldSources.contains(getOldNode(source, oldCFG))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the nodes whose facts flow into given node,
+     * i.e., predecessors for forward analysis and successors
+     * for backward analysis.
+     */
+    private Set<Node> getSources(CFG<Node> cfg, Node node) {
+        return isForward ? cfg.getPredsOf(node) : cfg.getSuccsOf(node);
+    }
+
+    /**
+     * @return the nodes which the facts of given node flow to.
+     */
+    private Set<Node> getTargets(CFG<Node> cfg, Node node) {
+        return isForward ? cfg.getSuccsOf(node) : cfg.getPredsOf(node);
+    }
+
+    private Fact getInput(Node node) {
+        return isForward ? result.getInFact(node) : result.getOutFact(node);
+    }
+
+    private void setInput(Node node, Fact fact) {
+        if (isForward) {
+            result.setInFact(node, fact);
+        } else {
+            result.setOutFact(node, fact);
+        }
+    }
+
+    private Fact getOutput(Node node) {
+        return isForward ? result.getOutFact(node) : result.getInFact(node);
+    }
+
+    private void setOutput(Node node, Fact fact) {
+        if (isForward) {
+            result.setOutFact(node, fact);
+        } else {
+            result.setInFact(node, fact);
+        }
+    }
+}
@@ -26,9 +26,6 @@ import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
 import pascal.taie.analysis.graph.cfg.CFG;
 
-import java.util.HashSet;
-import java.util.Vector;
-
 class WorkListSolver<Node, Fact> extends Solver<Node, Fact> {
 
     WorkListSolver(DataflowAnalysis<Node, Fact> analysis) {
@@ -37,8 +34,7 @@ class WorkListSolver<Node, Fact> extends Solver<Node, Fact> {
 
     @Override
     protected void doSolveForward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
-        // TODO - finish me
-        Vector<Node> workList = new Vector<Node>();
+        NodeWorkList<Node> workList = new NodeWorkList<>(cfg, true);
         // add all basic blocks to workList, except Entry block!
         for (Node node: cfg) {
             if (!cfg.isEntry(node)) {
@@ -47,7 +43,7 @@ class WorkListSolver<Node, Fact> extends Solver<Node, Fact> {
         }
 
         while (!workList.isEmpty()) {
-            Node curBlock = workList.remove(0);
+            Node curBlock = workList.poll();
             // calculate IN[B] and update the result
             Fact inB = result.getInFact(curBlock);
             for (Node predsNode: cfg.getPredsOf(curBlock)) {
@@ -65,8 +61,7 @@ class WorkListSolver<Node, Fact> extends Solver<Node, Fact> {
 
     @Override
     protected void doSolveBackward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
-        // TODO - finish me
-        Vector<Node> workList = new Vector<>();
+        NodeWorkList<Node> workList = new NodeWorkList<>(cfg, false);
         // add all basic blocks to workList, except Exit block!
         for (Node node: cfg) {
             if (!cfg.isExit(node)) {
@@ -75,7 +70,7 @@ class WorkListSolver<Node, Fact> extends Solver<Node, Fact> {
         }
 
         while (!workList.isEmpty()) {
-            Node curBlock = workList.remove(0);
+            Node curBlock = workList.poll();
             // calculate OUT[B] and update the result
             Fact outB = result.getOutFact(curBlock);
             for (Node succsNode: cfg.getSuccsOf(curBlock)) {
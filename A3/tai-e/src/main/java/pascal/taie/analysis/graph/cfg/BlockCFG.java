@@ -0,0 +1,153 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.graph.cfg;
+
+import pascal.taie.util.collection.Maps;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Control-flow graph whose nodes are the {@link BasicBlock}s of
+ * another CFG. The entry and exit of the underlying CFG are in
+ * their own blocks, which are the entry and exit of this CFG.
+ * The edges between blocks keep the kinds of the underlying edges.
+ *
+ * @param <N> type of nodes of the underlying CFG
+ */
+public class BlockCFG<N> extends AbstractCFG<BasicBlock<N>> {
+
+    private final CFG<N> cfg;
+
+    /**
+     * Maps each node of the underlying CFG to the block containing it.
+     */
+    private final Map<N, BasicBlock<N>> node2Block;
+
+    /**
+     * Maps each node of the underlying CFG to its position in its block.
+     */
+    private final Map<N, Integer> node2Position;
+
+    public BlockCFG(CFG<N> cfg) {
+        super(cfg.getIR());
+        this.cfg = cfg;
+        node2Block = Maps.newMap(cfg.getNumberOfNodes());
+        node2Position = Maps.newMap(cfg.getNumberOfNodes());
+        // leaders first, then the nodes in cycles without leaders,
+        // which are unreachable from the entry
+        for (N node : cfg) {
+            if (isLeader(node)) {
+                buildBlock(node);
+            }
+        }
+        for (N node : cfg) {
+            if (!node2Block.containsKey(node)) {
+                buildBlock(node);
+            }
+        }
+        setEntry(node2Block.get(cfg.getEntry()));
+        setExit(node2Block.get(cfg.getExit()));
+        for (BasicBlock<N> block : getNodes()) {
+            for (Edge<N> edge : cfg.getOutEdgesOf(block.getLast())) {
+                addEdge(copyEdge(edge, block, node2Block.get(edge.getTarget())));
+            }
+        }
+    }
+
+    /**
+     * @return true if given node starts a basic block.
+     */
+    private boolean isLeader(N node) {
+        return !continuesPred(node);
+    }
+
+    /**
+     * @return true if given node can be put in the block of its predecessor.
+     */
+    private boolean continuesPred(N node) {
+        if (cfg.isEntry(node) || cfg.isExit(node)
+                || cfg.getPredsOf(node).size() != 1) {
+            return false;
+        }
+        N pred = cfg.getPredsOf(node).iterator().next();
+        return !cfg.isEntry(pred) && cfg.getSuccsOf(pred).size() == 1;
+    }
+
+    private void buildBlock(N leader) {
+        List<N> nodes = new ArrayList<>();
+        N node = leader;
+        while (true) {
+            nodes.add(node);
+            if (cfg.getSuccsOf(node).size() != 1) {
+                break;
+            }
+            N succ = cfg.getSuccsOf(node).iterator().next();
+            if (succ == leader || node2Block.containsKey(succ)
+                    || !continuesPred(succ)) {
+                break;
+            }
+            node = succ;
+        }
+        BasicBlock<N> block = new BasicBlock<>(getNumberOfNodes(), nodes);
+        for (int i = 0; i < nodes.size(); ++i) {
+            node2Block.put(nodes.get(i), block);
+            node2Position.put(nodes.get(i), i);
+        }
+        addNode(block);
+    }
+
+    private static <N> Edge<BasicBlock<N>> copyEdge(
+            Edge<N> edge, BasicBlock<N> source, BasicBlock<N> target) {
+        if (edge.isSwitchCase()) {
+            return new SwitchCaseEdge<>(source, target, edge.getCaseValue());
+        } else if (edge.isExceptional()) {
+            return new ExceptionalEdge<>(edge.getKind(), source, target,
+                    edge.getExceptions());
+        } else {
+            return new Edge<>(edge.getKind(), source, target);
+        }
+    }
+
+    /**
+     * @return the underlying CFG.
+     */
+    public CFG<N> getNodeCFG() {
+        return cfg;
+    }
+
+    /**
+     * @return the block containing given node of the underlying CFG.
+     */
+    public BasicBlock<N> getBlockOf(N node) {
+        return node2Block.get(node);
+    }
+
+    /**
+     * @return the position of given node of the underlying CFG in its block.
+     */
+    public int getPositionOf(N node) {
+        return node2Position.get(node);
+    }
+}
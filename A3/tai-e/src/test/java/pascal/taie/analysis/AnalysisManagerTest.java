@@ -0,0 +1,64 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis;
+
+import org.junit.Test;
+import pascal.taie.Main;
+import pascal.taie.analysis.exception.ThrowAnalysis;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.config.ConfigException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+public class AnalysisManagerTest {
+
+    /**
+     * Scope "reachable" needs a call graph, which is not built
+     * in this assignment.
+     */
+    @Test(expected = ConfigException.class)
+    public void testReachableScope() throws IOException {
+        Main.buildWorld("-pp", "-cp", "src/test/resources/dataflow/deadcode",
+                "-m", "Loops", "-scope", "reachable");
+        new AnalysisManager().execute(loadPlan(ThrowAnalysis.ID, CFGBuilder.ID));
+    }
+
+    private static List<AnalysisConfig> loadPlan(String... ids) throws IOException {
+        try (InputStream content = AnalysisManagerTest.class
+                .getClassLoader()
+                .getResourceAsStream("tai-e-analyses.yml")) {
+            Map<String, AnalysisConfig> configs = AnalysisConfig
+                    .parseConfigs(content)
+                    .stream()
+                    .collect(Collectors.toMap(AnalysisConfig::getId,
+                            Function.identity()));
+            return List.of(ids).stream().map(configs::get).toList();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis;
+
+import pascal.taie.Main;
+import pascal.taie.analysis.dataflow.analysis.DeadCodeDetection;
+import pascal.taie.analysis.dataflow.analysis.LiveVariableAnalysis;
+import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
+import pascal.taie.analysis.exception.ThrowAnalysis;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.config.AnalysisConfig;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Measures how {@link AnalysisManager} scales with the number of threads
+ * when running livevar, constprop and deadcode on all methods of
+ * the JDK library. This is not a unit test; run it with
+ * <pre>java pascal.taie.analysis.MethodAnalysisBenchmark [threads...]</pre>
+ */
+public class MethodAnalysisBenchmark {
+
+    private static final String CLASS_PATH = "src/test/resources/dataflow/deadcode";
+
+    private static final String MAIN = "Loops";
+
+    /**
+     * Analyses to be run, in plan order.
+     */
+    private static final List<String> ANALYSES = List.of(
+            ThrowAnalysis.ID, CFGBuilder.ID, LiveVariableAnalysis.ID,
+            ConstantPropagation.ID, DeadCodeDetection.ID);
+
+    private static final int ROUNDS = 3;
+
+    public static void main(String[] args) throws IOException {
+        int[] threads = args.length > 0 ?
+                Arrays.stream(args).mapToInt(Integer::parseInt).toArray() :
+                new int[]{ 1, 2, 4, 8, 16 };
+        Main.buildWorld("-pp", "-cp", CLASS_PATH, "-m", MAIN, "-scope", "all");
+        List<AnalysisConfig> plan = loadPlan();
+        // warm up, which also builds IR of all methods
+        new AnalysisManager().execute(plan);
+        double baseline = 0;
+        for (int n : threads) {
+            long best = Long.MAX_VALUE;
+            for (int i = 0; i < ROUNDS; ++i) {
+                long start = System.nanoTime();
+                new AnalysisManager(n).execute(plan);
+                best = Math.min(best, System.nanoTime() - start);
+            }
+            double seconds = best / 1e9;
+            if (baseline == 0) {
+                baseline = seconds;
+            }
+            System.out.printf("%2d threads: %.2fs (speedup %.2fx)%n",
+                    n, seconds, baseline / seconds);
+        }
+    }
+
+    private static List<AnalysisConfig> loadPlan() throws IOException {
+        try (InputStream content = MethodAnalysisBenchmark.class
+                .getClassLoader()
+                .getResourceAsStream("tai-e-analyses.yml")) {
+            Map<String, AnalysisConfig> configs = AnalysisConfig
+                    .parseConfigs(content)
+                    .stream()
+                    .collect(Collectors.toMap(AnalysisConfig::getId,
+                            Function.identity()));
+            return ANALYSES.stream().map(configs::get).toList();
+        }
+    }
+}
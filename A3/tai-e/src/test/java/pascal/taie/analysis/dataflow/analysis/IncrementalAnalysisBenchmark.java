@@ -0,0 +1,172 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis;
+
+import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.DefaultIR;
+import pascal.taie.ir.exp.ArithmeticExp;
+import pascal.taie.ir.exp.ConditionExp;
+import pascal.taie.ir.exp.IntLiteral;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.AssignLiteral;
+import pascal.taie.ir.stmt.Binary;
+import pascal.taie.ir.stmt.Goto;
+import pascal.taie.ir.stmt.If;
+import pascal.taie.ir.stmt.Return;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.type.PrimitiveType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Replays a sequence of small edits to a large method, and compares
+ * the time of updating the results by {@link IncrementalDeadCodeDetection}
+ * with the time of analyzing each edited method from scratch.
+ * This is not a unit test; run it with
+ * <pre>java pascal.taie.analysis.dataflow.analysis.IncrementalAnalysisBenchmark [loops] [edits]</pre>
+ */
+public class IncrementalAnalysisBenchmark {
+
+    /**
+     * Each loop of the method takes 5 statements:
+     * <pre>
+     * head - 1: vi = i;
+     * head:     if (vi >= n) goto head + 4;
+     *           sum = sum + vi;
+     *           vi = vi + one;
+     *           goto head;
+     * </pre>
+     */
+    private static final int LOOP_SIZE = 5;
+
+    private final Var n;
+
+    private final Var one;
+
+    private final Var sum;
+
+    private final List<Var> vars = new ArrayList<>();
+
+    private final List<Stmt> stmts = new ArrayList<>();
+
+    private IncrementalAnalysisBenchmark(int loops) {
+        n = newVar("n");
+        one = newVar("one");
+        sum = newVar("sum");
+        stmts.add(new AssignLiteral(one, IntLiteral.get(1)));
+        stmts.add(new AssignLiteral(sum, IntLiteral.get(0)));
+        List<If> exits = new ArrayList<>();
+        for (int i = 0; i < loops; ++i) {
+            Var v = newVar("v" + i);
+            If head = new If(new ConditionExp(ConditionExp.Op.GE, v, n));
+            Goto back = new Goto();
+            back.setTarget(head);
+            stmts.add(new AssignLiteral(v, IntLiteral.get(i)));
+            stmts.add(head);
+            stmts.add(new Binary(sum, new ArithmeticExp(ArithmeticExp.Op.ADD, sum, v)));
+            stmts.add(new Binary(v, new ArithmeticExp(ArithmeticExp.Op.ADD, v, one)));
+            stmts.add(back);
+            exits.add(head);
+        }
+        stmts.add(new Return(sum));
+        for (int i = 0; i < exits.size(); ++i) {
+            // the statement after the loop
+            exits.get(i).setTarget(stmts.get(2 + (i + 1) * LOOP_SIZE));
+        }
+    }
+
+    private Var newVar(String name) {
+        Var var = new Var(null, name, PrimitiveType.INT, vars.size());
+        vars.add(var);
+        return var;
+    }
+
+    private CFG<Stmt> buildCFG() {
+        for (int i = 0; i < stmts.size(); ++i) {
+            stmts.get(i).setIndex(i);
+        }
+        DefaultIR ir = new DefaultIR(null, null, List.of(n), Set.of(sum),
+                List.copyOf(vars), List.copyOf(stmts), List.of());
+        return new CFGBuilder(new AnalysisConfig(CFGBuilder.ID,
+                "exception", "none", "dump", false)).analyze(ir);
+    }
+
+    /**
+     * Replaces the initialization of a random loop variable.
+     *
+     * @return the new statement
+     */
+    private Stmt edit(Random random) {
+        int loop = random.nextInt((stmts.size() - 3) / LOOP_SIZE);
+        int index = 2 + loop * LOOP_SIZE;
+        AssignLiteral init = (AssignLiteral) stmts.get(index);
+        Stmt stmt = new AssignLiteral(init.getLValue(),
+                IntLiteral.get(random.nextInt(100)));
+        stmts.set(index, stmt);
+        // the exit of the previous loop jumps to the replaced statement
+        if (loop > 0) {
+            ((If) stmts.get(index - LOOP_SIZE + 1)).setTarget(stmt);
+        }
+        return stmt;
+    }
+
+    private static IncrementalDeadCodeDetection newDetection() {
+        return new IncrementalDeadCodeDetection(
+                new ConstantPropagation(new AnalysisConfig(ConstantPropagation.ID)),
+                new LiveVariableAnalysis(new AnalysisConfig(LiveVariableAnalysis.ID)));
+    }
+
+    public static void main(String[] args) {
+        int loops = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        int edits = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        IncrementalAnalysisBenchmark method = new IncrementalAnalysisBenchmark(loops);
+        Random random = new Random(0);
+        IncrementalDeadCodeDetection incremental = newDetection();
+        incremental.analyze(method.buildCFG());
+        long incrementalTime = 0;
+        long scratchTime = 0;
+        for (int i = 0; i < edits; ++i) {
+            Stmt stmt = method.edit(random);
+            CFG<Stmt> cfg = method.buildCFG();
+            long start = System.nanoTime();
+            Set<Stmt> deadCode = incremental.update(cfg, Set.of(stmt));
+            incrementalTime += System.nanoTime() - start;
+            start = System.nanoTime();
+            Set<Stmt> expected = newDetection().analyze(cfg);
+            scratchTime += System.nanoTime() - start;
+            if (!deadCode.equals(expected)) {
+                throw new AssertionError("Mismatched dead code after edit " + i);
+            }
+        }
+        System.out.printf("%d statements, %d edits: incremental %.1f ms, " +
+                        "from scratch %.1f ms (speedup %.1fx)%n",
+                method.stmts.size(), edits, incrementalTime / 1e6,
+                scratchTime / 1e6, (double) scratchTime / incrementalTime);
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.analysis.dataflow.analysis.constprop.CPFact;
+import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.solver.IncrementalSolver;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.DefaultIR;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.ArithmeticExp;
+import pascal.taie.ir.exp.ConditionExp;
+import pascal.taie.ir.exp.IntLiteral;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.AssignLiteral;
+import pascal.taie.ir.stmt.Binary;
+import pascal.taie.ir.stmt.Goto;
+import pascal.taie.ir.stmt.If;
+import pascal.taie.ir.stmt.Return;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.type.PrimitiveType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Edits a method and checks that {@link IncrementalDeadCodeDetection}
+ * gives the same results as analyzing the edited method from scratch.
+ */
+public class IncrementalDeadCodeDetectionTest {
+
+    private final Var n = newVar("n", 0);
+
+    private final Var x = newVar("x", 1);
+
+    private final Var one = newVar("one", 2);
+
+    private final Var i = newVar("i", 3);
+
+    private final Var y = newVar("y", 4);
+
+    private final Var unused = newVar("unused", 5);
+
+    private final List<Stmt> stmts = new ArrayList<>();
+
+    /**
+     * Builds the method:
+     * <pre>
+     *  0: x = 1;
+     *  1: one = 1;
+     *  2: i = 0;
+     *  3: y = 0;
+     *  4: if (i >= n) goto 9;
+     *  5: y = y + x;
+     *  6: i = i + one;
+     *  7: unused = x + one;
+     *  8: goto 4;
+     *  9: if (x == one) goto 11;
+     * 10: y = y + one;
+     * 11: return y;
+     * </pre>
+     */
+    public IncrementalDeadCodeDetectionTest() {
+        Return ret = new Return(y);
+        If loopHead = new If(new ConditionExp(ConditionExp.Op.GE, i, n));
+        If check = new If(new ConditionExp(ConditionExp.Op.EQ, x, one));
+        Goto back = new Goto();
+        back.setTarget(loopHead);
+        check.setTarget(ret);
+        stmts.addAll(List.<Stmt>of(
+                new AssignLiteral(x, IntLiteral.get(1)),
+                new AssignLiteral(one, IntLiteral.get(1)),
+                new AssignLiteral(i, IntLiteral.get(0)),
+                new AssignLiteral(y, IntLiteral.get(0)),
+                loopHead,
+                add(y, y, x),
+                add(i, i, one),
+                add(unused, x, one),
+                back,
+                check,
+                add(y, y, one),
+                ret));
+        loopHead.setTarget(check);
+    }
+
+    @Test
+    public void testEdits() {
+        IncrementalDeadCodeDetection dcd = newDetection();
+        CFG<Stmt> cfg = buildCFG();
+        assertSame(dcd, dcd.analyze(cfg), cfg);
+        // makes the branch at 9 go to 10
+        cfg = replace(dcd, 0, new AssignLiteral(x, IntLiteral.get(2)));
+        Assert.assertFalse(dcd.update(cfg, Set.of()).contains(stmts.get(10)));
+        // changes the constants in the loop
+        cfg = replace(dcd, 3, new AssignLiteral(y, IntLiteral.get(5)));
+        // makes the assignment at 7 live
+        cfg = replace(dcd, 10, add(y, y, unused));
+        Assert.assertFalse(dcd.update(cfg, Set.of()).contains(stmts.get(7)));
+        // makes the branch at 9 go to 11 again
+        cfg = replace(dcd, 0, new AssignLiteral(x, IntLiteral.get(1)));
+        Assert.assertTrue(dcd.update(cfg, Set.of()).contains(stmts.get(10)));
+    }
+
+    @Test
+    public void testAffectedNodes() {
+        CFG<Stmt> cfg = buildCFG();
+        IncrementalSolver<Stmt, CPFact> solver =
+                new IncrementalSolver<>(newConstantPropagation());
+        solver.solve(cfg);
+        Stmt stmt = add(y, y, x);
+        stmts.set(10, stmt);
+        cfg = buildCFG();
+        DataflowResult<Stmt, CPFact> result = solver.update(cfg, Set.of(stmt));
+        // only the edited statement and its successor are recomputed,
+        // and the propagation stops as the value of y is still NAC
+        Assert.assertEquals(Set.of(cfg.getEntry(), stmt, stmts.get(11)),
+                solver.getAffectedNodes());
+        DataflowResult<Stmt, CPFact> expected = new IncrementalSolver<>(
+                newConstantPropagation()).solve(cfg);
+        for (Stmt node : cfg) {
+            Assert.assertEquals(expected.getInFact(node), result.getInFact(node));
+            Assert.assertEquals(expected.getOutFact(node), result.getOutFact(node));
+        }
+        // nothing changes if nothing is edited
+        solver.update(cfg, Set.of());
+        Assert.assertEquals(Set.of(cfg.getEntry()), solver.getAffectedNodes());
+    }
+
+    /**
+     * Replaces the statement at given index, and checks the results
+     * of given detection after updating it.
+     *
+     * @return the CFG of the edited method
+     */
+    private CFG<Stmt> replace(IncrementalDeadCodeDetection dcd, int index, Stmt stmt) {
+        stmts.set(index, stmt);
+        CFG<Stmt> cfg = buildCFG();
+        assertSame(dcd, dcd.update(cfg, Set.of(stmt)), cfg);
+        return cfg;
+    }
+
+    /**
+     * Checks that the results of given detection are the same as
+     * the ones of analyzing given CFG from scratch.
+     */
+    private void assertSame(IncrementalDeadCodeDetection dcd,
+                            Set<Stmt> deadCode, CFG<Stmt> cfg) {
+        IncrementalDeadCodeDetection expected = newDetection();
+        Assert.assertEquals(expected.analyze(cfg), deadCode);
+        for (Stmt node : cfg) {
+            Assert.assertEquals(expected.getConstants().getInFact(node),
+                    dcd.getConstants().getInFact(node));
+            Assert.assertEquals(expected.getConstants().getOutFact(node),
+                    dcd.getConstants().getOutFact(node));
+            Assert.assertEquals(expected.getLiveVars().getInFact(node),
+                    dcd.getLiveVars().getInFact(node));
+            Assert.assertEquals(expected.getLiveVars().getOutFact(node),
+                    dcd.getLiveVars().getOutFact(node));
+        }
+    }
+
+    private CFG<Stmt> buildCFG() {
+        for (int k = 0; k < stmts.size(); ++k) {
+            stmts.get(k).setIndex(k);
+        }
+        IR ir = new DefaultIR(null, null, List.of(n), Set.of(y),
+                List.of(n, x, one, i, y, unused), List.copyOf(stmts), List.of());
+        return new CFGBuilder(new AnalysisConfig(CFGBuilder.ID,
+                "exception", "none", "dump", false)).analyze(ir);
+    }
+
+    private static IncrementalDeadCodeDetection newDetection() {
+        return new IncrementalDeadCodeDetection(newConstantPropagation(),
+                new LiveVariableAnalysis(new AnalysisConfig(LiveVariableAnalysis.ID)));
+    }
+
+    private static ConstantPropagation newConstantPropagation() {
+        return new ConstantPropagation(new AnalysisConfig(ConstantPropagation.ID));
+    }
+
+    private static Binary add(Var lvalue, Var v1, Var v2) {
+        return new Binary(lvalue, new ArithmeticExp(ArithmeticExp.Op.ADD, v1, v2));
+    }
+
+    private static Var newVar(String name, int index) {
+        return new Var(null, name, PrimitiveType.INT, index);
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis.constprop;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.language.annotation.AnnotationHolder;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.AnalysisException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Checks {@link DenseCPFact} against {@link CPFact}.
+ */
+public class DenseCPFactTest {
+
+    private static final int VARS = 10;
+
+    private final List<Var> vars = makeVars("m");
+
+    private final List<Var> otherVars = makeVars("n");
+
+    private static List<Var> makeVars(String methodName) {
+        JMethod method = new JMethod(new JClass(null, "T"), methodName,
+                Set.of(), List.of(), null, List.of(),
+                AnnotationHolder.emptyHolder(), null, null);
+        List<Var> vars = new ArrayList<>();
+        for (int i = 0; i < VARS; ++i) {
+            vars.add(new Var(method, "v" + i, null, i));
+        }
+        return vars;
+    }
+
+    @Test
+    public void testCopyAndEquals() {
+        DenseCPFact dense = new DenseCPFact(vars);
+        dense.update(vars.get(1), Value.makeConstant(1));
+        dense.update(vars.get(3), Value.getNAC());
+        CPFact fact = new CPFact();
+        Assert.assertTrue(fact.copyFrom(dense));
+        Assert.assertEquals(Value.makeConstant(1), fact.get(vars.get(1)));
+        Assert.assertEquals(Value.getNAC(), fact.get(vars.get(3)));
+        Assert.assertEquals(fact, dense);
+        Assert.assertEquals(dense, fact);
+        Assert.assertEquals(fact.hashCode(), dense.hashCode());
+
+        fact.update(vars.get(1), Value.makeConstant(2));
+        Assert.assertNotEquals(fact, dense);
+        Assert.assertNotEquals(dense, fact);
+        Assert.assertTrue(dense.copyFrom(fact));
+        Assert.assertEquals(Value.makeConstant(2), dense.get(vars.get(1)));
+        Assert.assertEquals(fact, dense);
+    }
+
+    @Test(expected = AnalysisException.class)
+    public void testGetVarOfOtherMethod() {
+        new DenseCPFact(vars).get(otherVars.get(0));
+    }
+
+    @Test(expected = AnalysisException.class)
+    public void testUpdateVarOfOtherMethod() {
+        new DenseCPFact(vars).update(otherVars.get(0), Value.getNAC());
+    }
+
+    @Test(expected = AnalysisException.class)
+    public void testMeetFactOfOtherMethod() {
+        DenseCPFact other = new DenseCPFact(otherVars);
+        other.update(otherVars.get(0), Value.getNAC());
+        new DenseCPFact(vars).meet(other);
+    }
+
+    @Test(expected = AnalysisException.class)
+    public void testCopyFactOfOtherMethod() {
+        new DenseCPFact(vars).copyFrom(new DenseCPFact(otherVars));
+    }
+}
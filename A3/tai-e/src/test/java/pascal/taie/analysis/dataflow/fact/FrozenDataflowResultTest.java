@@ -0,0 +1,188 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.fact;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.Edge;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.stmt.Nop;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JMethod;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Checks that {@link FrozenDataflowResult} answers the same facts as
+ * the result it is frozen from, and stores equal facts only once.
+ */
+public class FrozenDataflowResultTest {
+
+    private static final int SIZE = 100;
+
+    /**
+     * Every BLOCK statements share the same fact.
+     */
+    private static final int BLOCK = 10;
+
+    @Test
+    public void testFreeze() {
+        ChainCFG cfg = new ChainCFG(SIZE);
+        DataflowResult<Stmt, SetFact<Integer>> result = new DataflowResult<>();
+        for (Stmt stmt : cfg) {
+            int block = cfg.isEntry(stmt) ? -1 :
+                    cfg.isExit(stmt) ? SIZE : stmt.getIndex() / BLOCK;
+            // each fact is a distinct object
+            result.setInFact(stmt, newFact(block));
+            result.setOutFact(stmt, newFact(block));
+        }
+        DataflowResult<Stmt, SetFact<Integer>> frozen = result.freeze(cfg);
+        for (Stmt stmt : cfg) {
+            Assert.assertEquals(result.getInFact(stmt), frozen.getInFact(stmt));
+            Assert.assertEquals(result.getOutFact(stmt), frozen.getOutFact(stmt));
+        }
+        // SIZE / BLOCK blocks, plus the entry and exit
+        Assert.assertEquals(SIZE / BLOCK + 2,
+                ((FrozenDataflowResult<?, ?>) frozen).getNumberOfFacts());
+        Stmt first = cfg.stmts.get(0);
+        Assert.assertSame(frozen.getInFact(first), frozen.getOutFact(first));
+        Assert.assertNull(frozen.getInFact(new Nop()));
+        Assert.assertSame(frozen, frozen.freeze(cfg));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testReadOnly() {
+        ChainCFG cfg = new ChainCFG(SIZE);
+        DataflowResult<Stmt, SetFact<Integer>> result = new DataflowResult<>();
+        result.freeze(cfg).setInFact(cfg.getEntry(), newFact(0));
+    }
+
+    private static SetFact<Integer> newFact(int block) {
+        SetFact<Integer> fact = new SetFact<>();
+        fact.add(block);
+        return fact;
+    }
+
+    /**
+     * A chain of statements from entry to exit.
+     */
+    private static class ChainCFG implements CFG<Stmt> {
+
+        private final Stmt entry = new Nop();
+
+        private final Stmt exit = new Nop();
+
+        private final List<Stmt> stmts = new ArrayList<>();
+
+        private final Set<Stmt> nodes = new LinkedHashSet<>();
+
+        /**
+         * Nodes from entry to exit.
+         */
+        private final List<Stmt> chain;
+
+        private ChainCFG(int size) {
+            nodes.add(entry);
+            for (int i = 0; i < size; ++i) {
+                Stmt stmt = new Nop();
+                stmt.setIndex(i);
+                stmts.add(stmt);
+                nodes.add(stmt);
+            }
+            nodes.add(exit);
+            chain = List.copyOf(nodes);
+        }
+
+        @Override
+        public IR getIR() {
+            return null;
+        }
+
+        @Override
+        public JMethod getMethod() {
+            return null;
+        }
+
+        @Override
+        public Stmt getEntry() {
+            return entry;
+        }
+
+        @Override
+        public Stmt getExit() {
+            return exit;
+        }
+
+        @Override
+        public boolean isEntry(Stmt node) {
+            return node == entry;
+        }
+
+        @Override
+        public boolean isExit(Stmt node) {
+            return node == exit;
+        }
+
+        @Override
+        public Set<Edge<Stmt>> getInEdgesOf(Stmt node) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Set<Edge<Stmt>> getOutEdgesOf(Stmt node) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean hasNode(Stmt node) {
+            return nodes.contains(node);
+        }
+
+        @Override
+        public boolean hasEdge(Stmt source, Stmt target) {
+            int i = chain.indexOf(source);
+            return i >= 0 && i + 1 < chain.size() && chain.get(i + 1) == target;
+        }
+
+        @Override
+        public Set<Stmt> getPredsOf(Stmt node) {
+            int i = chain.indexOf(node);
+            return i > 0 ? Set.of(chain.get(i - 1)) : Set.of();
+        }
+
+        @Override
+        public Set<Stmt> getSuccsOf(Stmt node) {
+            int i = chain.indexOf(node);
+            return i + 1 < chain.size() ? Set.of(chain.get(i + 1)) : Set.of();
+        }
+
+        @Override
+        public Set<Stmt> getNodes() {
+            return nodes;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.fact;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.ir.exp.Var;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Checks {@link IndexedSetFact} against {@link SetFact} on random operations.
+ */
+public class IndexedSetFactTest {
+
+    private static final int VARS = 200;
+
+    private static final int ROUNDS = 10000;
+
+    private final List<Var> vars = new ArrayList<>();
+
+    public IndexedSetFactTest() {
+        for (int i = 0; i < VARS; ++i) {
+            vars.add(new Var(null, "v" + i, null, i));
+        }
+    }
+
+    @Test
+    public void testRandomOperations() {
+        Random random = new Random(0);
+        SetFact<Var> s1 = new SetFact<>(), s2 = new SetFact<>();
+        SetFact<Var> i1 = new IndexedSetFact<>(vars), i2 = new IndexedSetFact<>(vars);
+        for (int round = 0; round < ROUNDS; ++round) {
+            Var v = vars.get(random.nextInt(VARS));
+            switch (random.nextInt(6)) {
+                case 0 -> Assert.assertEquals(s1.add(v), i1.add(v));
+                case 1 -> Assert.assertEquals(s2.add(v), i2.add(v));
+                case 2 -> Assert.assertEquals(s1.remove(v), i1.remove(v));
+                case 3 -> Assert.assertEquals(s1.union(s2), i1.union(i2));
+                case 4 -> Assert.assertEquals(s2.intersect(s1), i2.intersect(i1));
+                case 5 -> {
+                    s2.set(s1);
+                    i2.set(i1);
+                }
+            }
+            assertSame(s1, i1);
+            assertSame(s2, i2);
+            Assert.assertEquals(s1.equals(s2), i1.equals(i2));
+        }
+    }
+
+    @Test
+    public void testCopy() {
+        IndexedSetFact<Var> fact = new IndexedSetFact<>(vars);
+        fact.add(vars.get(0));
+        fact.add(vars.get(VARS - 1));
+        IndexedSetFact<Var> copy = fact.copy();
+        Assert.assertEquals(fact, copy);
+        Assert.assertEquals(fact.hashCode(), copy.hashCode());
+        copy.remove(vars.get(0));
+        Assert.assertTrue(fact.contains(vars.get(0)));
+        Assert.assertFalse(copy.contains(vars.get(0)));
+        Assert.assertEquals(1, copy.size());
+        copy.clear();
+        Assert.assertTrue(copy.isEmpty());
+    }
+
+    @Test
+    public void testMixedRepresentations() {
+        SetFact<Var> plain = new SetFact<>(List.of(vars.get(1), vars.get(2)));
+        IndexedSetFact<Var> indexed = new IndexedSetFact<>(vars);
+        indexed.add(vars.get(2));
+        indexed.add(vars.get(3));
+        // plain <- indexed
+        SetFact<Var> union = plain.unionWith(indexed);
+        Assert.assertEquals(Set.of(vars.get(1), vars.get(2), vars.get(3)),
+                union.stream().collect(Collectors.toSet()));
+        Assert.assertEquals(List.of(vars.get(2)),
+                plain.intersectWith(indexed).stream().toList());
+        // indexed <- plain
+        Assert.assertEquals(union, indexed.unionWith(plain));
+        Assert.assertEquals(indexed.unionWith(plain), union);
+        Assert.assertEquals(union.hashCode(), indexed.unionWith(plain).hashCode());
+        Assert.assertNotEquals(plain, indexed);
+        Assert.assertNotEquals(indexed, plain);
+        SetFact<Var> copy = indexed.copy();
+        copy.set(plain);
+        Assert.assertEquals(plain, copy);
+        Assert.assertEquals(copy, plain);
+    }
+
+    private static void assertSame(SetFact<Var> expected, SetFact<Var> actual) {
+        Set<Var> elems = expected.stream().collect(Collectors.toSet());
+        Assert.assertEquals(elems, actual.stream().collect(Collectors.toSet()));
+        Assert.assertEquals(expected.size(), actual.size());
+        Assert.assertEquals(expected.isEmpty(), actual.isEmpty());
+        Assert.assertEquals(expected.toString(), actual.toString());
+    }
+}
@@ -0,0 +1,288 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.fact.SetFact;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.Edge;
+import pascal.taie.ir.IR;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.Vector;
+
+/**
+ * Compares {@link WorkListSolver} with the plain FIFO work-list algorithm
+ * on large synthetic CFGs, in terms of results and number of transfers.
+ */
+public class WorkListSolverTest {
+
+    /**
+     * Number of nodes in the synthetic CFGs.
+     */
+    private static final int SIZE = 1000;
+
+    /**
+     * Every LOOP nodes form a loop in the synthetic CFGs.
+     */
+    private static final int LOOP = 50;
+
+    @Test
+    public void testForward() {
+        compare(true);
+    }
+
+    @Test
+    public void testBackward() {
+        compare(false);
+    }
+
+    private static void compare(boolean isForward) {
+        CFG<Integer> cfg = new SyntheticCFG(SIZE, LOOP);
+        CountingAnalysis analysis = new CountingAnalysis(isForward);
+        DataflowResult<Integer, SetFact<Integer>> result =
+                Solver.makeSolver(analysis).solve(cfg);
+        int transfers = analysis.transfers;
+
+        analysis.transfers = 0;
+        DataflowResult<Integer, SetFact<Integer>> expected =
+                new FIFOSolver<>(analysis).solve(cfg);
+        int fifoTransfers = analysis.transfers;
+
+        for (Integer node : cfg) {
+            Assert.assertEquals(expected.getInFact(node), result.getInFact(node));
+            Assert.assertEquals(expected.getOutFact(node), result.getOutFact(node));
+        }
+        Assert.assertTrue(transfers <= fifoTransfers);
+    }
+
+    /**
+     * The work-list algorithm used before ordering the work list.
+     */
+    private static class FIFOSolver<Node, Fact> extends Solver<Node, Fact> {
+
+        private FIFOSolver(DataflowAnalysis<Node, Fact> analysis) {
+            super(analysis);
+        }
+
+        @Override
+        protected void doSolveForward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
+            Vector<Node> workList = new Vector<>();
+            for (Node node : cfg) {
+                if (!cfg.isEntry(node)) {
+                    workList.add(node);
+                }
+            }
+            while (!workList.isEmpty()) {
+                Node node = workList.remove(0);
+                Fact in = result.getInFact(node);
+                for (Node pred : cfg.getPredsOf(node)) {
+                    analysis.meetInto(result.getOutFact(pred), in);
+                }
+                if (analysis.transferNode(node, in, result.getOutFact(node))) {
+                    workList.addAll(cfg.getSuccsOf(node));
+                }
+            }
+        }
+
+        @Override
+        protected void doSolveBackward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
+            Vector<Node> workList = new Vector<>();
+            for (Node node : cfg) {
+                if (!cfg.isExit(node)) {
+                    workList.add(node);
+                }
+            }
+            while (!workList.isEmpty()) {
+                Node node = workList.remove(0);
+                Fact out = result.getOutFact(node);
+                for (Node succ : cfg.getSuccsOf(node)) {
+                    analysis.meetInto(result.getInFact(succ), out);
+                }
+                if (analysis.transferNode(node, result.getInFact(node), out)) {
+                    workList.addAll(cfg.getPredsOf(node));
+                }
+            }
+        }
+    }
+
+    /**
+     * Gen-only analysis in which each node generates itself.
+     */
+    private static class CountingAnalysis
+            implements DataflowAnalysis<Integer, SetFact<Integer>> {
+
+        private final boolean isForward;
+
+        private int transfers;
+
+        private CountingAnalysis(boolean isForward) {
+            this.isForward = isForward;
+        }
+
+        @Override
+        public boolean isForward() {
+            return isForward;
+        }
+
+        @Override
+        public SetFact<Integer> newBoundaryFact(CFG<Integer> cfg) {
+            return new SetFact<>();
+        }
+
+        @Override
+        public SetFact<Integer> newInitialFact() {
+            return new SetFact<>();
+        }
+
+        @Override
+        public void meetInto(SetFact<Integer> fact, SetFact<Integer> target) {
+            target.union(fact);
+        }
+
+        @Override
+        public boolean transferNode(Integer node, SetFact<Integer> in,
+                                    SetFact<Integer> out) {
+            ++transfers;
+            SetFact<Integer> source = isForward ? in : out;
+            SetFact<Integer> target = isForward ? out : in;
+            boolean changed = target.union(source);
+            return target.add(node) || changed;
+        }
+
+        @Override
+        public boolean needTransferEdge(Edge<Integer> edge) {
+            return false;
+        }
+
+        @Override
+        public SetFact<Integer> transferEdge(Edge<Integer> edge, SetFact<Integer> nodeFact) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * A chain of nodes where each segment of given length forms a loop.
+     */
+    private static class SyntheticCFG implements CFG<Integer> {
+
+        private final int size;
+
+        private final Set<Integer> nodes = new LinkedHashSet<>();
+
+        private final MultiMap<Integer, Integer> preds = Maps.newMultiMap();
+
+        private final MultiMap<Integer, Integer> succs = Maps.newMultiMap();
+
+        private SyntheticCFG(int size, int loop) {
+            this.size = size;
+            // add nodes in reverse order to make FIFO order unfavorable
+            for (int i = size - 1; i >= 0; --i) {
+                nodes.add(i);
+            }
+            for (int i = 0; i + 1 < size; ++i) {
+                addEdge(i, i + 1);
+                if (i > 0 && i % loop == 0) {
+                    addEdge(i, i - loop + 1);
+                }
+            }
+        }
+
+        private void addEdge(int source, int target) {
+            succs.put(source, target);
+            preds.put(target, source);
+        }
+
+        @Override
+        public IR getIR() {
+            return null;
+        }
+
+        @Override
+        public JMethod getMethod() {
+            return null;
+        }
+
+        @Override
+        public Integer getEntry() {
+            return 0;
+        }
+
+        @Override
+        public Integer getExit() {
+            return size - 1;
+        }
+
+        @Override
+        public boolean isEntry(Integer node) {
+            return node == 0;
+        }
+
+        @Override
+        public boolean isExit(Integer node) {
+            return node == size - 1;
+        }
+
+        @Override
+        public Set<Edge<Integer>> getInEdgesOf(Integer node) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Set<Edge<Integer>> getOutEdgesOf(Integer node) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean hasNode(Integer node) {
+            return nodes.contains(node);
+        }
+
+        @Override
+        public boolean hasEdge(Integer source, Integer target) {
+            return succs.contains(source, target);
+        }
+
+        @Override
+        public Set<Integer> getPredsOf(Integer node) {
+            return preds.get(node);
+        }
+
+        @Override
+        public Set<Integer> getSuccsOf(Integer node) {
+            return succs.get(node);
+        }
+
+        @Override
+        public Set<Integer> getNodes() {
+            return nodes;
+        }
+    }
+}
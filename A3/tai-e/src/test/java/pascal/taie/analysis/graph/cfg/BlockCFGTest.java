@@ -0,0 +1,184 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.graph.cfg;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.fact.SetFact;
+import pascal.taie.analysis.dataflow.solver.BlockSolver;
+import pascal.taie.analysis.dataflow.solver.Solver;
+import pascal.taie.ir.DefaultIR;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.stmt.Nop;
+import pascal.taie.ir.stmt.Stmt;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+public class BlockCFGTest {
+
+    /**
+     * entry -> s0 -> s1 -> s2 -> s3 -> s4 -> s2
+     *                        |
+     *                        +-> s5 -> s6 -> exit
+     */
+    private static TestCFG buildCFG() {
+        TestCFG cfg = new TestCFG(7);
+        cfg.addEdge(cfg.getEntry(), cfg.stmt(0));
+        cfg.addEdge(cfg.stmt(0), cfg.stmt(1));
+        cfg.addEdge(cfg.stmt(1), cfg.stmt(2));
+        cfg.addEdge(cfg.stmt(2), cfg.stmt(3));
+        cfg.addEdge(cfg.stmt(3), cfg.stmt(4));
+        cfg.addEdge(cfg.stmt(4), cfg.stmt(2));
+        cfg.addEdge(cfg.stmt(2), cfg.stmt(5));
+        cfg.addEdge(cfg.stmt(5), cfg.stmt(6));
+        cfg.addEdge(cfg.stmt(6), cfg.getExit());
+        return cfg;
+    }
+
+    @Test
+    public void testBlocks() {
+        TestCFG cfg = buildCFG();
+        BlockCFG<Stmt> blockCFG = new BlockCFG<>(cfg);
+        Assert.assertEquals(6, blockCFG.getNumberOfNodes());
+        Assert.assertEquals(List.of(cfg.getEntry()), blockCFG.getEntry().getNodes());
+        Assert.assertEquals(List.of(cfg.getExit()), blockCFG.getExit().getNodes());
+        Assert.assertEquals(List.of(cfg.stmt(0), cfg.stmt(1)),
+                blockCFG.getBlockOf(cfg.stmt(0)).getNodes());
+        Assert.assertEquals(List.of(cfg.stmt(2)),
+                blockCFG.getBlockOf(cfg.stmt(2)).getNodes());
+        Assert.assertEquals(List.of(cfg.stmt(3), cfg.stmt(4)),
+                blockCFG.getBlockOf(cfg.stmt(3)).getNodes());
+        Assert.assertEquals(List.of(cfg.stmt(5), cfg.stmt(6)),
+                blockCFG.getBlockOf(cfg.stmt(6)).getNodes());
+        Assert.assertEquals(1, blockCFG.getPositionOf(cfg.stmt(4)));
+        BasicBlock<Stmt> loopHead = blockCFG.getBlockOf(cfg.stmt(2));
+        Assert.assertEquals(2, blockCFG.getPredsOf(loopHead).size());
+        Assert.assertEquals(2, blockCFG.getSuccsOf(loopHead).size());
+        Assert.assertTrue(blockCFG.hasEdge(
+                blockCFG.getBlockOf(cfg.stmt(4)), loopHead));
+    }
+
+    @Test
+    public void testForward() {
+        compareSolvers(true);
+    }
+
+    @Test
+    public void testBackward() {
+        compareSolvers(false);
+    }
+
+    private static void compareSolvers(boolean isForward) {
+        TestCFG cfg = buildCFG();
+        NodeAnalysis analysis = new NodeAnalysis(isForward);
+        DataflowResult<Stmt, SetFact<Stmt>> expected =
+                Solver.makeSolver(analysis).solve(cfg);
+        DataflowResult<Stmt, SetFact<Stmt>> result =
+                new BlockSolver<>(analysis).solve(cfg);
+        for (Stmt node : cfg) {
+            Assert.assertEquals(expected.getInFact(node), result.getInFact(node));
+            Assert.assertEquals(expected.getOutFact(node), result.getOutFact(node));
+        }
+    }
+
+    /**
+     * Collects the nodes on the paths from the entry (to the exit)
+     * for forward (backward) analysis.
+     */
+    private record NodeAnalysis(boolean isForward)
+            implements DataflowAnalysis<Stmt, SetFact<Stmt>> {
+
+        @Override
+        public SetFact<Stmt> newBoundaryFact(CFG<Stmt> cfg) {
+            return new SetFact<>();
+        }
+
+        @Override
+        public SetFact<Stmt> newInitialFact() {
+            return new SetFact<>();
+        }
+
+        @Override
+        public void meetInto(SetFact<Stmt> fact, SetFact<Stmt> target) {
+            target.union(fact);
+        }
+
+        @Override
+        public boolean transferNode(Stmt stmt, SetFact<Stmt> in, SetFact<Stmt> out) {
+            SetFact<Stmt> source = isForward ? in : out;
+            SetFact<Stmt> target = isForward ? out : in;
+            SetFact<Stmt> old = target.copy();
+            target.set(source);
+            target.add(stmt);
+            return !target.equals(old);
+        }
+
+        @Override
+        public boolean needTransferEdge(Edge<Stmt> edge) {
+            return false;
+        }
+
+        @Override
+        public SetFact<Stmt> transferEdge(Edge<Stmt> edge, SetFact<Stmt> nodeFact) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static class TestCFG extends AbstractCFG<Stmt> {
+
+        private final List<Stmt> stmts;
+
+        private TestCFG(int size) {
+            super(newIR(size));
+            stmts = ir.getStmts();
+            setEntry(new Nop());
+            addNode(getEntry());
+            stmts.forEach(this::addNode);
+            setExit(new Nop());
+            addNode(getExit());
+        }
+
+        private static IR newIR(int size) {
+            List<Stmt> stmts = new ArrayList<>();
+            for (int i = 0; i < size; ++i) {
+                Stmt stmt = new Nop();
+                stmt.setIndex(i);
+                stmts.add(stmt);
+            }
+            return new DefaultIR(null, null, List.of(), Set.of(),
+                    List.of(), stmts, List.of());
+        }
+
+        private Stmt stmt(int i) {
+            return stmts.get(i);
+        }
+
+        private void addEdge(Stmt source, Stmt target) {
+            addEdge(new Edge<>(Edge.Kind.FALL_THROUGH, source, target));
+        }
+    }
+}
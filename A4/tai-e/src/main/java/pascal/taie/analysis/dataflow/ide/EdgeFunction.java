@@ -0,0 +1,54 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.ide;
+
+/**
+ * Function on the values of an IDE problem, which describes how
+ * the value of a fact at the source of an ICFG edge (or path) gives
+ * the value of a fact at the target.
+ * <p>
+ * The functions must be distributive over the meet of the values, and
+ * must be comparable by {@link Object#equals(Object)}, which the solver
+ * uses to decide if a jump function changes.
+ *
+ * @param <V> type of values
+ */
+public interface EdgeFunction<V> {
+
+    /**
+     * @return the result of applying this function to given value.
+     */
+    V apply(V value);
+
+    /**
+     * @return the function which applies this function first,
+     * then applies given function.
+     */
+    EdgeFunction<V> composeWith(EdgeFunction<V> then);
+
+    /**
+     * @return the function which gives the meet of the results
+     * of this function and given function.
+     */
+    EdgeFunction<V> meetWith(EdgeFunction<V> other);
+}
@@ -0,0 +1,88 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.ide;
+
+import pascal.taie.analysis.graph.icfg.CallEdge;
+import pascal.taie.analysis.graph.icfg.ICFGEdge;
+import pascal.taie.analysis.graph.icfg.ReturnEdge;
+
+import java.util.Set;
+
+/**
+ * Interprocedural distributive environment (IDE) problem, which computes
+ * the values of the facts at each node over the interprocedurally valid
+ * paths of the ICFG.
+ * <p>
+ * The flow functions and the edge functions are given per ICFG edge.
+ * The solver asks for the functions of {@link CallEdge}s and
+ * {@link ReturnEdge}s when it connects a call site to its callees, and
+ * for the functions of the other edges, i.e., the normal edges and the
+ * call-to-return edges, when it propagates facts within a method.
+ *
+ * @param <Node> type of ICFG nodes
+ * @param <D>    type of facts
+ * @param <V>    type of values
+ */
+public interface IDEProblem<Node, D, V> {
+
+    /**
+     * @return the fact which holds at every reachable node,
+     * i.e., the zero fact (0 or Λ) of the IFDS framework.
+     */
+    D zeroFact();
+
+    /**
+     * @return the value of the facts which do not hold, which is
+     * the top of the lattice of values.
+     */
+    V topValue();
+
+    /**
+     * @return the value of the zero fact at the entries of the entry methods.
+     */
+    V zeroValue();
+
+    /**
+     * @return the meet of two values.
+     */
+    V meetValue(V v1, V v2);
+
+    /**
+     * @return the identity function on values.
+     */
+    EdgeFunction<V> identity();
+
+    /**
+     * @return the facts at the target of given edge which given fact
+     * at the source flows to.
+     */
+    Set<D> getFlowFunction(ICFGEdge<Node> edge, D source);
+
+    /**
+     * @return the function which gives the value of fact {@code target} at
+     * the target of given edge from the value of fact {@code source} at
+     * the source. It is only asked if {@code target} is in the result of
+     * {@link #getFlowFunction(ICFGEdge, Object)} for {@code source}.
+     */
+    EdgeFunction<V> getEdgeFunction(ICFGEdge<Node> edge, D source, D target);
+}
@@ -0,0 +1,96 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.ide;
+
+import pascal.taie.util.collection.Maps;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of an {@link IDEProblem}, i.e., the values of the facts
+ * before each node. The facts which do not reach a node have
+ * the top value there.
+ *
+ * @param <Node> type of ICFG nodes
+ * @param <D>    type of facts
+ * @param <V>    type of values
+ */
+public class IDEResult<Node, D, V> {
+
+    private final V topValue;
+
+    private final Map<Node, Integer> nodeIds;
+
+    private final Map<D, Integer> factIds;
+
+    private final List<D> facts;
+
+    /**
+     * Values of the facts at each node, indexed by node number
+     * then fact number.
+     */
+    private final List<IntMap<V>> values;
+
+    IDEResult(V topValue, Map<Node, Integer> nodeIds, Map<D, Integer> factIds,
+              List<D> facts, List<IntMap<V>> values) {
+        this.topValue = topValue;
+        this.nodeIds = nodeIds;
+        this.factIds = factIds;
+        this.facts = facts;
+        this.values = values;
+    }
+
+    /**
+     * @return the value of given fact before given node.
+     */
+    public V getValue(Node node, D fact) {
+        Integer n = nodeIds.get(node);
+        Integer d = factIds.get(fact);
+        V value = n != null && d != null ? values.get(n).get(d) : null;
+        return value != null ? value : topValue;
+    }
+
+    /**
+     * @return the facts reaching given node and their values,
+     * including the zero fact.
+     */
+    public Map<D, V> getValues(Node node) {
+        Integer n = nodeIds.get(node);
+        if (n == null) {
+            return Collections.emptyMap();
+        }
+        IntMap<V> nodeValues = values.get(n);
+        Map<D, V> result = Maps.newHybridMap();
+        nodeValues.forEach((d, value) -> result.put(facts.get(d), value));
+        return result;
+    }
+
+    /**
+     * @return true if given node is reached by the solver, otherwise false.
+     */
+    public boolean isReached(Node node) {
+        return nodeIds.containsKey(node);
+    }
+}
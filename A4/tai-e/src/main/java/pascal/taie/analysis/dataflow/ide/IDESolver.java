@@ -0,0 +1,480 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.ide;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.analysis.graph.icfg.CallEdge;
+import pascal.taie.analysis.graph.icfg.ICFG;
+import pascal.taie.analysis.graph.icfg.ICFGEdge;
+import pascal.taie.analysis.graph.icfg.ReturnEdge;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tabulation solver of {@link IDEProblem}s (Sagiv, Reps and Horwitz, 1996),
+ * which is context-sensitive: the facts flowing out of a callee only return
+ * to the call sites where they flow in, and the effect of a callee on a fact
+ * is summarized once and reused by all its callers.
+ * <p>
+ * Phase I computes the jump functions: for each node n of a method p,
+ * and facts d1 and d2, the meet of the composed edge functions over
+ * the valid paths from fact d1 at the entry of p to fact d2 at n.
+ * The jump functions from the entry to the exit of a method are the end
+ * summaries, which are composed with the functions of call and return
+ * edges into the summary functions of call sites. Phase II propagates the
+ * values from the entries of the entry methods to the entries of all
+ * reached methods, then applies the jump functions to the values at
+ * the entries to give the values at all nodes.
+ * <p>
+ * The nodes and the facts are numbered when they are first met, and all
+ * tables are indexed by these numbers, e.g., the jump functions of a node
+ * are kept in an {@link IntMap} from d2 to an {@link IntMap} from d1 to
+ * the function. Only the nodes reachable from the entry methods along
+ * valid paths are queried, thus the solver also works on the ICFGs which
+ * are built on demand.
+ *
+ * @param <Method> type of methods
+ * @param <Node>   type of ICFG nodes
+ * @param <D>      type of facts
+ * @param <V>      type of values
+ */
+public class IDESolver<Method, Node, D, V> {
+
+    private static final Logger logger = LogManager.getLogger(IDESolver.class);
+
+    /**
+     * Number of the zero fact.
+     */
+    private static final int ZERO = 0;
+
+    private final IDEProblem<Node, D, V> problem;
+
+    private final ICFG<Method, Node> icfg;
+
+    private final Map<Node, Integer> nodeIds = Maps.newMap();
+
+    private final List<Node> nodes = new ArrayList<>();
+
+    /**
+     * Number of the entry of the method containing each node.
+     */
+    private int[] startIds = new int[16];
+
+    /**
+     * Numbers of the exits of the methods.
+     */
+    private final BitSet exitIds = new BitSet();
+
+    private final Map<D, Integer> factIds = Maps.newMap();
+
+    private final List<D> facts = new ArrayList<>();
+
+    /**
+     * Jump functions of each node, from d2 at the node to d1
+     * at the entry of its method to the function.
+     */
+    private final List<IntMap<IntMap<EdgeFunction<V>>>> jumpFunctions = new ArrayList<>();
+
+    /**
+     * End summaries of each method, from the entry of the method to
+     * d1 at the entry to the facts d2 at the exit. The functions
+     * are kept in {@link #jumpFunctions} of the exit.
+     */
+    private final IntMap<IntMap<BitSet>> endSummaries = new IntMap<>();
+
+    /**
+     * Callers of each method, from the entry of the method to d3
+     * at the entry to the call sites to the facts d2 at the call sites
+     * which flow to d3.
+     */
+    private final IntMap<IntMap<IntMap<BitSet>>> incoming = new IntMap<>();
+
+    /**
+     * Summary functions of the call sites, from the call site to d2 at
+     * the call site to the return site to d5 at the return site to
+     * the function.
+     */
+    private final IntMap<IntMap<IntMap<IntMap<EdgeFunction<V>>>>> summaryFunctions = new IntMap<>();
+
+    /**
+     * Reached call sites of each method, from the entry of the method
+     * to the numbers of the call sites.
+     */
+    private final IntMap<BitSet> callSites = new IntMap<>();
+
+    /**
+     * Values of the facts at the entries of the methods, computed in phase II.
+     */
+    private final IntMap<IntMap<V>> startValues = new IntMap<>();
+
+    /**
+     * Work list of phase I, which holds the path edges whose jump functions
+     * have changed as triples of d1, node and d2, and of phase II, which
+     * holds the entries and facts whose values have changed as pairs.
+     */
+    private int[] workList = new int[48];
+
+    private int workListSize = 0;
+
+    private long pathEdges = 0;
+
+    public IDESolver(IDEProblem<Node, D, V> problem, ICFG<Method, Node> icfg) {
+        this.problem = problem;
+        this.icfg = icfg;
+        getFactId(problem.zeroFact());
+    }
+
+    public IDEResult<Node, D, V> solve() {
+        computeJumpFunctions();
+        IDEResult<Node, D, V> result = new IDEResult<>(
+                problem.topValue(), nodeIds, factIds, facts, computeValues());
+        logger.info("{} nodes, {} facts, {} path edges", nodes.size(),
+                facts.size(), pathEdges);
+        return result;
+    }
+
+    // ---------- numbering ----------
+
+    private int getNodeId(Node node) {
+        Integer id = nodeIds.get(node);
+        if (id == null) {
+            id = nodes.size();
+            nodeIds.put(node, id);
+            nodes.add(node);
+            jumpFunctions.add(new IntMap<>());
+            Method method = icfg.getContainingMethodOf(node);
+            Node entry = icfg.getEntryOf(method);
+            // the entry gets its number before other nodes of the method
+            int startId = entry.equals(node) ? id : getNodeId(entry);
+            if (id >= startIds.length) {
+                startIds = Arrays.copyOf(startIds, startIds.length * 2);
+            }
+            startIds[id] = startId;
+            if (node.equals(icfg.getExitOf(method))) {
+                exitIds.set(id);
+            }
+        }
+        return id;
+    }
+
+    private int getFactId(D fact) {
+        Integer id = factIds.get(fact);
+        if (id == null) {
+            id = facts.size();
+            factIds.put(fact, id);
+            facts.add(fact);
+        }
+        return id;
+    }
+
+    // ---------- phase I ----------
+
+    /**
+     * Computes the jump functions, which is phase I.
+     */
+    void computeJumpFunctions() {
+        icfg.entryMethods().forEach(method -> {
+            int entry = getNodeId(icfg.getEntryOf(method));
+            propagate(ZERO, entry, ZERO, problem.identity());
+        });
+        while (workListSize > 0) {
+            workListSize -= 3;
+            int d1 = workList[workListSize];
+            int n = workList[workListSize + 1];
+            int d2 = workList[workListSize + 2];
+            ++pathEdges;
+            EdgeFunction<V> f = jumpFunctions.get(n).get(d2).get(d1);
+            Node node = nodes.get(n);
+            if (icfg.isCallSite(node)) {
+                processCall(d1, n, d2, f);
+            } else if (exitIds.get(n)) {
+                processExit(d1, n, d2, f);
+            } else {
+                processNormal(d1, n, d2, f);
+            }
+        }
+    }
+
+    /**
+     * Meets given function into the jump function of path edge
+     * (d1, n, d2), and queues the path edge if the function changes.
+     */
+    private void propagate(int d1, int n, int d2, EdgeFunction<V> f) {
+        IntMap<EdgeFunction<V>> sources = jumpFunctions.get(n)
+                .computeIfAbsent(d2, unused -> new IntMap<>());
+        EdgeFunction<V> old = sources.get(d1);
+        EdgeFunction<V> meet = old == null ? f : old.meetWith(f);
+        if (!meet.equals(old)) {
+            sources.put(d1, meet);
+            push(d1, n, d2);
+        }
+    }
+
+    private void push(int d1, int n, int d2) {
+        ensureWorkListCapacity(3);
+        workList[workListSize++] = d1;
+        workList[workListSize++] = n;
+        workList[workListSize++] = d2;
+    }
+
+    private void push(int entry, int d) {
+        ensureWorkListCapacity(2);
+        workList[workListSize++] = entry;
+        workList[workListSize++] = d;
+    }
+
+    private void ensureWorkListCapacity(int n) {
+        if (workListSize + n > workList.length) {
+            workList = Arrays.copyOf(workList, workList.length * 2);
+        }
+    }
+
+    private void processNormal(int d1, int n, int d2, EdgeFunction<V> f) {
+        Node node = nodes.get(n);
+        D source = facts.get(d2);
+        for (ICFGEdge<Node> edge : icfg.getOutEdgesOf(node)) {
+            propagateLocal(d1, edge, source, f);
+        }
+    }
+
+    /**
+     * Propagates path edge (d1, source of edge, source) along given edge
+     * within a method.
+     */
+    private void propagateLocal(int d1, ICFGEdge<Node> edge, D source,
+                                EdgeFunction<V> f) {
+        int m = getNodeId(edge.getTarget());
+        for (D target : problem.getFlowFunction(edge, source)) {
+            propagate(d1, m, getFactId(target), f.composeWith(
+                    problem.getEdgeFunction(edge, source, target)));
+        }
+    }
+
+    private void processCall(int d1, int n, int d2, EdgeFunction<V> f) {
+        Node callSite = nodes.get(n);
+        callSites.computeIfAbsent(startIds[n], unused -> new BitSet()).set(n);
+        D source = facts.get(d2);
+        for (ICFGEdge<Node> edge : icfg.getOutEdgesOf(callSite)) {
+            if (edge instanceof CallEdge<Node> callEdge) {
+                int entry = getNodeId(callEdge.getTarget());
+                for (D target : problem.getFlowFunction(callEdge, source)) {
+                    int d3 = getFactId(target);
+                    propagate(d3, entry, d3, problem.identity());
+                    BitSet callers = incoming
+                            .computeIfAbsent(entry, unused -> new IntMap<>())
+                            .computeIfAbsent(d3, unused -> new IntMap<>())
+                            .computeIfAbsent(n, unused -> new BitSet());
+                    if (!callers.get(d2)) {
+                        callers.set(d2);
+                        // apply the end summaries computed for other callers
+                        IntMap<BitSet> summaries = endSummaries.get(entry);
+                        BitSet exitFacts = summaries != null ? summaries.get(d3) : null;
+                        if (exitFacts != null) {
+                            int exit = getNodeId(icfg.getExitOf(
+                                    icfg.getContainingMethodOf(callEdge.getTarget())));
+                            exitFacts.stream().forEach(d4 -> updateSummary(
+                                    n, d2, callEdge, d3, exit, d4));
+                        }
+                    }
+                }
+            } else {
+                propagateLocal(d1, edge, source, f);
+            }
+        }
+        // apply the existing summary functions of the call site
+        IntMap<IntMap<IntMap<EdgeFunction<V>>>> summaries = summaryFunctions.get(n);
+        IntMap<IntMap<EdgeFunction<V>>> retSites = summaries != null ? summaries.get(d2) : null;
+        if (retSites != null) {
+            retSites.forEach((r, targets) -> targets.forEach((d5, fSummary) ->
+                    propagate(d1, r, d5, f.composeWith(fSummary))));
+        }
+    }
+
+    private void processExit(int d1, int n, int d2, EdgeFunction<V> f) {
+        int entry = startIds[n];
+        endSummaries.computeIfAbsent(entry, unused -> new IntMap<>())
+                .computeIfAbsent(d1, unused -> new BitSet())
+                .set(d2);
+        IntMap<IntMap<BitSet>> callers = incoming.get(entry);
+        IntMap<BitSet> callSitesOfD1 = callers != null ? callers.get(d1) : null;
+        if (callSitesOfD1 == null) {
+            return;
+        }
+        Node entryNode = nodes.get(entry);
+        for (int c : callSitesOfD1.keys()) {
+            for (ICFGEdge<Node> edge : icfg.getOutEdgesOf(nodes.get(c))) {
+                if (edge instanceof CallEdge<Node> callEdge &&
+                        callEdge.getTarget().equals(entryNode)) {
+                    BitSet callSiteFacts = callSitesOfD1.get(c);
+                    callSiteFacts.stream().forEach(d4 ->
+                            updateSummary(c, d4, callEdge, d1, n, d2));
+                }
+            }
+        }
+    }
+
+    /**
+     * Meets the function of the valid paths from fact d4 at call site c,
+     * via call edge to fact d3 at the entry of the callee and the end
+     * summary to fact d2 at the exit, to the facts at the return sites,
+     * into the summary functions of c. The changes are propagated to the
+     * path edges which reach d4 at c.
+     */
+    private void updateSummary(int c, int d4, CallEdge<Node> callEdge,
+                               int d3, int exit, int d2) {
+        Node callSite = nodes.get(c);
+        EdgeFunction<V> fCall = problem.getEdgeFunction(
+                callEdge, facts.get(d4), facts.get(d3));
+        EdgeFunction<V> fEnd = jumpFunctions.get(exit).get(d2).get(d3);
+        EdgeFunction<V> fCallEnd = fCall.composeWith(fEnd);
+        D exitFact = facts.get(d2);
+        for (ICFGEdge<Node> edge : icfg.getOutEdgesOf(nodes.get(exit))) {
+            if (edge instanceof ReturnEdge<Node> retEdge &&
+                    retEdge.getCallSite().equals(callSite)) {
+                int r = getNodeId(retEdge.getTarget());
+                for (D target : problem.getFlowFunction(retEdge, exitFact)) {
+                    int d5 = getFactId(target);
+                    EdgeFunction<V> f = fCallEnd.composeWith(
+                            problem.getEdgeFunction(retEdge, exitFact, target));
+                    IntMap<EdgeFunction<V>> targets = summaryFunctions
+                            .computeIfAbsent(c, unused -> new IntMap<>())
+                            .computeIfAbsent(d4, unused -> new IntMap<>())
+                            .computeIfAbsent(r, unused -> new IntMap<>());
+                    EdgeFunction<V> old = targets.get(d5);
+                    EdgeFunction<V> fSummary = old == null ? f : old.meetWith(f);
+                    if (!fSummary.equals(old)) {
+                        targets.put(d5, fSummary);
+                        IntMap<EdgeFunction<V>> jumps = jumpFunctions.get(c).get(d4);
+                        for (int d1 : jumps.keys()) {
+                            propagate(d1, r, d5, jumps.get(d1).composeWith(fSummary));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the facts other than the zero fact which reach each node
+     * after phase I.
+     */
+    MultiMap<Node, D> collectFacts() {
+        MultiMap<Node, D> result = Maps.newMultiMap();
+        for (int n = 0; n < nodes.size(); ++n) {
+            Node node = nodes.get(n);
+            for (int d : jumpFunctions.get(n).keys()) {
+                if (d != ZERO) {
+                    result.put(node, facts.get(d));
+                }
+            }
+        }
+        return result;
+    }
+
+    // ---------- phase II ----------
+
+    /**
+     * Computes the values at all reached nodes, which is phase II.
+     *
+     * @return the values of the facts at each node, indexed by node number.
+     */
+    private List<IntMap<V>> computeValues() {
+        // values of the facts at the entries of the methods,
+        // the work list holds the pairs of entry and fact whose
+        // values have changed
+        icfg.entryMethods().forEach(method -> {
+            int entry = getNodeId(icfg.getEntryOf(method));
+            startValues.computeIfAbsent(entry, unused -> new IntMap<>())
+                    .put(ZERO, problem.zeroValue());
+            push(entry, ZERO);
+        });
+        while (workListSize > 0) {
+            workListSize -= 2;
+            int entry = workList[workListSize];
+            int d = workList[workListSize + 1];
+            V value = startValues.get(entry).get(d);
+            BitSet sites = callSites.get(entry);
+            if (sites == null) {
+                continue;
+            }
+            sites.stream().forEach(c -> jumpFunctions.get(c).forEach((d2, sources) -> {
+                EdgeFunction<V> f = sources.get(d);
+                if (f != null) {
+                    propagateValue(c, d2, f.apply(value));
+                }
+            }));
+        }
+        // values of the facts at all nodes
+        List<IntMap<V>> values = new ArrayList<>(nodes.size());
+        for (int n = 0; n < nodes.size(); ++n) {
+            IntMap<V> startValue = startValues.get(startIds[n]);
+            IntMap<V> nodeValues = new IntMap<>();
+            if (startValue != null) {
+                jumpFunctions.get(n).forEach((d2, sources) -> sources.forEach((d1, f) -> {
+                    V v1 = startValue.get(d1);
+                    if (v1 != null) {
+                        V v2 = f.apply(v1);
+                        V old = nodeValues.get(d2);
+                        nodeValues.put(d2, old == null ? v2 :
+                                problem.meetValue(old, v2));
+                    }
+                }));
+            }
+            values.add(nodeValues);
+        }
+        return values;
+    }
+
+    /**
+     * Propagates the value of fact d2 at call site c to the entries
+     * of the callees.
+     */
+    private void propagateValue(int c, int d2, V value) {
+        D source = facts.get(d2);
+        for (ICFGEdge<Node> edge : icfg.getOutEdgesOf(nodes.get(c))) {
+            if (edge instanceof CallEdge<Node> callEdge) {
+                int entry = getNodeId(callEdge.getTarget());
+                for (D target : problem.getFlowFunction(callEdge, source)) {
+                    int d3 = getFactId(target);
+                    V v3 = problem.getEdgeFunction(callEdge, source, target)
+                            .apply(value);
+                    IntMap<V> entryValues = startValues
+                            .computeIfAbsent(entry, unused -> new IntMap<>());
+                    V old = entryValues.get(d3);
+                    V meet = old == null ? v3 : problem.meetValue(old, v3);
+                    if (!meet.equals(old)) {
+                        entryValues.put(d3, meet);
+                        push(entry, d3);
+                    }
+                }
+            }
+        }
+    }
+}
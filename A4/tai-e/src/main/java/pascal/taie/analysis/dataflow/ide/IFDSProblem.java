@@ -0,0 +1,49 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.ide;
+
+import pascal.taie.analysis.graph.icfg.ICFGEdge;
+
+import java.util.Set;
+
+/**
+ * Interprocedural finite distributive subset (IFDS) problem, which computes
+ * the facts that may hold at each node over the interprocedurally valid
+ * paths of the ICFG. See {@link IDEProblem} for the flow functions.
+ *
+ * @param <Node> type of ICFG nodes
+ * @param <D>    type of facts
+ */
+public interface IFDSProblem<Node, D> {
+
+    /**
+     * @return the fact which holds at every reachable node.
+     */
+    D zeroFact();
+
+    /**
+     * @return the facts at the target of given edge which given fact
+     * at the source flows to.
+     */
+    Set<D> getFlowFunction(ICFGEdge<Node> edge, D source);
+}
@@ -0,0 +1,122 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.ide;
+
+import pascal.taie.analysis.graph.icfg.ICFG;
+import pascal.taie.analysis.graph.icfg.ICFGEdge;
+import pascal.taie.util.collection.MultiMap;
+
+import java.util.Set;
+
+/**
+ * Tabulation solver of {@link IFDSProblem}s (Reps, Horwitz and Sagiv, 1995).
+ * <p>
+ * An IFDS problem is solved as an IDE problem whose edge functions are
+ * all the identity, thus only phase I of {@link IDESolver} is run,
+ * and the facts reaching each node are the path edges to the node.
+ *
+ * @param <Method> type of methods
+ * @param <Node>   type of ICFG nodes
+ * @param <D>      type of facts
+ */
+public class IFDSSolver<Method, Node, D> {
+
+    private final IDESolver<Method, Node, D, Boolean> solver;
+
+    public IFDSSolver(IFDSProblem<Node, D> problem, ICFG<Method, Node> icfg) {
+        this.solver = new IDESolver<>(new IDEAdapter<>(problem), icfg);
+    }
+
+    /**
+     * @return the facts other than the zero fact which may hold
+     * before each node.
+     */
+    public MultiMap<Node, D> solve() {
+        solver.computeJumpFunctions();
+        return solver.collectFacts();
+    }
+
+    /**
+     * Views an IFDS problem as an IDE problem on the values
+     * {true (holds), false (does not hold)}.
+     */
+    private record IDEAdapter<Node, D>(IFDSProblem<Node, D> problem)
+            implements IDEProblem<Node, D, Boolean> {
+
+        @Override
+        public D zeroFact() {
+            return problem.zeroFact();
+        }
+
+        @Override
+        public Boolean topValue() {
+            return false;
+        }
+
+        @Override
+        public Boolean zeroValue() {
+            return true;
+        }
+
+        @Override
+        public Boolean meetValue(Boolean v1, Boolean v2) {
+            return v1 || v2;
+        }
+
+        @Override
+        public EdgeFunction<Boolean> identity() {
+            return Identity.INSTANCE;
+        }
+
+        @Override
+        public Set<D> getFlowFunction(ICFGEdge<Node> edge, D source) {
+            return problem.getFlowFunction(edge, source);
+        }
+
+        @Override
+        public EdgeFunction<Boolean> getEdgeFunction(
+                ICFGEdge<Node> edge, D source, D target) {
+            return Identity.INSTANCE;
+        }
+    }
+
+    private enum Identity implements EdgeFunction<Boolean> {
+
+        INSTANCE;
+
+        @Override
+        public Boolean apply(Boolean value) {
+            return value;
+        }
+
+        @Override
+        public EdgeFunction<Boolean> composeWith(EdgeFunction<Boolean> then) {
+            return then;
+        }
+
+        @Override
+        public EdgeFunction<Boolean> meetWith(EdgeFunction<Boolean> other) {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.ide;
+
+import java.util.Arrays;
+import java.util.function.IntFunction;
+
+/**
+ * Map from non-negative int keys to values by open addressing, which
+ * avoids boxing the keys as the tables of {@link IDESolver} are large.
+ * Entries cannot be removed.
+ *
+ * @param <V> type of values
+ */
+class IntMap<V> {
+
+    private static final int FREE = -1;
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    private int[] keys;
+
+    private Object[] values;
+
+    private int size = 0;
+
+    IntMap() {
+        keys = new int[INITIAL_CAPACITY];
+        Arrays.fill(keys, FREE);
+        values = new Object[INITIAL_CAPACITY];
+    }
+
+    /**
+     * @return position of given key in {@link #keys}, or the free slot
+     * where the key should be put.
+     */
+    private int find(int key) {
+        int mask = keys.length - 1;
+        int h = key * 0x9E3779B9;
+        int i = (h ^ h >>> 16) & mask;
+        while (keys[i] != FREE && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(int key) {
+        int i = find(key);
+        return keys[i] == key ? (V) values[i] : null;
+    }
+
+    void put(int key, V value) {
+        int i = find(key);
+        if (keys[i] == FREE) {
+            if ((size + 1) * 4 > keys.length * 3) {
+                grow();
+                i = find(key);
+            }
+            keys[i] = key;
+            ++size;
+        }
+        values[i] = value;
+    }
+
+    /**
+     * @return the value of given key, which is computed by given function
+     * and put to this map if absent.
+     */
+    V computeIfAbsent(int key, IntFunction<V> function) {
+        V value = get(key);
+        if (value == null) {
+            value = function.apply(key);
+            put(key, value);
+        }
+        return value;
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new int[oldKeys.length * 2];
+        Arrays.fill(keys, FREE);
+        values = new Object[oldKeys.length * 2];
+        for (int i = 0; i < oldKeys.length; ++i) {
+            if (oldKeys[i] != FREE) {
+                int j = find(oldKeys[i]);
+                keys[j] = oldKeys[i];
+                values[j] = oldValues[i];
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Calls given action on each entry of this map. The map must not be
+     * changed by the action.
+     */
+    @SuppressWarnings("unchecked")
+    void forEach(IntObjConsumer<? super V> action) {
+        for (int i = 0; i < keys.length; ++i) {
+            if (keys[i] != FREE) {
+                action.accept(keys[i], (V) values[i]);
+            }
+        }
+    }
+
+    /**
+     * @return a copy of the keys of this map, which can be iterated
+     * while the map is changed.
+     */
+    int[] keys() {
+        int[] result = new int[size];
+        int n = 0;
+        for (int key : keys) {
+            if (key != FREE) {
+                result[n++] = key;
+            }
+        }
+        return result;
+    }
+
+    @FunctionalInterface
+    interface IntObjConsumer<V> {
+
+        void accept(int key, V value);
+    }
+}
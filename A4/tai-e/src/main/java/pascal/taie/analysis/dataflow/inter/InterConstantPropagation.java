@@ -22,9 +22,13 @@
 
 package pascal.taie.analysis.dataflow.inter;
 
+import pascal.taie.World;
 import pascal.taie.analysis.dataflow.analysis.constprop.CPFact;
 import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
 import pascal.taie.analysis.dataflow.analysis.constprop.Value;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.ide.IDESolver;
+import pascal.taie.analysis.graph.callgraph.CallGraphBuilder;
 import pascal.taie.analysis.graph.cfg.CFG;
 import pascal.taie.analysis.graph.cfg.CFGBuilder;
 import pascal.taie.analysis.graph.icfg.CallEdge;
@@ -32,6 +36,7 @@ import pascal.taie.analysis.graph.icfg.CallToReturnEdge;
 import pascal.taie.analysis.graph.icfg.NormalEdge;
 import pascal.taie.analysis.graph.icfg.ReturnEdge;
 import pascal.taie.config.AnalysisConfig;
+import pascal.taie.config.ConfigException;
 import pascal.taie.ir.IR;
 import pascal.taie.ir.exp.InvokeExp;
 import pascal.taie.ir.exp.LValue;
@@ -48,6 +53,17 @@ import java.util.Optional;
 
 /**
  * Implementation of interprocedural constant propagation for int values.
+ * <p>
+ * If option summary is enabled, the analysis is solved by
+ * {@link SummaryCPSolver}, which analyzes each method once per tuple of
+ * argument values instead of propagating facts along the ICFG.
+ * <p>
+ * If option ide is enabled, the analysis is solved as
+ * {@link LinearConstantPropagation} by {@link IDESolver}, which is
+ * context-sensitive for the values linear in one variable. The values
+ * computed from two variables are evaluated in rounds, thus the results
+ * are no less precise than the default solving. Options summary and ide
+ * cannot be enabled together.
  */
 public class InterConstantPropagation extends
         AbstractInterDataflowAnalysis<JMethod, Stmt, CPFact> {
@@ -56,9 +72,32 @@ public class InterConstantPropagation extends
 
     private final ConstantPropagation cp;
 
+    private final boolean summary;
+
+    private final boolean ide;
+
     public InterConstantPropagation(AnalysisConfig config) {
         super(config);
         cp = new ConstantPropagation(new AnalysisConfig(ConstantPropagation.ID));
+        summary = getOptions().getBooleanOrDefault("summary", false);
+        ide = getOptions().getBooleanOrDefault("ide", false);
+        if (summary && ide) {
+            throw new ConfigException(
+                    "Options summary and ide of " + ID + " are exclusive");
+        }
+    }
+
+    @Override
+    protected DataflowResult<Stmt, CPFact> solve() {
+        if (summary) {
+            return new SummaryCPSolver(cp, icfg,
+                    World.get().getResult(CallGraphBuilder.ID)).solve();
+        } else if (ide) {
+            LinearConstantPropagation lcp = new LinearConstantPropagation(cp, icfg);
+            return lcp.toDataflowResult(lcp.solve());
+        } else {
+            return super.solve();
+        }
     }
 
     @Override
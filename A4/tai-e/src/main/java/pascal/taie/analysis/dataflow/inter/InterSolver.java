@@ -22,33 +22,62 @@
 
 package pascal.taie.analysis.dataflow.inter;
 
-import pascal.taie.analysis.dataflow.analysis.constprop.CPFact;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
-import pascal.taie.analysis.graph.callgraph.Edge;
 import pascal.taie.analysis.graph.icfg.ICFG;
 import pascal.taie.analysis.graph.icfg.ICFGEdge;
-import pascal.taie.util.collection.SetQueue;
-import picocli.CommandLine;
+import pascal.taie.analysis.graph.icfg.ReturnEdge;
+import pascal.taie.util.collection.Sets;
 
-import java.util.Queue;
 import java.util.Set;
-import java.util.Vector;
-import java.util.stream.Collectors;
 
 /**
  * Solver for inter-procedural data-flow analysis.
  * The workload of inter-procedural analysis is heavy, thus we always
  * adopt work-list algorithm for efficiency.
+ * The nodes are visited in the order given by {@link InterWorkList}.
+ * <p>
+ * If the edges of the ICFG are built on demand (see {@link ICFG#isLazy()}),
+ * the solver never queries all its nodes. It starts from the entry methods,
+ * and a method is reached when a visited call site calls it, then all nodes
+ * of the method are initialized and queued, as in the whole ICFG.
+ * The return edges to the callers which are not reached are skipped,
+ * otherwise the exit of a common callee would reach most of the program.
+ * The facts of the nodes which are never reached are absent from the result,
+ * and the edges from them are ignored. This gives the same facts as
+ * solving the whole ICFG as long as the transfer functions keep the initial
+ * facts on the nodes not reachable from the entry methods, e.g., constant
+ * propagation, which leaves all variables UNDEF there. Note that the call
+ * graphs built by {@code cg} hold only the methods which are reachable from
+ * the entry methods, thus all of them are reached in the end.
  */
 class InterSolver<Method, Node, Fact> {
 
+    private static final Logger logger = LogManager.getLogger(InterSolver.class);
+
     private final InterDataflowAnalysis<Node, Fact> analysis;
 
     private final ICFG<Method, Node> icfg;
 
     private DataflowResult<Node, Fact> result;
 
-    private Queue<Node> workList;
+    private InterWorkList<Node> workList;
+
+    /**
+     * Methods reached by the solver, only used when the ICFG is lazy.
+     */
+    private Set<Method> reachedMethods;
+
+    /**
+     * Number of nodes reached by the solver.
+     */
+    private int reachedNodes;
+
+    /**
+     * Number of times the nodes are visited by the solver.
+     */
+    private int visits;
 
     InterSolver(InterDataflowAnalysis<Node, Fact> analysis,
                 ICFG<Method, Node> icfg) {
@@ -58,47 +87,114 @@ class InterSolver<Method, Node, Fact> {
 
     DataflowResult<Node, Fact> solve() {
         result = new DataflowResult<>();
-        initialize();
+        visits = 0;
+        reachedNodes = 0;
+        if (icfg.isLazy()) {
+            initializeOnDemand();
+        } else {
+            initialize();
+        }
         doSolve();
+        logger.info("{} ICFG nodes, {} node visits", reachedNodes, visits);
         return result;
     }
 
     private void initialize() {
         // TODO - finish me
+        workList = new InterWorkList<>(icfg);
+
         for (Node node : icfg) {
-            result.setInFact(node, analysis.newInitialFact());
-            result.setOutFact(node, analysis.newInitialFact());
+            initializeFacts(node);
         }
         icfg.entryMethods().forEach(entryMethod -> {
             Node entry = icfg.getEntryOf(entryMethod);
             result.setOutFact(entry, analysis.newBoundaryFact(entry));
         });
+        for (Node node : icfg) {
+            workList.add(node);
+        }
     }
 
-    private void doSolve() {
-        // TODO - finish me
-        Vector<Node> workList = new Vector<>();
+    private void initializeOnDemand() {
+        workList = new InterWorkList<>();
+        reachedMethods = Sets.newSet();
+        icfg.entryMethods().forEach(entryMethod -> {
+            Node entry = icfg.getEntryOf(entryMethod);
+            reach(entry);
+            result.setOutFact(entry, analysis.newBoundaryFact(entry));
+        });
+    }
 
-        for (Node node: icfg) {
-            workList.add(node);
+    private void initializeFacts(Node node) {
+        result.setInFact(node, analysis.newInitialFact());
+        result.setOutFact(node, analysis.newInitialFact());
+        ++reachedNodes;
+    }
+
+    private boolean isReached(Node node) {
+        return result.getInFact(node) != null;
+    }
+
+    /**
+     * Reaches the method containing given node if the node has not been
+     * reached, which initializes and queues all nodes of the method.
+     * Queries the ICFG only if the node has not been reached.
+     */
+    private void reach(Node node) {
+        if (!isReached(node)) {
+            Method method = icfg.getContainingMethodOf(node);
+            if (reachedMethods.add(method)) {
+                workList.addMethod(icfg, method)
+                        .forEach(this::initializeFacts);
+            }
         }
+    }
 
+    private void doSolve() {
+        // TODO - finish me
+        boolean onDemand = icfg.isLazy();
         while (!workList.isEmpty()) {
-            Node curBlock = workList.remove(0);
+            Node curBlock = workList.poll();
+            ++visits;
             // calculate IN[B] and update the result
             Fact inB = result.getInFact(curBlock);
             for (ICFGEdge<Node> inEdge: icfg.getInEdgesOf(curBlock)) {
                 assert curBlock == inEdge.getTarget();
                 Node predsNode = inEdge.getSource();
                 Fact outP = result.getOutFact(predsNode);
+                if (outP == null) {
+                    // predecessor which has not been reached on demand
+                    continue;
+                }
                 analysis.meetInto(analysis.transferEdge(inEdge, outP), inB);
             }
 
             // calculate OUT[B]
             Fact outB = result.getOutFact(curBlock);
-            if (analysis.transferNode(curBlock, inB, outB)) {
+            boolean changed = analysis.transferNode(curBlock, inB, outB);
+            if (onDemand) {
+                for (ICFGEdge<Node> outEdge : icfg.getOutEdgesOf(curBlock)) {
+                    Node succ = outEdge.getTarget();
+                    if (!(outEdge instanceof ReturnEdge)) {
+                        // the successors are reached even if OUT[B] does not
+                        // change, so that the callees are analyzed as in
+                        // the whole ICFG
+                        reach(succ);
+                    }
+                    if (changed && isReached(succ)) {
+                        workList.add(succ);
+                    }
+                }
+            } else if (changed) {
                 workList.addAll(icfg.getSuccsOf(curBlock));
             }
         }
     }
+
+    /**
+     * @return the number of times the nodes are visited in last solving.
+     */
+    int getNumberOfVisits() {
+        return visits;
+    }
 }
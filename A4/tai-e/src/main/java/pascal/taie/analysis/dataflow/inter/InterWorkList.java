@@ -0,0 +1,274 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter;
+
+import pascal.taie.analysis.graph.icfg.ICFG;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Sets;
+import pascal.taie.util.graph.MergedNode;
+import pascal.taie.util.graph.MergedSCCGraph;
+import pascal.taie.util.graph.SimpleGraph;
+import pascal.taie.util.graph.TopoSorter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Work list of ICFG nodes which pops nodes in a fixed priority order.
+ * <p>
+ * The methods are ordered by the topological order of the SCCs of
+ * the call graph which is induced by the ICFG, with callees before callers,
+ * so that the facts flowing out of a callee are (mostly) stable before
+ * its callers are revisited. The methods in the same SCC are ordered
+ * arbitrarily. Within each method, the nodes are ordered by reverse
+ * post-order of the intra-procedural edges from the entry of the method.
+ * <p>
+ * Each node is given a dense priority in [0, #nodes), and the queued nodes
+ * are kept in a {@link BitSet} indexed by priority, thus adding a node
+ * which is already in the work list has no effect.
+ * <p>
+ * The nodes are polled in sweeps over the priorities: a node added behind
+ * the current position is polled in the next sweep, instead of right away.
+ * Going back on every change would propagate the facts around the large
+ * call cycles of real programs one change at a time, while a sweep
+ * batches the changes which reach a node in the meantime.
+ * <p>
+ * For the ICFGs which are built on demand, the work list starts empty
+ * and the methods are added as they are reached, see {@link #InterWorkList()}.
+ *
+ * @param <Node> type of ICFG nodes
+ */
+class InterWorkList<Node> {
+
+    /**
+     * Nodes sorted by their priorities.
+     */
+    private final List<Node> nodes;
+
+    /**
+     * Maps each node to its priority.
+     */
+    private final Map<Node, Integer> priorities;
+
+    /**
+     * Priorities of the nodes in this work list.
+     */
+    private final BitSet queued;
+
+    /**
+     * Position of current sweep over the priorities.
+     */
+    private int cursor = 0;
+
+    <Method> InterWorkList(ICFG<Method, Node> icfg) {
+        MultiMap<Method, Node> methodNodes = Maps.newMultiMap();
+        for (Node node : icfg) {
+            methodNodes.put(icfg.getContainingMethodOf(node), node);
+        }
+        nodes = new ArrayList<>(icfg.getNumberOfNodes());
+        priorities = Maps.newMap(icfg.getNumberOfNodes());
+        queued = new BitSet(icfg.getNumberOfNodes());
+        for (Method method : computeMethodOrder(icfg, methodNodes.keySet())) {
+            computeMethodNodes(icfg, method, methodNodes.get(method))
+                    .forEach(this::append);
+        }
+    }
+
+    /**
+     * Creates an empty work list for the ICFGs which are built on demand.
+     * The nodes are given priorities by {@link #addMethod}, thus
+     * the methods are ordered by the time they are reached instead of
+     * the call graph, which is not known up front.
+     */
+    InterWorkList() {
+        nodes = new ArrayList<>();
+        priorities = Maps.newMap();
+        queued = new BitSet();
+    }
+
+    /**
+     * Gives the nodes of given method the priorities after the ones
+     * of all known nodes, and adds them to this work list.
+     *
+     * @return the nodes of the method, in the order given by
+     * {@link #computeMethodNodes}.
+     */
+    <Method> List<Node> addMethod(ICFG<Method, Node> icfg, Method method) {
+        List<Node> order = computeMethodNodes(
+                icfg, method, icfg.getNodesOf(method));
+        for (Node node : order) {
+            queued.set(append(node));
+        }
+        return order;
+    }
+
+    /**
+     * Gives given node the priority after the ones of all known nodes.
+     *
+     * @return the priority of the node.
+     */
+    private int append(Node node) {
+        int priority = nodes.size();
+        nodes.add(node);
+        priorities.put(node, priority);
+        return priority;
+    }
+
+    /**
+     * @param inMethod all nodes of given method
+     * @return the nodes of given method, i.e., the ones reachable from
+     * its entry in reverse post-order, followed by the other ones.
+     */
+    private static <Method, Node> List<Node> computeMethodNodes(
+            ICFG<Method, Node> icfg, Method method, Set<Node> inMethod) {
+        List<Node> order = computePostOrder(icfg, method);
+        Collections.reverse(order);
+        // nodes unreachable from the entry of the method are visited
+        // after the other nodes of the method
+        if (order.size() < inMethod.size()) {
+            Set<Node> reached = Sets.newSet(order.size());
+            reached.addAll(order);
+            for (Node node : inMethod) {
+                if (!reached.contains(node)) {
+                    order.add(node);
+                }
+            }
+        }
+        return order;
+    }
+
+    /**
+     * @return the methods of given ICFG, callees before callers.
+     */
+    private static <Method, Node> List<Method> computeMethodOrder(
+            ICFG<Method, Node> icfg, Set<Method> methods) {
+        SimpleGraph<Method> callGraph = new SimpleGraph<>();
+        for (Method method : methods) {
+            callGraph.addNode(method);
+        }
+        for (Node node : icfg) {
+            if (icfg.isCallSite(node)) {
+                Method caller = icfg.getContainingMethodOf(node);
+                for (Method callee : icfg.getCalleesOf(node)) {
+                    callGraph.addEdge(caller, callee);
+                }
+            }
+        }
+        List<Method> order = new ArrayList<>(methods.size());
+        // reverse topological order of SCCs puts callees first
+        new TopoSorter<>(new MergedSCCGraph<>(callGraph), true)
+                .get()
+                .stream()
+                .map(MergedNode::getNodes)
+                .forEach(order::addAll);
+        return order;
+    }
+
+    /**
+     * Computes post-order of the nodes reachable from the entry of given
+     * method via the edges within the method. The traversal is iterative
+     * to avoid stack overflow on large methods.
+     */
+    private static <Method, Node> List<Node> computePostOrder(
+            ICFG<Method, Node> icfg, Method method) {
+        List<Node> postOrder = new ArrayList<>();
+        Set<Node> visited = Sets.newSet();
+        Deque<Node> nodeStack = new ArrayDeque<>();
+        Deque<Iterator<Node>> succStack = new ArrayDeque<>();
+        Node entry = icfg.getEntryOf(method);
+        visited.add(entry);
+        nodeStack.push(entry);
+        succStack.push(icfg.getSuccsOf(entry).iterator());
+        while (!nodeStack.isEmpty()) {
+            Iterator<Node> succs = succStack.peek();
+            if (succs.hasNext()) {
+                Node succ = succs.next();
+                // skip the entries of callees
+                if (method.equals(icfg.getContainingMethodOf(succ)) &&
+                        visited.add(succ)) {
+                    nodeStack.push(succ);
+                    succStack.push(icfg.getSuccsOf(succ).iterator());
+                }
+            } else {
+                postOrder.add(nodeStack.pop());
+                succStack.pop();
+            }
+        }
+        return postOrder;
+    }
+
+    /**
+     * Adds a node to this work list. A node which has no priority yet
+     * is given the priority after the ones of all known nodes.
+     *
+     * @return true if the node was not in this work list, otherwise false.
+     */
+    boolean add(Node node) {
+        Integer priority = priorities.get(node);
+        if (priority == null) {
+            priority = append(node);
+        }
+        if (queued.get(priority)) {
+            return false;
+        }
+        queued.set(priority);
+        return true;
+    }
+
+    /**
+     * Adds all given nodes to this work list.
+     */
+    void addAll(Collection<? extends Node> nodes) {
+        nodes.forEach(this::add);
+    }
+
+    /**
+     * Removes and returns the next node of current sweep, starting
+     * a new sweep if needed, or null if this work list is empty.
+     */
+    Node poll() {
+        int priority = queued.nextSetBit(cursor);
+        if (priority < 0) {
+            priority = queued.nextSetBit(0);
+            if (priority < 0) {
+                return null;
+            }
+        }
+        queued.clear(priority);
+        cursor = priority;
+        return nodes.get(priority);
+    }
+
+    boolean isEmpty() {
+        return queued.isEmpty();
+    }
+}
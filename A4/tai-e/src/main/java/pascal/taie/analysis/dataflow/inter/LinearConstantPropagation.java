@@ -0,0 +1,363 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter;
+
+import pascal.taie.analysis.dataflow.analysis.constprop.CPFact;
+import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
+import pascal.taie.analysis.dataflow.analysis.constprop.Value;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.ide.EdgeFunction;
+import pascal.taie.analysis.dataflow.ide.IDEProblem;
+import pascal.taie.analysis.dataflow.ide.IDEResult;
+import pascal.taie.analysis.dataflow.ide.IDESolver;
+import pascal.taie.analysis.graph.icfg.CallEdge;
+import pascal.taie.analysis.graph.icfg.CallToReturnEdge;
+import pascal.taie.analysis.graph.icfg.ICFG;
+import pascal.taie.analysis.graph.icfg.ICFGEdge;
+import pascal.taie.analysis.graph.icfg.NormalEdge;
+import pascal.taie.analysis.graph.icfg.ReturnEdge;
+import pascal.taie.ir.exp.ArithmeticExp;
+import pascal.taie.ir.exp.BinaryExp;
+import pascal.taie.ir.exp.IntLiteral;
+import pascal.taie.ir.exp.RValue;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.DefinitionStmt;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.PrimitiveType;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Linear constant propagation (Sagiv, Reps and Horwitz, 1996) as
+ * an {@link IDEProblem}, which is the IDE port of
+ * {@link InterConstantPropagation}.
+ * <p>
+ * The facts are the variables which can hold integers, and the value of
+ * a fact is the value of the variable. A variable assigned from another
+ * variable plus, minus or times a constant, e.g., {@code x = y + 1} where
+ * the constant is kept in a temporary variable, gets a linear function
+ * of the value of the other variable. The values computed from the results
+ * of calls are context-sensitive, i.e., a value returned by a callee only
+ * flows back to the call sites passing the values it is computed from.
+ * <p>
+ * The values computed from two variables, e.g., {@code x = y + z}, cannot
+ * be expressed by the edge functions of one variable. Thus the problem is
+ * solved in rounds (see {@link #solve()}): such a value is given by
+ * a constant function of the zero fact, whose constant is evaluated from
+ * the values of the operands in the last round, starting from UNDEF.
+ * The values only go down the lattice between rounds, and the rounds end
+ * when none of them changes. Like {@link InterConstantPropagation},
+ * the value of such a statement is the meet over all its contexts.
+ */
+class LinearConstantPropagation implements IDEProblem<Stmt, Var, Value> {
+
+    /**
+     * The zero fact, which is not a variable of any method.
+     */
+    private final Var zero = new Var(null, "@zero", PrimitiveType.INT, -1);
+
+    private final ConstantPropagation cp;
+
+    private final ICFG<JMethod, Stmt> icfg;
+
+    /**
+     * Parameters of the entry methods which can hold integers,
+     * whose values are NAC, keyed by the entries of the methods.
+     */
+    private final Map<Stmt, List<Var>> entryParams = Maps.newMap();
+
+    /**
+     * Values of the variables assigned by binary expressions which are
+     * not linear in one variable, evaluated in the last round. The values
+     * which are absent are UNDEF.
+     */
+    private final Map<DefinitionStmt<?, ?>, Value> binaryValues = Maps.newMap();
+
+    LinearConstantPropagation(ConstantPropagation cp, ICFG<JMethod, Stmt> icfg) {
+        this.cp = cp;
+        this.icfg = icfg;
+        icfg.entryMethods().forEach(m -> entryParams.put(icfg.getEntryOf(m),
+                m.getIR().getParams()
+                        .stream()
+                        .filter(ConstantPropagation::canHoldInt)
+                        .toList()));
+    }
+
+    @Override
+    public Var zeroFact() {
+        return zero;
+    }
+
+    @Override
+    public Value topValue() {
+        return Value.getUndef();
+    }
+
+    /**
+     * The value of the zero fact is NAC, which the constant
+     * functions map to their constants.
+     */
+    @Override
+    public Value zeroValue() {
+        return Value.getNAC();
+    }
+
+    @Override
+    public Value meetValue(Value v1, Value v2) {
+        return cp.meetValue(v1, v2);
+    }
+
+    @Override
+    public EdgeFunction<Value> identity() {
+        return LinearFunction.IDENTITY;
+    }
+
+    @Override
+    public Set<Var> getFlowFunction(ICFGEdge<Stmt> edge, Var source) {
+        if (edge instanceof NormalEdge) {
+            return transfer(edge.getSource(), source).keySet();
+        } else if (edge instanceof CallToReturnEdge) {
+            return source.equals(getDefVar(edge.getSource())) ?
+                    Set.of() : Set.of(source);
+        } else if (source.equals(zero)) {
+            return Set.of(zero);
+        } else if (edge instanceof CallEdge<Stmt> callEdge) {
+            Set<Var> params = Sets.newHybridSet();
+            List<Var> args = ((Invoke) edge.getSource()).getInvokeExp().getArgs();
+            List<Var> calleeParams = callEdge.getCallee().getIR().getParams();
+            for (int i = 0; i < args.size(); ++i) {
+                if (source.equals(args.get(i)) &&
+                        ConstantPropagation.canHoldInt(calleeParams.get(i))) {
+                    params.add(calleeParams.get(i));
+                }
+            }
+            return params;
+        } else {
+            ReturnEdge<Stmt> returnEdge = (ReturnEdge<Stmt>) edge;
+            Var result = getDefVar(returnEdge.getCallSite());
+            return result != null && returnEdge.getReturnVars().contains(source) ?
+                    Set.of(result) : Set.of();
+        }
+    }
+
+    @Override
+    public EdgeFunction<Value> getEdgeFunction(
+            ICFGEdge<Stmt> edge, Var source, Var target) {
+        if (edge instanceof NormalEdge) {
+            return transfer(edge.getSource(), source).get(target);
+        } else {
+            // values are passed unchanged along other edges
+            return LinearFunction.IDENTITY;
+        }
+    }
+
+    /**
+     * Solves this problem in rounds, until the values of the binary
+     * expressions which are not linear in one variable do not change.
+     *
+     * @return the values of the facts in the last round.
+     */
+    IDEResult<Stmt, Var, Value> solve() {
+        while (true) {
+            IDEResult<Stmt, Var, Value> values =
+                    new IDESolver<>(this, icfg).solve();
+            boolean changed = false;
+            // copy the statements, as more of them may be found
+            // by the solving of next round
+            for (DefinitionStmt<?, ?> stmt : List.copyOf(binaryValues.keySet())) {
+                CPFact operands = new CPFact();
+                BinaryExp exp = (BinaryExp) stmt.getRValue();
+                operands.update(exp.getOperand1(),
+                        values.getValue(stmt, exp.getOperand1()));
+                operands.update(exp.getOperand2(),
+                        values.getValue(stmt, exp.getOperand2()));
+                Value old = binaryValues.get(stmt);
+                Value value = cp.meetValue(old,
+                        ConstantPropagation.evaluate(exp, operands));
+                if (!value.equals(old)) {
+                    binaryValues.put(stmt, value);
+                    changed = true;
+                }
+            }
+            if (!changed) {
+                return values;
+            }
+        }
+    }
+
+    /**
+     * Converts the values of the facts before each statement into the
+     * in facts of constant propagation, and computes the out facts by
+     * the flow and edge functions of the statements.
+     */
+    DataflowResult<Stmt, CPFact> toDataflowResult(IDEResult<Stmt, Var, Value> values) {
+        DataflowResult<Stmt, CPFact> result = new DataflowResult<>();
+        for (Stmt stmt : icfg) {
+            CPFact in = new CPFact();
+            CPFact out = new CPFact();
+            Map<Var, Value> inValues = values.getValues(stmt);
+            inValues.forEach((var, value) -> {
+                if (!var.equals(zero)) {
+                    in.update(var, value);
+                }
+            });
+            if (icfg.isCallSite(stmt) || icfg.getOutEdgesOf(stmt).isEmpty()) {
+                out.copyFrom(in);
+            } else {
+                inValues.forEach((var, value) -> transfer(stmt, var).forEach(
+                        (target, f) -> {
+                            if (!target.equals(zero)) {
+                                out.update(target, cp.meetValue(
+                                        out.get(target), f.apply(value)));
+                            }
+                        }));
+            }
+            result.setInFact(stmt, in);
+            result.setOutFact(stmt, out);
+        }
+        return result;
+    }
+
+    /**
+     * @return the facts which given fact before given (non-call) statement
+     * flows to after the statement, and their edge functions.
+     */
+    private Map<Var, LinearFunction> transfer(Stmt stmt, Var fact) {
+        Map<Var, LinearFunction> targets = Maps.newHybridMap();
+        Var def = getDefVar(stmt);
+        if (!fact.equals(def)) {
+            targets.put(fact, LinearFunction.IDENTITY);
+        }
+        if (fact.equals(zero) && entryParams.containsKey(stmt)) {
+            for (Var param : entryParams.get(stmt)) {
+                targets.put(param, LinearFunction.BOTTOM);
+            }
+        }
+        if (def != null) {
+            LinearFunction f = getDefFunction(
+                    (DefinitionStmt<?, ?>) stmt, fact);
+            if (f != null) {
+                targets.put(def, f);
+            }
+        }
+        return targets;
+    }
+
+    /**
+     * @return the function which gives the value of the variable assigned
+     * by given statement from the value of given fact, or null if
+     * the variable does not depend on the fact.
+     */
+    private LinearFunction getDefFunction(DefinitionStmt<?, ?> stmt, Var fact) {
+        RValue exp = stmt.getRValue();
+        if (exp instanceof IntLiteral literal) {
+            return fact.equals(zero) ?
+                    LinearFunction.constant(literal.getValue()) : null;
+        } else if (exp instanceof Var var) {
+            return fact.equals(var) ? LinearFunction.IDENTITY : null;
+        } else if (exp instanceof BinaryExp binaryExp) {
+            Var y = binaryExp.getOperand1();
+            Var z = binaryExp.getOperand2();
+            Integer cy = getIntConstant(y);
+            Integer cz = getIntConstant(z);
+            if (cy != null && cz != null) {
+                if (!fact.equals(zero)) {
+                    return null;
+                }
+                CPFact operands = new CPFact();
+                operands.update(y, Value.makeConstant(cy));
+                operands.update(z, Value.makeConstant(cz));
+                Value value = ConstantPropagation.evaluate(binaryExp, operands);
+                return value.isConstant() ?
+                        LinearFunction.constant(value.getConstant()) :
+                        value.isNAC() ? LinearFunction.BOTTOM : null;
+            }
+            if (binaryExp instanceof ArithmeticExp arithmeticExp &&
+                    (cy != null || cz != null)) {
+                LinearFunction f = getLinearFunction(
+                        arithmeticExp.getOperator(), cy, cz);
+                if (f != null) {
+                    return fact.equals(cy == null ? y : z) ? f : null;
+                }
+            }
+            // the value is evaluated from the values of the operands
+            // in the last round, see solve()
+            Value value = binaryValues.computeIfAbsent(stmt,
+                    unused -> Value.getUndef());
+            if (!fact.equals(zero) || value.isUndef()) {
+                return null;
+            }
+            return value.isConstant() ?
+                    LinearFunction.constant(value.getConstant()) :
+                    LinearFunction.BOTTOM;
+        } else {
+            // other values, e.g., field loads and casts, are NAC
+            return fact.equals(zero) ? LinearFunction.BOTTOM : null;
+        }
+    }
+
+    /**
+     * @return the linear function of given operator where one of
+     * the operands is given constant and the other is the variable,
+     * or null if the operator is not linear.
+     */
+    private static LinearFunction getLinearFunction(
+            ArithmeticExp.Op op, Integer c1, Integer c2) {
+        return switch (op) {
+            case ADD -> LinearFunction.linear(1, c1 != null ? c1 : c2);
+            case SUB -> c1 != null ?
+                    LinearFunction.linear(-1, c1) : LinearFunction.linear(1, -c2);
+            case MUL -> LinearFunction.linear(c1 != null ? c1 : c2, 0);
+            default -> null;
+        };
+    }
+
+    /**
+     * @return the value of given variable if it is a temporary
+     * variable holding an int constant, otherwise null.
+     */
+    private static Integer getIntConstant(Var var) {
+        return var.isTempConst() &&
+                var.getTempConstValue() instanceof IntLiteral literal ?
+                literal.getValue() : null;
+    }
+
+    /**
+     * @return the variable defined by given statement if it can hold
+     * integers, otherwise null.
+     */
+    private static Var getDefVar(Stmt stmt) {
+        if (stmt instanceof DefinitionStmt<?, ?> def &&
+                def.getLValue() instanceof Var var &&
+                ConstantPropagation.canHoldInt(var)) {
+            return var;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter;
+
+import pascal.taie.analysis.dataflow.analysis.constprop.Value;
+import pascal.taie.analysis.dataflow.ide.EdgeFunction;
+
+/**
+ * Edge functions of {@link LinearConstantPropagation}, which are
+ * the functions λv.UNDEF (top), λv.a*v+b (linear) and λv.NAC (bottom).
+ * <p>
+ * All functions are strict, i.e., they map UNDEF to UNDEF, thus a variable
+ * is UNDEF as long as the variables it is computed from are UNDEF.
+ * A linear function maps NAC to NAC, unless a is 0, where it is
+ * the constant b.
+ *
+ * @param kind the kind of the function
+ * @param a    the factor of a linear function
+ * @param b    the addend of a linear function
+ */
+record LinearFunction(Kind kind, int a, int b) implements EdgeFunction<Value> {
+
+    enum Kind {
+        TOP, LINEAR, BOTTOM
+    }
+
+    static final LinearFunction TOP = new LinearFunction(Kind.TOP, 0, 0);
+
+    static final LinearFunction IDENTITY = new LinearFunction(Kind.LINEAR, 1, 0);
+
+    static final LinearFunction BOTTOM = new LinearFunction(Kind.BOTTOM, 0, 0);
+
+    static LinearFunction linear(int a, int b) {
+        return new LinearFunction(Kind.LINEAR, a, b);
+    }
+
+    /**
+     * @return the function which maps the values other than UNDEF to c.
+     */
+    static LinearFunction constant(int c) {
+        return linear(0, c);
+    }
+
+    @Override
+    public Value apply(Value value) {
+        if (kind == Kind.TOP || value.isUndef()) {
+            return Value.getUndef();
+        } else if (kind == Kind.BOTTOM) {
+            return Value.getNAC();
+        } else if (a == 0) {
+            return Value.makeConstant(b);
+        } else if (value.isNAC()) {
+            return Value.getNAC();
+        } else {
+            return Value.makeConstant(a * value.getConstant() + b);
+        }
+    }
+
+    @Override
+    public EdgeFunction<Value> composeWith(EdgeFunction<Value> then) {
+        LinearFunction g = (LinearFunction) then;
+        if (kind == Kind.TOP || g.kind == Kind.TOP) {
+            return TOP;
+        } else if (g.kind == Kind.BOTTOM) {
+            return BOTTOM;
+        } else if (kind == Kind.BOTTOM) {
+            // the constants mapped to NAC, and NAC to NAC or g.b
+            return g.a == 0 ? g : BOTTOM;
+        } else if (a != 0 && g.a != 0 && a * g.a == 0) {
+            // the factor overflows to 0, which would turn NAC into a constant
+            return BOTTOM;
+        } else {
+            return linear(g.a * a, g.a * b + g.b);
+        }
+    }
+
+    @Override
+    public EdgeFunction<Value> meetWith(EdgeFunction<Value> other) {
+        LinearFunction g = (LinearFunction) other;
+        if (kind == Kind.TOP || equals(g)) {
+            return g;
+        } else if (g.kind == Kind.TOP) {
+            return this;
+        } else {
+            // below both functions, as they are strict
+            return BOTTOM;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return switch (kind) {
+            case TOP -> "λv.UNDEF";
+            case LINEAR -> "λv." + a + "*v+" + b;
+            case BOTTOM -> "λv.NAC";
+        };
+    }
+}
@@ -0,0 +1,386 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.analysis.dataflow.analysis.constprop.CPFact;
+import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
+import pascal.taie.analysis.dataflow.analysis.constprop.Value;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.graph.callgraph.CallGraph;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.analysis.graph.icfg.ICFG;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.SetQueue;
+import pascal.taie.util.collection.Sets;
+import pascal.taie.util.graph.SCC;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Summary-based solver of inter-procedural constant propagation.
+ * <p>
+ * Instead of propagating facts along the call and return edges of the ICFG,
+ * each method is analyzed separately for each tuple of abstract argument
+ * values it is called with (a context), which gives a summary mapping the
+ * tuple to the return value of the method. A call site looks up the summary
+ * of the callee for its argument values, and the callee is analyzed only if
+ * the tuple is new. When the return value of a summary changes, the contexts
+ * of its call sites are re-analyzed from the return sites.
+ * <p>
+ * To guarantee termination, e.g., for recursion with decreasing arguments,
+ * the constant arguments of the methods in recursive call graph SCCs are
+ * widened to NAC up front, thus such a method is analyzed in one context.
+ * The number of contexts of other methods is limited by
+ * {@link #MAX_CONTEXTS}, beyond which their arguments are widened as well.
+ * The facts of the statements are the meets of the facts of all contexts
+ * of their methods, and the values returned to call sites are those of the
+ * contexts they call, thus the results are no less precise than the
+ * results of {@link InterSolver}.
+ */
+class SummaryCPSolver {
+
+    private static final Logger logger = LogManager.getLogger(SummaryCPSolver.class);
+
+    /**
+     * Maximum number of contexts of a method before widening.
+     */
+    private static final int MAX_CONTEXTS = 8;
+
+    private final ConstantPropagation cp;
+
+    private final ICFG<JMethod, Stmt> icfg;
+
+    /**
+     * Methods in recursive SCCs of the call graph, whose arguments
+     * are always widened.
+     */
+    private final Set<JMethod> recursiveMethods;
+
+    private final Map<Context, Summary> summaries = Maps.newMap();
+
+    private final MultiMap<JMethod, Context> contexts = Maps.newMultiMap();
+
+    /**
+     * Maps each context to the call sites which use its summary.
+     */
+    private final MultiMap<Context, CallSite> callSites = Maps.newMultiMap();
+
+    private final Queue<Context> workList = new SetQueue<>();
+
+    /**
+     * Number of times a call site is bound to an existing summary.
+     */
+    private int hits;
+
+    /**
+     * Number of summaries created for call sites, i.e., times a callee
+     * is analyzed for a new argument tuple.
+     */
+    private int misses;
+
+    /**
+     * Number of times the statements are visited by the solver.
+     */
+    private int visits;
+
+    SummaryCPSolver(ConstantPropagation cp, ICFG<JMethod, Stmt> icfg,
+                    CallGraph<Invoke, JMethod> callGraph) {
+        this.cp = cp;
+        this.icfg = icfg;
+        this.recursiveMethods = getRecursiveMethods(callGraph);
+    }
+
+    /**
+     * @return the methods which are in a cycle of given call graph.
+     */
+    private static Set<JMethod> getRecursiveMethods(CallGraph<Invoke, JMethod> callGraph) {
+        Set<JMethod> methods = Sets.newSet();
+        for (List<JMethod> component : new SCC<>(callGraph).getComponents()) {
+            if (component.size() > 1) {
+                methods.addAll(component);
+            } else {
+                JMethod method = component.get(0);
+                if (callGraph.getSuccsOf(method).contains(method)) {
+                    methods.add(method);
+                }
+            }
+        }
+        return methods;
+    }
+
+    DataflowResult<Stmt, CPFact> solve() {
+        icfg.entryMethods().forEach(method -> {
+            List<Value> args = new ArrayList<>();
+            for (Var param : method.getIR().getParams()) {
+                args.add(ConstantPropagation.canHoldInt(param) ?
+                        Value.getNAC() : Value.getUndef());
+            }
+            getSummary(new Context(method, args));
+        });
+        while (!workList.isEmpty()) {
+            Context context = workList.poll();
+            analyze(context, summaries.get(context));
+        }
+        logger.info("{} contexts of {} methods, summary hits: {}, misses: {}," +
+                        " {} node visits", summaries.size(), contexts.keySet().size(),
+                hits, misses, visits);
+        return mergeResults();
+    }
+
+    /**
+     * @return the summary of given context, which is created and
+     * queued for analysis if absent.
+     */
+    private Summary getSummary(Context context) {
+        Summary summary = summaries.get(context);
+        if (summary == null) {
+            summary = new Summary(getCFGOf(context.method()));
+            summaries.put(context, summary);
+            contexts.put(context.method(), context);
+            workList.add(context);
+        }
+        return summary;
+    }
+
+    /**
+     * @return the context of given callee for given argument values,
+     * widened if the callee is recursive or already has too many contexts.
+     */
+    private Context getCalleeContext(JMethod callee, List<Value> args) {
+        Context context = new Context(callee, args);
+        if (recursiveMethods.contains(callee) ||
+                (!summaries.containsKey(context) &&
+                        contexts.get(callee).size() >= MAX_CONTEXTS)) {
+            context = new Context(callee, args.stream()
+                    .map(arg -> arg.isUndef() ? arg : Value.getNAC())
+                    .toList());
+        }
+        return context;
+    }
+
+    private static CFG<Stmt> getCFGOf(JMethod method) {
+        IR ir = method.getIR();
+        return ir.getResult(CFGBuilder.ID);
+    }
+
+    /**
+     * Analyzes the method of given context, starting from the pending
+     * statements of the summary, and notifies the call sites of the
+     * context if its return value changes.
+     */
+    private void analyze(Context context, Summary summary) {
+        CFG<Stmt> cfg = summary.cfg;
+        DataflowResult<Stmt, CPFact> result = summary.result;
+        Queue<Stmt> nodes = new SetQueue<>();
+        if (summary.analyzed) {
+            nodes.addAll(summary.pending);
+        } else {
+            for (Stmt node : cfg) {
+                result.setInFact(node, cp.newInitialFact());
+                result.setOutFact(node, cp.newInitialFact());
+                if (!cfg.isEntry(node)) {
+                    nodes.add(node);
+                }
+            }
+            CPFact boundary = result.getOutFact(cfg.getEntry());
+            List<Var> params = context.method().getIR().getParams();
+            for (int i = 0; i < params.size(); ++i) {
+                boundary.update(params.get(i), context.args().get(i));
+            }
+            result.getInFact(cfg.getEntry()).copyFrom(boundary);
+            summary.analyzed = true;
+        }
+        summary.pending.clear();
+        while (!nodes.isEmpty()) {
+            Stmt node = nodes.poll();
+            ++visits;
+            CPFact in = result.getInFact(node);
+            for (Stmt pred : cfg.getPredsOf(node)) {
+                cp.meetInto(getEdgeFact(summary, pred), in);
+            }
+            CPFact out = result.getOutFact(node);
+            boolean changed;
+            if (icfg.isCallSite(node)) {
+                changed = !out.equals(in);
+                if (changed) {
+                    out.clear();
+                    out.copyFrom(in);
+                }
+                changed |= bindCallees(context, summary, (Invoke) node, in);
+            } else {
+                changed = cp.transferNode(node, in, out);
+            }
+            if (changed) {
+                nodes.addAll(cfg.getSuccsOf(node));
+            }
+        }
+        Value returnValue = Value.getUndef();
+        CPFact exitOut = result.getOutFact(cfg.getExit());
+        for (Var returnVar : context.method().getIR().getReturnVars()) {
+            returnValue = cp.meetValue(returnValue, exitOut.get(returnVar));
+        }
+        if (!returnValue.equals(summary.returnValue)) {
+            summary.returnValue = returnValue;
+            for (CallSite callSite : callSites.get(context)) {
+                Summary caller = summaries.get(callSite.context());
+                if (caller.calleeContexts.get(callSite.invoke()).contains(context)) {
+                    caller.pending.addAll(caller.cfg.getSuccsOf(callSite.invoke()));
+                    workList.add(callSite.context());
+                }
+            }
+        }
+    }
+
+    /**
+     * Looks up the callee contexts of given call site for the argument
+     * values in given fact.
+     *
+     * @return true if the callee contexts of the call site change.
+     */
+    private boolean bindCallees(Context context, Summary summary,
+                                Invoke invoke, CPFact in) {
+        List<Value> args = invoke.getInvokeExp()
+                .getArgs()
+                .stream()
+                .map(in::get)
+                .toList();
+        List<Context> calleeContexts = new ArrayList<>();
+        for (JMethod callee : icfg.getCalleesOf(invoke)) {
+            Context calleeContext = getCalleeContext(callee, args);
+            if (callSites.put(calleeContext, new CallSite(context, invoke))) {
+                if (summaries.containsKey(calleeContext)) {
+                    ++hits;
+                } else {
+                    ++misses;
+                }
+            }
+            getSummary(calleeContext);
+            calleeContexts.add(calleeContext);
+        }
+        return !calleeContexts.equals(summary.calleeContexts.put(invoke, calleeContexts));
+    }
+
+    /**
+     * @return the fact flowing out of given node to its successors.
+     * For a call site, the value returned by the callees is assigned
+     * to the variable which receives it.
+     */
+    private CPFact getEdgeFact(Summary summary, Stmt node) {
+        CPFact out = summary.result.getOutFact(node);
+        if (node instanceof Invoke invoke && invoke.getResult() != null) {
+            Value returnValue = Value.getUndef();
+            for (Context callee : summary.calleeContexts.getOrDefault(invoke, List.of())) {
+                returnValue = cp.meetValue(returnValue, summaries.get(callee).returnValue);
+            }
+            CPFact fact = out.copy();
+            fact.update(invoke.getResult(), returnValue);
+            return fact;
+        }
+        return out;
+    }
+
+    /**
+     * @return the meets of the facts of all contexts of each method.
+     */
+    private DataflowResult<Stmt, CPFact> mergeResults() {
+        DataflowResult<Stmt, CPFact> result = new DataflowResult<>();
+        for (Stmt node : icfg) {
+            result.setInFact(node, cp.newInitialFact());
+            result.setOutFact(node, cp.newInitialFact());
+        }
+        summaries.values().forEach(summary -> {
+            for (Stmt node : summary.cfg) {
+                cp.meetInto(summary.result.getInFact(node), result.getInFact(node));
+                cp.meetInto(summary.result.getOutFact(node), result.getOutFact(node));
+            }
+        });
+        return result;
+    }
+
+    int getHits() {
+        return hits;
+    }
+
+    int getMisses() {
+        return misses;
+    }
+
+    int getNumberOfVisits() {
+        return visits;
+    }
+
+    /**
+     * A method with the abstract values of its arguments.
+     */
+    private record Context(JMethod method, List<Value> args) {
+    }
+
+    /**
+     * A call site in the method of a context.
+     */
+    private record CallSite(Context context, Invoke invoke) {
+    }
+
+    /**
+     * Results of analyzing a method in a context.
+     */
+    private static class Summary {
+
+        private final CFG<Stmt> cfg;
+
+        private final DataflowResult<Stmt, CPFact> result = new DataflowResult<>();
+
+        /**
+         * Maps each call site to the contexts of its callees
+         * under its current argument values.
+         */
+        private final Map<Invoke, List<Context>> calleeContexts = Maps.newMap();
+
+        /**
+         * Statements to be re-analyzed as the values returned
+         * to their predecessors change.
+         */
+        private final Set<Stmt> pending = Sets.newHybridOrderedSet();
+
+        private boolean analyzed = false;
+
+        private Value returnValue = Value.getUndef();
+
+        private Summary(CFG<Stmt> cfg) {
+            this.cfg = cfg;
+        }
+    }
+}
@@ -25,7 +25,7 @@ package pascal.taie.analysis.graph.callgraph;
 import pascal.taie.World;
 import pascal.taie.ir.proginfo.MethodRef;
 import pascal.taie.ir.stmt.Invoke;
-import pascal.taie.language.classes.ClassHierarchy;
+import pascal.taie.language.classes.HierarchyIndex;
 import pascal.taie.language.classes.JClass;
 import pascal.taie.language.classes.JMethod;
 import pascal.taie.language.classes.Subsignature;
@@ -34,18 +34,28 @@ import java.util.*;
 
 /**
  * Implementation of the CHA algorithm.
+ * <p>
+ * The subclasses, implementors and dispatch targets are looked up in
+ * the {@link HierarchyIndex} of the class hierarchy. The targets of
+ * each method reference are resolved once and kept in the
+ * {@link DispatchCache}, as many call sites share the same reference.
  */
 class CHABuilder implements CGBuilder<Invoke, JMethod> {
 
-    private ClassHierarchy hierarchy;
+    private HierarchyIndex index;
+
+    private DispatchCache cache;
 
     @Override
     public CallGraph<Invoke, JMethod> build() {
-        hierarchy = World.get().getClassHierarchy();
-        return buildCallGraph(World.get().getMainMethod());
+        index = World.get().getClassHierarchy().getIndex();
+        cache = DispatchCache.get();
+        CallGraph<Invoke, JMethod> callGraph = buildCallGraph(World.get().getMainMethod());
+        cache.logStatistics();
+        return callGraph;
     }
 
-    private CallGraph<Invoke, JMethod> buildCallGraph(JMethod entry) {
+    CallGraph<Invoke, JMethod> buildCallGraph(JMethod entry) {
         DefaultCallGraph callGraph = new DefaultCallGraph();
         callGraph.addEntryMethod(entry);
         // TODO - finish me
@@ -71,105 +81,32 @@ class CHABuilder implements CGBuilder<Invoke, JMethod> {
     /**
      * Resolves call targets (callees) of a call site via CHA.
      */
-    private Set<JMethod> resolve(Invoke callSite) {
+    Set<JMethod> resolve(Invoke callSite) {
         // TODO - finish me
+        CallKind kind = CallGraphs.getCallKind(callSite);
+        return cache.getCHATargets(callSite.getMethodRef(), kind,
+                methodRef -> resolve(methodRef, kind));
+    }
+
+    private Set<JMethod> resolve(MethodRef methodRef, CallKind kind) {
         Set<JMethod> targetMethods = new HashSet<JMethod>();
-        MethodRef methodRef = callSite.getMethodRef();
         JClass declaringClass = methodRef.getDeclaringClass();
         Subsignature subsignature = methodRef.getSubsignature();
-        switch (CallGraphs.getCallKind(callSite)) {
+        switch (kind) {
             case STATIC -> {
                 targetMethods.add(declaringClass.getDeclaredMethod(subsignature));
             }
             case SPECIAL -> {
-                JMethod targetMethod = dispatch(declaringClass, subsignature);
+                JMethod targetMethod = cache.dispatch(declaringClass, methodRef);
                 if (targetMethod != null) {
                     targetMethods.add(targetMethod);
                 }
             }
-            case VIRTUAL -> {
-                for (JClass subClass : getSubClassesOfClass(declaringClass)) {
-                    JMethod targetMethod = dispatch(subClass, subsignature);
-                    if (targetMethod != null) {
-                        targetMethods.add(targetMethod);
-                    }
-                }
-            }
-            case INTERFACE -> {
-                for (JClass subClass : getSubClassesOfInterface(declaringClass)) {
-                    JMethod targetMethod = dispatch(subClass, subsignature);
-                    if (targetMethod != null) {
-                        targetMethods.add(targetMethod);
-                    }
-                }
-            }
+            case VIRTUAL -> targetMethods.addAll(
+                    index.dispatchSubclasses(declaringClass, subsignature));
+            case INTERFACE -> targetMethods.addAll(
+                    index.dispatchImplementors(declaringClass, subsignature));
         }
         return targetMethods;
     }
-
-    private Set<JClass> getSubClassesOfClass(JClass declaringClass) {
-        Set<JClass> subClasses = new HashSet<>();
-        Vector<JClass> dfsQueue = new Vector<>();
-        dfsQueue.add(declaringClass);
-        while (!dfsQueue.isEmpty()) {
-            JClass curClass = dfsQueue.remove(0);
-            if (!subClasses.contains(curClass)) {
-                subClasses.add(curClass);
-                dfsQueue.addAll(hierarchy.getDirectSubclassesOf(curClass));
-            }
-        }
-
-        return subClasses;
-    }
-
-    private Set<JClass> getSubClassesOfInterface(JClass declaringClass) {
-        // search all sub-interfaces and get the implementors of them
-        Set<JClass> subInterfaces = new HashSet<>();
-        Set<JClass> subClasses = new HashSet<>();
-        Vector<JClass> dfsQueue = new Vector<>();
-        dfsQueue.add(declaringClass);
-        while (!dfsQueue.isEmpty()) {
-            JClass curInterface = dfsQueue.remove(0);
-            if (!subInterfaces.contains(curInterface)) {
-                subInterfaces.add(curInterface);
-                subClasses.addAll(hierarchy.getDirectImplementorsOf(curInterface));
-                dfsQueue.addAll(hierarchy.getDirectSubinterfacesOf(curInterface));
-            }
-        }
-
-        // get all subclasses of the implementors
-        dfsQueue.addAll(subClasses);
-        subClasses.clear();
-        while (!dfsQueue.isEmpty()) {
-            JClass curClass = dfsQueue.remove(0);
-            if (!subClasses.contains(curClass)) {
-                subClasses.add(curClass);
-                dfsQueue.addAll(hierarchy.getDirectSubclassesOf(curClass));
-            }
-        }
-
-        return subClasses;
-    }
-
-    /**
-     * Looks up the target method based on given class and method subsignature.
-     *
-     * @return the dispatched target method, or null if no satisfying method
-     * can be found.
-     */
-    private JMethod dispatch(JClass jclass, Subsignature subsignature) {
-        // TODO - finish me
-        do {
-            for (JMethod declaredMethod : jclass.getDeclaredMethods()) {
-                if (!declaredMethod.isAbstract() &&
-                        Objects.equals(declaredMethod.getSubsignature().toString(), subsignature.toString())) {
-                    return declaredMethod;
-                }
-            }
-
-            jclass = jclass.getSuperClass();
-        } while (jclass != null);
-
-        return null;
-    }
 }
@@ -48,19 +48,32 @@ public class CallGraphBuilder extends ProgramAnalysis {
 
     private final String algorithm;
 
+    /**
+     * Number of threads used to build CHA call graph,
+     * given by option "threads"; 1 if not given.
+     */
+    private final int threads;
+
     public CallGraphBuilder(AnalysisConfig config) {
         super(config);
         algorithm = config.getOptions().getString("algorithm");
+        threads = config.getOptions().get("threads") != null ?
+                config.getOptions().getInt("threads") : 1;
+        if (threads < 1) {
+            throw new ConfigException(
+                    "Number of threads should be positive: " + threads);
+        }
     }
 
     @Override
     public CallGraph<Invoke, JMethod> analyze() {
-        CGBuilder<Invoke, JMethod> builder;
-        if (algorithm.equals("cha")) {
-            builder = new CHABuilder();
-        } else {
-            throw new ConfigException("Unknown call graph building algorithm: " + algorithm);
-        }
+        CGBuilder<Invoke, JMethod> builder = switch (algorithm) {
+            case "cha" -> threads > 1 ?
+                    new ParallelCHABuilder(threads) : new CHABuilder();
+            case "rta" -> new RTABuilder();
+            default -> throw new ConfigException(
+                    "Unknown call graph building algorithm: " + algorithm);
+        };
         ClassHierarchyImpl.setCheckCHA(true);
         CallGraph<Invoke, JMethod> callGraph = builder.build();
         ClassHierarchyImpl.setCheckCHA(false);
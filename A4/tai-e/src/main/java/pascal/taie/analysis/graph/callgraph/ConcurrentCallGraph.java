@@ -0,0 +1,69 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.graph.callgraph;
+
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.language.classes.JMethod;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Thread-safe variant of {@link DefaultCallGraph}, which supports
+ * adding methods and edges by multiple threads.
+ * <p>
+ * Each method is claimed by exactly one thread, which also builds
+ * the IR of the method without holding the lock, as building IR is
+ * much more costly than updating the call graph. The queries are only
+ * safe after all threads finish modifying this call graph.
+ */
+class ConcurrentCallGraph extends DefaultCallGraph {
+
+    /**
+     * Methods added by {@link #addReachableMethod(JMethod)}, which may be
+     * not yet in {@link #reachableMethods}.
+     */
+    private final Set<JMethod> claimedMethods = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public synchronized void addEntryMethod(JMethod entryMethod) {
+        super.addEntryMethod(entryMethod);
+    }
+
+    @Override
+    public boolean addReachableMethod(JMethod method) {
+        if (!claimedMethods.add(method)) {
+            return false;
+        }
+        if (!method.isAbstract()) {
+            method.getIR();
+        }
+        synchronized (this) {
+            return super.addReachableMethod(method);
+        }
+    }
+
+    @Override
+    public synchronized boolean addEdge(Edge<Invoke, JMethod> edge) {
+        return super.addEdge(edge);
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.graph.callgraph;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.World;
+import pascal.taie.ir.proginfo.MethodRef;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.classes.Subsignature;
+import pascal.taie.util.collection.Maps;
+
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Memoizes the results of method dispatch for the call graph builders.
+ * <p>
+ * Two caches are kept: the target of dispatching a subsignature on
+ * a receiver class, and the CHA targets of a {@link MethodRef} with
+ * a {@link CallKind}, which are shared by all call sites of the reference.
+ * Both caches are concurrent and bounded: once a cache holds
+ * {@link #capacity} entries, new results are returned without being cached.
+ * The numbers of hits and misses are counted for each cache.
+ * <p>
+ * The cache of current {@link World} is obtained by {@link #get()} and
+ * dropped when the world is reset, so the builders of a run share it.
+ */
+public class DispatchCache {
+
+    private static final Logger logger = LogManager.getLogger(DispatchCache.class);
+
+    /**
+     * Default maximum number of entries of each cache.
+     */
+    public static final int DEFAULT_CAPACITY = 1 << 20;
+
+    private static DispatchCache cache;
+
+    static {
+        World.registerResetCallback(() -> cache = null);
+    }
+
+    private final int capacity;
+
+    private final Map<DispatchKey, Optional<JMethod>> dispatchTargets =
+            Maps.newConcurrentMap();
+
+    private final Map<CHAKey, Set<JMethod>> chaTargets = Maps.newConcurrentMap();
+
+    private final LongAdder dispatchHits = new LongAdder();
+
+    private final LongAdder dispatchMisses = new LongAdder();
+
+    private final LongAdder chaHits = new LongAdder();
+
+    private final LongAdder chaMisses = new LongAdder();
+
+    public DispatchCache(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * @return the dispatch cache of current world.
+     */
+    public static synchronized DispatchCache get() {
+        if (cache == null) {
+            cache = new DispatchCache(DEFAULT_CAPACITY);
+        }
+        return cache;
+    }
+
+    /**
+     * Looks up the non-abstract method of the subsignature of given
+     * reference in given class and its superclasses.
+     *
+     * @return the dispatched target method, or null if no satisfying method
+     * can be found.
+     */
+    public @Nullable JMethod dispatch(JClass jclass, MethodRef methodRef) {
+        Subsignature subsignature = methodRef.getSubsignature();
+        DispatchKey key = new DispatchKey(jclass, subsignature);
+        Optional<JMethod> target = dispatchTargets.get(key);
+        if (target != null) {
+            dispatchHits.increment();
+        } else {
+            dispatchMisses.increment();
+            target = Optional.ofNullable(World.get().getClassHierarchy()
+                    .getIndex().dispatch(jclass, subsignature));
+            if (dispatchTargets.size() < capacity) {
+                dispatchTargets.putIfAbsent(key, target);
+            }
+        }
+        return target.orElse(null);
+    }
+
+    /**
+     * @return the CHA targets of given reference and call kind, which are
+     * computed by given resolver if they are not cached. The result must
+     * not be modified.
+     */
+    public Set<JMethod> getCHATargets(MethodRef methodRef, CallKind kind,
+                                      Function<MethodRef, Set<JMethod>> resolver) {
+        CHAKey key = new CHAKey(methodRef, kind);
+        Set<JMethod> targets = chaTargets.get(key);
+        if (targets != null) {
+            chaHits.increment();
+        } else {
+            chaMisses.increment();
+            targets = Collections.unmodifiableSet(resolver.apply(methodRef));
+            if (chaTargets.size() < capacity) {
+                chaTargets.putIfAbsent(key, targets);
+            }
+        }
+        return targets;
+    }
+
+    public long getDispatchHits() {
+        return dispatchHits.sum();
+    }
+
+    public long getDispatchMisses() {
+        return dispatchMisses.sum();
+    }
+
+    public long getCHAHits() {
+        return chaHits.sum();
+    }
+
+    public long getCHAMisses() {
+        return chaMisses.sum();
+    }
+
+    /**
+     * Logs the statistics of the caches.
+     */
+    public void logStatistics() {
+        logger.info("Dispatch cache: {} hits, {} misses; CHA target cache:" +
+                        " {} hits, {} misses", getDispatchHits(), getDispatchMisses(),
+                getCHAHits(), getCHAMisses());
+    }
+
+    private record DispatchKey(JClass jclass, Subsignature subsignature) {
+    }
+
+    private record CHAKey(MethodRef methodRef, CallKind kind) {
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.graph.callgraph;
+
+import pascal.taie.config.ConfigException;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JMethod;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Parallel implementation of the CHA algorithm.
+ * <p>
+ * The methods are processed in waves: the call sites of the methods
+ * reached in the last wave are resolved in parallel, and the callees
+ * which are reached for the first time form the next wave. As the
+ * class hierarchy is not modified during building, the resolution of
+ * each call site is independent, thus the result is the same as
+ * {@link CHABuilder}, regardless of the order of processing.
+ */
+class ParallelCHABuilder extends CHABuilder {
+
+    /**
+     * Number of threads used to resolve call sites.
+     */
+    private final int parallelism;
+
+    ParallelCHABuilder(int parallelism) {
+        if (parallelism < 1) {
+            throw new ConfigException(
+                    "Number of threads should be positive: " + parallelism);
+        }
+        this.parallelism = parallelism;
+    }
+
+    @Override
+    CallGraph<Invoke, JMethod> buildCallGraph(JMethod entry) {
+        ConcurrentCallGraph callGraph = new ConcurrentCallGraph();
+        callGraph.addEntryMethod(entry);
+        callGraph.addReachableMethod(entry);
+        List<JMethod> wave = List.of(entry);
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            while (!wave.isEmpty()) {
+                Queue<JMethod> nextWave = new ConcurrentLinkedQueue<>();
+                List<JMethod> methods = wave;
+                // parallel stream uses the pool it is started from
+                pool.submit(() -> methods.parallelStream().forEach(method -> {
+                    if (method.isAbstract()) {
+                        return;
+                    }
+                    // call sites are taken from the IR, as the call graph
+                    // cannot be queried while it is being modified
+                    for (Stmt stmt : method.getIR()) {
+                        if (stmt instanceof Invoke callSite) {
+                            CallKind kind = CallGraphs.getCallKind(callSite);
+                            for (JMethod callee : resolve(callSite)) {
+                                callGraph.addEdge(new Edge<>(kind, callSite, callee));
+                                if (callGraph.addReachableMethod(callee)) {
+                                    nextWave.add(callee);
+                                }
+                            }
+                        }
+                    }
+                })).join();
+                wave = List.copyOf(nextWave);
+            }
+        } finally {
+            pool.shutdown();
+        }
+        return callGraph;
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.graph.callgraph;
+
+import pascal.taie.World;
+import pascal.taie.ir.exp.NewExp;
+import pascal.taie.ir.proginfo.MethodRef;
+import pascal.taie.ir.stmt.AssignLiteral;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.New;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.ClassHierarchy;
+import pascal.taie.language.classes.ClassNames;
+import pascal.taie.language.classes.HierarchyIndex;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.ArrayType;
+import pascal.taie.language.type.ClassType;
+import pascal.taie.language.type.Type;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Implementation of the RTA (Rapid Type Analysis) algorithm.
+ * <p>
+ * Unlike CHA, a virtual or interface call is only dispatched on the
+ * classes instantiated in reachable methods, i.e., the classes of
+ * {@link New} statements and of string and class literals. Arrays are
+ * dispatched as {@code java.lang.Object}. The virtual and interface
+ * call sites are kept by the declaring classes of their method references,
+ * thus when a class becomes instantiated, only the call sites declared
+ * in its supertypes are dispatched on it again.
+ * <p>
+ * Objects created by the JVM or by native code are not modeled, thus
+ * the call graph may miss the calls on such objects.
+ */
+class RTABuilder implements CGBuilder<Invoke, JMethod> {
+
+    private ClassHierarchy hierarchy;
+
+    private HierarchyIndex index;
+
+    private DispatchCache cache;
+
+    private DefaultCallGraph callGraph;
+
+    private Queue<JMethod> workList;
+
+    private Set<JClass> instantiatedClasses;
+
+    /**
+     * Virtual and interface call sites in reachable methods,
+     * grouped by the declaring classes of their method references.
+     */
+    private MultiMap<JClass, Invoke> virtualCallSites;
+
+    @Override
+    public CallGraph<Invoke, JMethod> build() {
+        hierarchy = World.get().getClassHierarchy();
+        index = hierarchy.getIndex();
+        cache = DispatchCache.get();
+        callGraph = new DefaultCallGraph();
+        workList = new ArrayDeque<>();
+        instantiatedClasses = Sets.newSet();
+        virtualCallSites = Maps.newMultiMap();
+        JMethod entry = World.get().getMainMethod();
+        callGraph.addEntryMethod(entry);
+        workList.add(entry);
+        while (!workList.isEmpty()) {
+            JMethod method = workList.poll();
+            if (callGraph.addReachableMethod(method)) {
+                processNewMethod(method);
+            }
+        }
+        cache.logStatistics();
+        return callGraph;
+    }
+
+    private void processNewMethod(JMethod method) {
+        if (!method.isAbstract()) {
+            for (Stmt stmt : method.getIR()) {
+                if (stmt instanceof New newStmt) {
+                    instantiate(newStmt.getRValue());
+                } else if (stmt instanceof AssignLiteral assign &&
+                        assign.getRValue().getType() instanceof ClassType type) {
+                    instantiate(type.getJClass());
+                }
+            }
+        }
+        callGraph.callSitesIn(method).forEach(callSite -> {
+            CallKind kind = CallGraphs.getCallKind(callSite);
+            MethodRef methodRef = callSite.getMethodRef();
+            JClass declaringClass = methodRef.getDeclaringClass();
+            switch (kind) {
+                case STATIC, SPECIAL -> addEdge(callSite,
+                        cache.dispatch(declaringClass, methodRef));
+                case VIRTUAL, INTERFACE -> {
+                    virtualCallSites.put(declaringClass, callSite);
+                    for (JClass jclass : instantiatedClasses) {
+                        if (index.isSubtype(declaringClass, jclass)) {
+                            addEdge(callSite, cache.dispatch(jclass, methodRef));
+                        }
+                    }
+                }
+            }
+        });
+    }
+
+    private void instantiate(NewExp newExp) {
+        Type type = newExp.getType();
+        if (type instanceof ClassType classType) {
+            instantiate(classType.getJClass());
+        } else if (type instanceof ArrayType) {
+            instantiate(hierarchy.getJREClass(ClassNames.OBJECT));
+        }
+    }
+
+    /**
+     * Marks given class as instantiated, and dispatches the call sites
+     * declared in its supertypes on it.
+     */
+    private void instantiate(JClass jclass) {
+        if (jclass == null || !instantiatedClasses.add(jclass)) {
+            return;
+        }
+        Set<JClass> supertypes = Sets.newSet();
+        Deque<JClass> stack = new ArrayDeque<>();
+        stack.push(jclass);
+        while (!stack.isEmpty()) {
+            JClass supertype = stack.pop();
+            if (supertypes.add(supertype)) {
+                for (Invoke callSite : virtualCallSites.get(supertype)) {
+                    addEdge(callSite, cache.dispatch(jclass, callSite.getMethodRef()));
+                }
+                if (supertype.getSuperClass() != null) {
+                    stack.push(supertype.getSuperClass());
+                }
+                supertype.getInterfaces().forEach(stack::push);
+            }
+        }
+    }
+
+    private void addEdge(Invoke callSite, JMethod callee) {
+        if (callee != null && callGraph.addEdge(new Edge<>(
+                CallGraphs.getCallKind(callSite), callSite, callee))) {
+            workList.add(callee);
+        }
+    }
+}
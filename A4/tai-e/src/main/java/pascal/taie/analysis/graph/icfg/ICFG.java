@@ -25,6 +25,7 @@ package pascal.taie.analysis.graph.icfg;
 import pascal.taie.util.graph.Graph;
 
 import java.util.Set;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
@@ -79,8 +80,26 @@ public interface ICFG<Method, Node> extends Graph<Node> {
      */
     Method getContainingMethodOf(Node node);
 
+    /**
+     * @return the nodes of the given method.
+     */
+    default Set<Node> getNodesOf(Method method) {
+        return getNodes()
+                .stream()
+                .filter(node -> method.equals(getContainingMethodOf(node)))
+                .collect(Collectors.toSet());
+    }
+
     /**
      * @return true if the given node is a call site, otherwise false.
      */
     boolean isCallSite(Node node);
+
+    /**
+     * @return true if the edges of this ICFG are built on demand,
+     * thus querying all nodes is costly, otherwise false.
+     */
+    default boolean isLazy() {
+        return false;
+    }
 }
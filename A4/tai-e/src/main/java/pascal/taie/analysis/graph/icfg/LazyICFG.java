@@ -0,0 +1,305 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.graph.icfg;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.analysis.graph.callgraph.CallGraph;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.Edge;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.Return;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.ClassType;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Sets;
+import pascal.taie.util.collection.Views;
+
+import java.lang.ref.SoftReference;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * ICFG whose edges are built on demand and held by soft references,
+ * selected by option {@code lazy-edges} of {@code icfg}.
+ * <p>
+ * This ICFG does not build the CFGs: they are owned by the IR of
+ * the methods, and are built for every method by the {@code cfg} pass
+ * before this ICFG is created. What is deferred is the ICFG on top of them.
+ * A method is reached when its entry, exit or nodes are queried, or when
+ * the edges of one of its callers or callees are built, and its nodes are
+ * recorded then. The edges of a method, i.e., its intra-procedural edges,
+ * the call edges out of its call sites and into its entry, and the return
+ * edges out of its exit and into its return sites, are built on first query,
+ * and are held by a {@link SoftReference}. Thus the edges of the methods
+ * which are no longer queried are dropped under memory pressure, and they
+ * are rebuilt if queried again. As all nodes, including the entries and
+ * exits, are taken from the CFGs, rebuilt edges connect the same nodes,
+ * and the facts of the nodes stay valid.
+ * <p>
+ * Only the whole-graph queries, i.e., querying all nodes or iterating
+ * this ICFG, reach all methods of the call graph, thus the solvers should
+ * avoid them. The other queries never reach unrelated methods, and the nodes
+ * of the methods which have not been reached are unknown to them.
+ */
+class LazyICFG extends AbstractICFG<JMethod, Stmt> {
+
+    private static final Logger logger = LogManager.getLogger(LazyICFG.class);
+
+    /**
+     * Maps the nodes of the reached methods to their containing methods.
+     */
+    private final Map<Stmt, JMethod> stmtToMethod = Maps.newMap();
+
+    private final Set<JMethod> reached = Sets.newSet();
+
+    private final Map<JMethod, SoftReference<MethodEdges>> methodEdges = Maps.newMap();
+
+    private boolean allReached = false;
+
+    /**
+     * Number of times the edges of some method are built.
+     */
+    private int builds = 0;
+
+    LazyICFG(CallGraph<Stmt, JMethod> callGraph) {
+        super(callGraph);
+    }
+
+    /**
+     * Records the nodes of given method, if they are not recorded yet.
+     *
+     * @return the CFG of the method, or null if it is absent.
+     */
+    private CFG<Stmt> reach(JMethod method) {
+        CFG<Stmt> cfg = ICFGBuilder.getCFGOf(method);
+        if (cfg == null) {
+            logger.warn("CFG of {} is absent, try to fix this by adding option -scope=reachable", method);
+        } else if (reached.add(method)) {
+            cfg.forEach(node -> stmtToMethod.put(node, method));
+        }
+        return cfg;
+    }
+
+    private void reachAll() {
+        if (!allReached) {
+            callGraph.forEach(this::reach);
+            allReached = true;
+        }
+    }
+
+    /**
+     * @return the edges of given method, which are built if they
+     * have not been built or have been dropped.
+     */
+    private MethodEdges getEdgesOf(JMethod method) {
+        SoftReference<MethodEdges> ref = methodEdges.get(method);
+        MethodEdges edges = ref != null ? ref.get() : null;
+        if (edges == null) {
+            edges = buildEdges(method);
+            methodEdges.put(method, new SoftReference<>(edges));
+            ++builds;
+        }
+        return edges;
+    }
+
+    private MethodEdges buildEdges(JMethod method) {
+        MethodEdges edges = new MethodEdges();
+        CFG<Stmt> cfg = reach(method);
+        if (cfg == null) {
+            return edges;
+        }
+        for (Stmt node : cfg) {
+            for (Edge<Stmt> edge : cfg.getOutEdgesOf(node)) {
+                ICFGEdge<Stmt> local = isCallSite(node) ?
+                        new CallToReturnEdge<>(edge) :
+                        new NormalEdge<>(edge);
+                edges.outEdges.put(node, local);
+                edges.inEdges.put(edge.getTarget(), local);
+            }
+            if (isCallSite(node)) {
+                for (JMethod callee : getCalleesOf(node)) {
+                    CFG<Stmt> calleeCFG = reach(callee);
+                    if (calleeCFG == null) {
+                        continue;
+                    }
+                    edges.outEdges.put(node,
+                            new CallEdge<>(node, calleeCFG.getEntry(), callee));
+                    for (Stmt retSite : cfg.getSuccsOf(node)) {
+                        edges.inEdges.put(retSite,
+                                newReturnEdge(calleeCFG, retSite, node));
+                    }
+                }
+            }
+        }
+        Stmt entry = cfg.getEntry();
+        Stmt exit = cfg.getExit();
+        for (Stmt callSite : getCallersOf(method)) {
+            edges.inEdges.put(entry, new CallEdge<>(callSite, entry, method));
+            CFG<Stmt> callerCFG = reach(callGraph.getContainerOf(callSite));
+            if (callerCFG != null) {
+                for (Stmt retSite : callerCFG.getSuccsOf(callSite)) {
+                    edges.outEdges.put(exit, newReturnEdge(cfg, retSite, callSite));
+                }
+            }
+        }
+        return edges;
+    }
+
+    private static ReturnEdge<Stmt> newReturnEdge(
+            CFG<Stmt> calleeCFG, Stmt retSite, Stmt callSite) {
+        Set<Var> retVars = Sets.newHybridSet();
+        Set<ClassType> exceptions = Sets.newHybridSet();
+        calleeCFG.getInEdgesOf(calleeCFG.getExit()).forEach(edge -> {
+            if (edge.getKind() == Edge.Kind.RETURN) {
+                Var retVar = ((Return) edge.getSource()).getValue();
+                if (retVar != null) {
+                    retVars.add(retVar);
+                }
+            }
+            if (edge.isExceptional()) {
+                exceptions.addAll(edge.getExceptions());
+            }
+        });
+        return new ReturnEdge<>(calleeCFG.getExit(), retSite, callSite,
+                retVars, exceptions);
+    }
+
+    @Override
+    public Set<ICFGEdge<Stmt>> getInEdgesOf(Stmt stmt) {
+        JMethod method = getContainingMethodOf(stmt);
+        return method != null ?
+                getEdgesOf(method).inEdges.get(stmt) : Set.of();
+    }
+
+    @Override
+    public Set<ICFGEdge<Stmt>> getOutEdgesOf(Stmt stmt) {
+        JMethod method = getContainingMethodOf(stmt);
+        return method != null ?
+                getEdgesOf(method).outEdges.get(stmt) : Set.of();
+    }
+
+    @Override
+    public Stmt getEntryOf(JMethod method) {
+        return reach(method).getEntry();
+    }
+
+    @Override
+    public Stmt getExitOf(JMethod method) {
+        return reach(method).getExit();
+    }
+
+    @Override
+    public Set<Stmt> getNodesOf(JMethod method) {
+        CFG<Stmt> cfg = reach(method);
+        return cfg != null ? cfg.getNodes() : Set.of();
+    }
+
+    @Override
+    public Set<Stmt> getReturnSitesOf(Stmt stmt) {
+        assert isCallSite(stmt);
+        return ICFGBuilder.getCFGOf(getContainingMethodOf(stmt)).getSuccsOf(stmt);
+    }
+
+    /**
+     * Looks up the node in the reached methods. The call sites know their
+     * containers, and other nodes of the methods which have not been
+     * reached are unknown, i.e., null is returned for them.
+     */
+    @Override
+    public JMethod getContainingMethodOf(Stmt stmt) {
+        JMethod method = stmtToMethod.get(stmt);
+        if (method == null && stmt instanceof Invoke invoke &&
+                callGraph.contains(invoke.getContainer())) {
+            method = invoke.getContainer();
+        }
+        return method;
+    }
+
+    @Override
+    public boolean isCallSite(Stmt stmt) {
+        return stmt instanceof Invoke;
+    }
+
+    @Override
+    public boolean hasNode(Stmt stmt) {
+        return getContainingMethodOf(stmt) != null;
+    }
+
+    @Override
+    public boolean hasEdge(Stmt source, Stmt target) {
+        return getOutEdgesOf(source)
+                .stream()
+                .anyMatch(edge -> edge.getTarget().equals(target));
+    }
+
+    @Override
+    public Set<Stmt> getPredsOf(Stmt stmt) {
+        return Views.toMappedSet(getInEdgesOf(stmt), ICFGEdge::getSource);
+    }
+
+    @Override
+    public Set<Stmt> getSuccsOf(Stmt stmt) {
+        return Views.toMappedSet(getOutEdgesOf(stmt), ICFGEdge::getTarget);
+    }
+
+    @Override
+    public Set<Stmt> getNodes() {
+        reachAll();
+        return Collections.unmodifiableSet(stmtToMethod.keySet());
+    }
+
+    @Override
+    public boolean isLazy() {
+        return true;
+    }
+
+    /**
+     * @return the number of methods reached so far.
+     */
+    int getNumberOfReachedMethods() {
+        return reached.size();
+    }
+
+    /**
+     * @return the number of times the edges of some method are built,
+     * including the rebuilds after they are dropped.
+     */
+    int getNumberOfBuilds() {
+        return builds;
+    }
+
+    /**
+     * In and out edges of the nodes of a method.
+     */
+    private static class MethodEdges {
+
+        private final MultiMap<Stmt, ICFGEdge<Stmt>> inEdges = Maps.newMultiMap();
+
+        private final MultiMap<Stmt, ICFGEdge<Stmt>> outEdges = Maps.newMultiMap();
+    }
+}
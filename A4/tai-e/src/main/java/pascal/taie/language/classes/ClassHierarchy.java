@@ -75,6 +75,12 @@ public interface ClassHierarchy {
      */
     Collection<JClass> getDirectSubclassesOf(JClass jclass);
 
+    /**
+     * @return the index of this hierarchy, which is built on first call
+     * and rebuilt after new classes are added.
+     */
+    HierarchyIndex getIndex();
+
     /**
      * Obtains a JRE class by it name.
      *
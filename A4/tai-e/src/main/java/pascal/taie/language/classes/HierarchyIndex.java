@@ -0,0 +1,351 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.language.classes;
+
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Index of a {@link ClassHierarchy} for fast subtype queries and
+ * method dispatch.
+ * <p>
+ * The (non-interface) classes form a tree by their superclasses, which is
+ * numbered in pre-order, thus the subclasses of a class, including itself,
+ * are the classes numbered in interval [pre, end) of the class, and
+ * testing if a class is a subclass of another takes O(1). The classes
+ * implementing an interface are the union of the intervals of its direct
+ * implementors and the direct implementors of its subinterfaces, which is
+ * computed once per interface as a {@link BitSet} of the numbers.
+ * <p>
+ * Each class has a dispatch table from {@link Subsignature}s, which are
+ * interned, to the non-abstract methods found by looking up the class
+ * and its superclasses. The tables are filled on demand and shared by
+ * the lookups from the subclasses. Dispatching on all subclasses of
+ * a class does not look up each subclass: the targets are the target of
+ * the class and the methods of the subclasses which declare the method,
+ * which are found from the sorted numbers of the declaring classes of
+ * each subsignature.
+ * <p>
+ * The index is immutable except for the caches, which are concurrent maps,
+ * thus it can be queried by multiple threads. It reflects the classes of
+ * the hierarchy when it is created. The numbering and the declaring classes
+ * can be saved to and restored from a {@link HierarchySnapshot}.
+ */
+public class HierarchyIndex {
+
+    private final ClassHierarchy hierarchy;
+
+    /**
+     * Classes in pre-order of the class tree.
+     */
+    private final List<JClass> classes = new ArrayList<>();
+
+    /**
+     * Pre-order numbers of the classes.
+     */
+    private final Map<JClass, Integer> preOrder = Maps.newMap();
+
+    /**
+     * End of the interval of the subclasses of each class,
+     * indexed by the pre-order number of the class.
+     */
+    private final int[] ends;
+
+    /**
+     * Sorted numbers of the classes which declare a non-abstract method
+     * of each subsignature.
+     */
+    private final Map<Subsignature, int[]> declarers = Maps.newMap();
+
+    private final Map<JClass, Implementors> implementors = Maps.newConcurrentMap();
+
+    private final Map<JClass, Map<Subsignature, Optional<JMethod>>> dispatchTables =
+            Maps.newConcurrentMap();
+
+    public HierarchyIndex(ClassHierarchy hierarchy) {
+        this.hierarchy = hierarchy;
+        Set<JClass> roots = Sets.newSet();
+        hierarchy.allClasses().forEach(c -> {
+            if (!c.isInterface()) {
+                while (c.getSuperClass() != null) {
+                    c = c.getSuperClass();
+                }
+                roots.add(c);
+            }
+        });
+        List<Integer> endList = new ArrayList<>();
+        // iterative DFS, each class is pushed before its subclasses
+        // and popped after them to record the end of its interval
+        Deque<Iterator<JClass>> stack = new ArrayDeque<>();
+        Deque<JClass> path = new ArrayDeque<>();
+        for (JClass root : roots) {
+            visit(root, endList, stack, path);
+            while (!stack.isEmpty()) {
+                Iterator<JClass> subclasses = stack.peek();
+                if (subclasses.hasNext()) {
+                    visit(subclasses.next(), endList, stack, path);
+                } else {
+                    stack.pop();
+                    endList.set(preOrder.get(path.pop()), classes.size());
+                }
+            }
+        }
+        ends = endList.stream().mapToInt(Integer::intValue).toArray();
+        Map<Subsignature, List<Integer>> declarerLists = Maps.newMap();
+        for (int i = 0; i < classes.size(); ++i) {
+            for (JMethod method : classes.get(i).getDeclaredMethods()) {
+                if (!method.isAbstract()) {
+                    declarerLists.computeIfAbsent(method.getSubsignature(),
+                            unused -> new ArrayList<>()).add(i);
+                }
+            }
+        }
+        declarerLists.forEach((subsig, list) -> declarers.put(subsig,
+                list.stream().mapToInt(Integer::intValue).toArray()));
+    }
+
+    /**
+     * Creates the index of given hierarchy from the numbering restored
+     * from a {@link HierarchySnapshot}.
+     */
+    HierarchyIndex(ClassHierarchy hierarchy, List<JClass> classes,
+                   int[] ends, Map<Subsignature, int[]> declarers) {
+        this.hierarchy = hierarchy;
+        this.classes.addAll(classes);
+        for (int i = 0; i < classes.size(); ++i) {
+            preOrder.put(classes.get(i), i);
+        }
+        this.ends = ends;
+        this.declarers.putAll(declarers);
+    }
+
+    private void visit(JClass jclass, List<Integer> endList,
+                       Deque<Iterator<JClass>> stack, Deque<JClass> path) {
+        if (preOrder.putIfAbsent(jclass, classes.size()) == null) {
+            classes.add(jclass);
+            endList.add(-1);
+            path.push(jclass);
+            stack.push(hierarchy.getDirectSubclassesOf(jclass).iterator());
+        }
+    }
+
+    List<JClass> getClasses() {
+        return Collections.unmodifiableList(classes);
+    }
+
+    int[] getEnds() {
+        return ends;
+    }
+
+    Map<Subsignature, int[]> getDeclarers() {
+        return Collections.unmodifiableMap(declarers);
+    }
+
+    /**
+     * @return the number of classes in the class tree.
+     */
+    public int getNumberOfClasses() {
+        return classes.size();
+    }
+
+    /**
+     * @return true if {@code sub} is {@code sup} or a subtype of
+     * {@code sup}, otherwise false.
+     */
+    public boolean isSubtype(JClass sup, JClass sub) {
+        if (sup == sub) {
+            return true;
+        }
+        if (sub.isInterface()) {
+            return sup.isInterface() ?
+                    isSubinterface(sup, sub) : sup.getSuperClass() == null;
+        }
+        Integer subPre = preOrder.get(sub);
+        if (subPre == null) {
+            return false;
+        }
+        if (sup.isInterface()) {
+            return getImplementors(sup).bits.get(subPre);
+        }
+        Integer supPre = preOrder.get(sup);
+        return supPre != null && supPre <= subPre && subPre < ends[supPre];
+    }
+
+    private static boolean isSubinterface(JClass sup, JClass sub) {
+        for (JClass iface : sub.getInterfaces()) {
+            if (iface == sup || isSubinterface(sup, iface)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the subclasses of given class, including itself.
+     */
+    public List<JClass> getSubclassesOf(JClass jclass) {
+        Integer pre = preOrder.get(jclass);
+        return pre == null ? List.of(jclass) :
+                Collections.unmodifiableList(classes.subList(pre, ends[pre]));
+    }
+
+    /**
+     * @return the classes implementing given interface, i.e., the subclasses
+     * of the direct implementors of the interface and its subinterfaces.
+     */
+    public List<JClass> getImplementorsOf(JClass iface) {
+        return getImplementors(iface).classes;
+    }
+
+    private Implementors getImplementors(JClass iface) {
+        Implementors result = implementors.get(iface);
+        if (result == null) {
+            BitSet bits = new BitSet(classes.size());
+            Set<JClass> visited = Sets.newSet();
+            Deque<JClass> queue = new ArrayDeque<>();
+            queue.add(iface);
+            while (!queue.isEmpty()) {
+                JClass i = queue.poll();
+                if (visited.add(i)) {
+                    for (JClass implementor : hierarchy.getDirectImplementorsOf(i)) {
+                        Integer pre = preOrder.get(implementor);
+                        if (pre != null) {
+                            bits.set(pre, ends[pre]);
+                        }
+                    }
+                    queue.addAll(hierarchy.getDirectSubinterfacesOf(i));
+                }
+            }
+            List<JClass> list = new ArrayList<>(bits.cardinality());
+            List<Integer> roots = new ArrayList<>();
+            for (int k = bits.nextSetBit(0); k >= 0; k = bits.nextSetBit(k + 1)) {
+                JClass c = classes.get(k);
+                list.add(c);
+                JClass superClass = c.getSuperClass();
+                if (superClass == null || !bits.get(preOrder.get(superClass))) {
+                    roots.add(k);
+                }
+            }
+            result = new Implementors(bits, Collections.unmodifiableList(list),
+                    roots.stream().mapToInt(Integer::intValue).toArray());
+            implementors.putIfAbsent(iface, result);
+        }
+        return result;
+    }
+
+    /**
+     * Classes implementing an interface.
+     *
+     * @param bits    numbers of the classes
+     * @param classes the classes in pre-order
+     * @param roots   numbers of the classes whose superclasses
+     *                do not implement the interface
+     */
+    private record Implementors(BitSet bits, List<JClass> classes, int[] roots) {
+    }
+
+    /**
+     * @return the non-abstract methods dispatched from the subclasses of
+     * given class, including itself, on given subsignature.
+     */
+    public Set<JMethod> dispatchSubclasses(JClass jclass, Subsignature subsignature) {
+        Set<JMethod> result = Sets.newHybridSet();
+        JMethod target = dispatch(jclass, subsignature);
+        if (target != null) {
+            result.add(target);
+        }
+        Integer pre = preOrder.get(jclass);
+        int[] numbers = declarers.get(subsignature);
+        if (pre != null && numbers != null) {
+            int i = Arrays.binarySearch(numbers, pre);
+            for (i = i < 0 ? -i - 1 : i; i < numbers.length && numbers[i] < ends[pre]; ++i) {
+                result.add(classes.get(numbers[i]).getDeclaredMethod(subsignature));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the non-abstract methods dispatched from the classes
+     * implementing given interface on given subsignature.
+     */
+    public Set<JMethod> dispatchImplementors(JClass iface, Subsignature subsignature) {
+        Set<JMethod> result = Sets.newHybridSet();
+        Implementors impls = getImplementors(iface);
+        for (int root : impls.roots) {
+            JMethod target = dispatch(classes.get(root), subsignature);
+            if (target != null) {
+                result.add(target);
+            }
+        }
+        int[] numbers = declarers.get(subsignature);
+        if (numbers != null) {
+            for (int k : numbers) {
+                if (impls.bits.get(k)) {
+                    result.add(classes.get(k).getDeclaredMethod(subsignature));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Looks up the non-abstract method of given subsignature in given class
+     * and its superclasses.
+     *
+     * @return the dispatched target method, or null if no satisfying method
+     * can be found.
+     */
+    public @Nullable JMethod dispatch(JClass jclass, Subsignature subsignature) {
+        Map<Subsignature, Optional<JMethod>> table = dispatchTables.get(jclass);
+        if (table == null) {
+            dispatchTables.putIfAbsent(jclass, Maps.newConcurrentMap());
+            table = dispatchTables.get(jclass);
+        }
+        Optional<JMethod> target = table.get(subsignature);
+        if (target == null) {
+            JMethod method = jclass.getDeclaredMethod(subsignature);
+            if (method == null || method.isAbstract()) {
+                JClass superClass = jclass.getSuperClass();
+                method = superClass == null ? null :
+                        dispatch(superClass, subsignature);
+            }
+            target = Optional.ofNullable(method);
+            table.put(subsignature, target);
+        }
+        return target.orElse(null);
+    }
+}
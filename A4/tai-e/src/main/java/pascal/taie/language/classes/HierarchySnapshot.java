@@ -0,0 +1,264 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.language.classes;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.World;
+import pascal.taie.config.Options;
+import pascal.taie.util.collection.Maps;
+
+import javax.annotation.Nullable;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Binary snapshot of a {@link HierarchyIndex}, i.e., the pre-order numbering
+ * of the class tree and the classes declaring each subsignature, which is
+ * memory-mapped on loading. The file consists of
+ * <pre>
+ * magic, version, hash of class path (32 bytes)
+ * number of classes, (name, end of interval) of each class in pre-order
+ * number of subsignatures, (subsignature, number of declarers,
+ *                           numbers of the declarers) of each subsignature
+ * </pre>
+ * where integers are 4-byte big-endian and strings are UTF-8 bytes
+ * prefixed by their lengths.
+ * <p>
+ * A snapshot is only used if it is taken from the same class path,
+ * which is identified by the paths, sizes and modification times of
+ * the files in it, and if all its classes are in the hierarchy;
+ * otherwise, the index is built and the snapshot is rewritten.
+ * Loading a snapshot avoids traversing the class tree and scanning
+ * the methods of all classes, but not loading the classes, which is
+ * done by the world builder.
+ */
+final class HierarchySnapshot {
+
+    private static final Logger logger = LogManager.getLogger(HierarchySnapshot.class);
+
+    /**
+     * System property which specifies the snapshot file.
+     * If it is not given, no snapshot is used.
+     */
+    static final String FILE_PROPERTY = "taie.hierarchy.snapshot";
+
+    private static final int MAGIC = 0x54414948; // "TAIH"
+
+    private static final int VERSION = 1;
+
+    private static final int HASH_LENGTH = 32;
+
+    private HierarchySnapshot() {
+    }
+
+    /**
+     * Loads the index of given hierarchy from given snapshot file,
+     * or builds the index and saves it to the file if the snapshot
+     * is missing or stale.
+     */
+    static HierarchyIndex loadOrBuild(ClassHierarchy hierarchy, Path file) {
+        byte[] hash = hashClassPath();
+        if (hash == null) {
+            return new HierarchyIndex(hierarchy);
+        }
+        HierarchyIndex index = null;
+        if (Files.exists(file)) {
+            try {
+                index = load(hierarchy, file, hash);
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Failed to load hierarchy snapshot {}: {}", file, e);
+            }
+        }
+        if (index != null) {
+            logger.info("Loaded hierarchy snapshot {}", file);
+        } else {
+            index = new HierarchyIndex(hierarchy);
+            try {
+                save(index, file, hash);
+                logger.info("Saved hierarchy snapshot {}", file);
+            } catch (IOException e) {
+                logger.warn("Failed to save hierarchy snapshot {}: {}", file, e);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * @return the index restored from given file, or null if the file
+     * is not a snapshot of given hierarchy with given hash.
+     */
+    static @Nullable HierarchyIndex load(
+            ClassHierarchy hierarchy, Path file, byte[] hash) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            return null;
+        }
+        byte[] snapshotHash = new byte[HASH_LENGTH];
+        buffer.get(snapshotHash);
+        if (!Arrays.equals(hash, snapshotHash)) {
+            return null;
+        }
+        int nClasses = buffer.getInt();
+        if (nClasses != hierarchy.allClasses().filter(c -> !c.isInterface()).count()) {
+            return null;
+        }
+        List<JClass> classes = new ArrayList<>(nClasses);
+        int[] ends = new int[nClasses];
+        for (int i = 0; i < nClasses; ++i) {
+            JClass jclass = hierarchy.getClass(getString(buffer));
+            if (jclass == null) {
+                return null;
+            }
+            classes.add(jclass);
+            ends[i] = buffer.getInt();
+        }
+        int nSubsigs = buffer.getInt();
+        Map<Subsignature, int[]> declarers = Maps.newMap(nSubsigs);
+        for (int i = 0; i < nSubsigs; ++i) {
+            Subsignature subsig = Subsignature.get(getString(buffer));
+            int[] numbers = new int[buffer.getInt()];
+            buffer.asIntBuffer().get(numbers);
+            buffer.position(buffer.position() + numbers.length * Integer.BYTES);
+            declarers.put(subsig, numbers);
+        }
+        return new HierarchyIndex(hierarchy, classes, ends, declarers);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Saves given index to given file with given hash of class path.
+     * The file is replaced atomically if the file system supports it.
+     */
+    static void save(HierarchyIndex index, Path file, byte[] hash) throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path temp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.write(hash);
+            List<JClass> classes = index.getClasses();
+            int[] ends = index.getEnds();
+            out.writeInt(classes.size());
+            for (int i = 0; i < classes.size(); ++i) {
+                putString(out, classes.get(i).getName());
+                out.writeInt(ends[i]);
+            }
+            Map<Subsignature, int[]> declarers = index.getDeclarers();
+            out.writeInt(declarers.size());
+            for (var entry : declarers.entrySet()) {
+                putString(out, entry.getKey().toString());
+                out.writeInt(entry.getValue().length);
+                for (int number : entry.getValue()) {
+                    out.writeInt(number);
+                }
+            }
+        }
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void putString(DataOutputStream out, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * @return SHA-256 of the class path of current world, or null if
+     * the class path is unavailable. The class path is the same as
+     * the one given to the world builder, i.e., the JRE jars when
+     * prepending JVM, followed by the class path option.
+     */
+    static @Nullable byte[] hashClassPath() {
+        World world = World.get();
+        Options options = world == null ? null : world.getOptions();
+        if (options == null) {
+            return null;
+        }
+        List<Path> entries = new ArrayList<>();
+        if (options.isPrependJVM()) {
+            entries.add(Path.of("java-benchmarks/JREs",
+                    "jre1." + options.getJavaVersion()));
+        }
+        if (options.getClassPath() != null) {
+            for (String entry : options.getClassPath().split(File.pathSeparator)) {
+                if (!entry.isEmpty()) {
+                    entries.add(Path.of(entry));
+                }
+            }
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(Integer.toString(options.getJavaVersion())
+                    .getBytes(StandardCharsets.UTF_8));
+            for (Path entry : entries) {
+                if (!Files.exists(entry)) {
+                    continue;
+                }
+                try (Stream<Path> files = Files.walk(entry)) {
+                    for (Path path : files.filter(Files::isRegularFile).sorted().toList()) {
+                        String stamp = path.toAbsolutePath() + ":" + Files.size(path) +
+                                ":" + Files.getLastModifiedTime(path).toMillis() + "\n";
+                        digest.update(stamp.getBytes(StandardCharsets.UTF_8));
+                    }
+                }
+            }
+            return digest.digest();
+        } catch (NoSuchAlgorithmException | IOException e) {
+            logger.warn("Failed to hash class path: {}", e.toString());
+            return null;
+        }
+    }
+}
@@ -25,11 +25,18 @@ package pascal.taie.analysis.dataflow.analysis.constprop;
 import org.junit.Test;
 import pascal.taie.analysis.Tests;
 import pascal.taie.analysis.dataflow.inter.InterConstantPropagation;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.config.ConfigException;
 
 public class InterCPTest {
 
     private static final String CLASS_PATH = "src/test/resources/dataflow/constprop/inter";
 
+    /**
+     * Test cases whose results in summary mode are more precise.
+     */
+    private static final String SUMMARY_CLASS_PATH = "src/test/resources/dataflow/constprop/inter-summary";
+
     void test(String inputClass) {
         Tests.test(inputClass, CLASS_PATH, InterConstantPropagation.ID,
                 "edge-refine:false;alias-aware:false", "-a", "cg=algorithm:cha"
@@ -38,6 +45,28 @@ public class InterCPTest {
         );
     }
 
+    /**
+     * Runs on the ICFG whose edges are built on demand, which gives
+     * the same results as the whole ICFG.
+     */
+    void testLazyEdges(String inputClass) {
+        Tests.test(inputClass, CLASS_PATH, InterConstantPropagation.ID,
+                "edge-refine:false;alias-aware:false", "-a", "cg=algorithm:cha",
+                "-a", "icfg=lazy-edges:true");
+    }
+
+    void testSummary(String inputClass, String classPath) {
+        Tests.test(inputClass, classPath, InterConstantPropagation.ID,
+                "edge-refine:false;alias-aware:false;summary:true",
+                "-a", "cg=algorithm:cha");
+    }
+
+    void testIDE(String inputClass) {
+        Tests.test(inputClass, CLASS_PATH, InterConstantPropagation.ID,
+                "edge-refine:false;alias-aware:false;ide:true",
+                "-a", "cg=algorithm:cha");
+    }
+
     @Test
     public void testExample() {
         test("Example");
@@ -57,4 +86,60 @@ public class InterCPTest {
     public void testMultiIntArgs() {
         test("MultiIntArgs");
     }
+
+    @Test
+    public void testExampleLazyEdges() {
+        testLazyEdges("Example");
+    }
+
+    @Test
+    public void testReferenceLazyEdges() {
+        testLazyEdges("Reference");
+    }
+
+    @Test
+    public void testFibonacciLazyEdges() {
+        testLazyEdges("Fibonacci");
+    }
+
+    @Test
+    public void testMultiIntArgsLazyEdges() {
+        testLazyEdges("MultiIntArgs");
+    }
+
+    @Test
+    public void testExampleSummary() {
+        testSummary("Example", CLASS_PATH);
+    }
+
+    @Test
+    public void testReferenceSummary() {
+        testSummary("Reference", CLASS_PATH);
+    }
+
+    @Test
+    public void testFibonacciSummary() {
+        testSummary("Fibonacci", CLASS_PATH);
+    }
+
+    @Test
+    public void testMultiIntArgsSummary() {
+        testSummary("MultiIntArgs", SUMMARY_CLASS_PATH);
+    }
+
+    @Test
+    public void testExampleIDE() {
+        testIDE("Example");
+    }
+
+    @Test
+    public void testMultiIntArgsIDE() {
+        testIDE("MultiIntArgs");
+    }
+
+    @Test(expected = ConfigException.class)
+    public void testSummaryAndIDE() {
+        new InterConstantPropagation(new AnalysisConfig(InterConstantPropagation.ID,
+                "summary", true, "ide", true));
+    }
 }
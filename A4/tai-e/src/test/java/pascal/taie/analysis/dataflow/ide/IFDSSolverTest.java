@@ -0,0 +1,157 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.ide;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.analysis.graph.icfg.ICFG;
+import pascal.taie.analysis.graph.icfg.ICFGEdge;
+import pascal.taie.analysis.graph.icfg.SyntheticICFG;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Checks that {@link IFDSSolver} only propagates facts along valid paths,
+ * and only explores the reachable methods.
+ */
+public class IFDSSolverTest {
+
+    private static final int METHODS = 50;
+
+    private static final int SIZE = 20;
+
+    private static final int CALLS = 4;
+
+    /**
+     * The zero fact, which is not a method.
+     */
+    private static final String ZERO = "0";
+
+    @Test
+    public void testValidPaths() {
+        int preciser = 0;
+        for (long seed = 0; seed < 10; ++seed) {
+            SyntheticICFG icfg = new SyntheticICFG(METHODS, SIZE, CALLS, seed);
+            MultiMap<Integer, String> result = new IFDSSolver<>(
+                    new MethodTokenProblem(icfg), icfg).solve();
+            MultiMap<Integer, String> expected = solveOnAllPaths(
+                    new MethodTokenProblem(icfg), icfg);
+            for (Integer node : icfg) {
+                Set<String> facts = result.get(node);
+                Set<String> expectedFacts = expected.get(node);
+                Assert.assertTrue(expectedFacts.containsAll(facts));
+                preciser += expectedFacts.size() - facts.size();
+            }
+        }
+        // the tokens of the callees do not return to other call sites
+        Assert.assertTrue(preciser > 0);
+    }
+
+    @Test
+    public void testOnDemand() {
+        SyntheticICFG icfg = new SyntheticICFG(METHODS, SIZE, CALLS, 0);
+        MultiMap<Integer, String> expected = new IFDSSolver<>(
+                new MethodTokenProblem(icfg), icfg).solve();
+        SyntheticICFG lazyICFG = new SyntheticICFG(METHODS, SIZE, CALLS, 0, true);
+        MultiMap<Integer, String> result = new IFDSSolver<>(
+                new MethodTokenProblem(lazyICFG), lazyICFG).solve();
+        Assert.assertEquals(0, lazyICFG.getNumberOfNodeQueries());
+        for (Integer node : icfg) {
+            Assert.assertEquals(expected.get(node), result.get(node));
+            if (!result.get(node).isEmpty()) {
+                Assert.assertTrue(lazyICFG.getQueriedMethods()
+                        .contains(icfg.getContainingMethodOf(node)));
+            }
+        }
+    }
+
+    /**
+     * IFDS version of the analysis which collects the methods whose
+     * entries may be passed through before reaching each node, except
+     * the callees of call sites which have returned.
+     */
+    private static class MethodTokenProblem implements IFDSProblem<Integer, String> {
+
+        private final ICFG<String, Integer> icfg;
+
+        private MethodTokenProblem(ICFG<String, Integer> icfg) {
+            this.icfg = icfg;
+        }
+
+        @Override
+        public String zeroFact() {
+            return ZERO;
+        }
+
+        @Override
+        public Set<String> getFlowFunction(ICFGEdge<Integer> edge, String source) {
+            Integer node = edge.getSource();
+            String method = icfg.getContainingMethodOf(node);
+            if (edge instanceof SyntheticICFG.LocalEdge localEdge) {
+                if (localEdge.isCallToReturn() &&
+                        icfg.getCalleesOf(node).contains(source)) {
+                    return Set.of();
+                }
+                if (source.equals(ZERO) && node.equals(icfg.getEntryOf(method))) {
+                    return Set.of(ZERO, method);
+                }
+            }
+            return Set.of(source);
+        }
+    }
+
+    /**
+     * Solves given problem on all paths of the ICFG, including
+     * the invalid ones where a callee returns to another call site.
+     *
+     * @return the facts which may hold before each node.
+     */
+    private static MultiMap<Integer, String> solveOnAllPaths(
+            IFDSProblem<Integer, String> problem, ICFG<String, Integer> icfg) {
+        MultiMap<Integer, String> facts = Maps.newMultiMap();
+        Queue<Integer> workList = new ArrayDeque<>();
+        icfg.entryMethods().forEach(method -> {
+            Integer entry = icfg.getEntryOf(method);
+            facts.put(entry, ZERO);
+            workList.add(entry);
+        });
+        while (!workList.isEmpty()) {
+            Integer node = workList.poll();
+            for (ICFGEdge<Integer> edge : icfg.getOutEdgesOf(node)) {
+                for (String fact : Set.copyOf(facts.get(node))) {
+                    for (String target : problem.getFlowFunction(edge, fact)) {
+                        if (facts.put(edge.getTarget(), target)) {
+                            workList.add(edge.getTarget());
+                        }
+                    }
+                }
+            }
+        }
+        facts.keySet().forEach(node -> facts.remove(node, ZERO));
+        return facts;
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.World;
+import pascal.taie.analysis.dataflow.analysis.constprop.CPFact;
+import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.graph.callgraph.CallGraphBuilder;
+import pascal.taie.analysis.graph.callgraph.CallKind;
+import pascal.taie.analysis.graph.callgraph.DefaultCallGraph;
+import pascal.taie.analysis.graph.callgraph.Edge;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.analysis.graph.icfg.ICFG;
+import pascal.taie.analysis.graph.icfg.ICFGBuilder;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.DefaultIR;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.IRBuilder;
+import pascal.taie.ir.exp.ArithmeticExp;
+import pascal.taie.ir.exp.ConditionExp;
+import pascal.taie.ir.exp.IntLiteral;
+import pascal.taie.ir.exp.InvokeStatic;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.proginfo.MethodRef;
+import pascal.taie.ir.stmt.AssignLiteral;
+import pascal.taie.ir.stmt.Binary;
+import pascal.taie.ir.stmt.If;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.Nop;
+import pascal.taie.ir.stmt.Return;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.annotation.AnnotationHolder;
+import pascal.taie.language.classes.ClassHierarchy;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.classes.Modifier;
+import pascal.taie.language.type.PrimitiveType;
+import pascal.taie.language.type.Type;
+import pascal.taie.language.type.VoidType;
+import pascal.taie.util.collection.Maps;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Checks that {@link SummaryCPSolver} analyzes a recursive method
+ * in one context, on the IR of
+ * <pre>
+ * static void main() { int z = fib(5); }
+ * static int fib(int n) {
+ *     if (n == 0 || n == 1) return n;
+ *     return fib(n - 1) + fib(n - 2);
+ * }
+ * </pre>
+ */
+public class SummaryCPSolverTest {
+
+    private final JClass klass = new JClass(null, "T");
+
+    private final Map<JMethod, IR> irs = Maps.newMap();
+
+    private final DefaultCallGraph callGraph = new DefaultCallGraph();
+
+    private final List<Edge<Invoke, JMethod>> callEdges = new ArrayList<>();
+
+    @Test
+    public void testRecursion() {
+        World world = new World();
+        World.set(world);
+        world.setIRBuilder(new IRBuilder() {
+            @Override
+            public IR buildIR(JMethod method) {
+                return irs.get(method);
+            }
+
+            @Override
+            public void buildAll(ClassHierarchy hierarchy) {
+            }
+        });
+        JMethod main = newMethod("main", List.of(), VoidType.VOID);
+        JMethod fib = newMethod("fib", List.of(PrimitiveType.INT), PrimitiveType.INT);
+        buildMain(main, fib);
+        buildFib(fib);
+        callGraph.addEntryMethod(main);
+        callEdges.forEach(callGraph::addEdge);
+        world.storeResult(CallGraphBuilder.ID, callGraph);
+        ICFG<JMethod, Stmt> icfg = new ICFGBuilder(
+                new AnalysisConfig(ICFGBuilder.ID, "dump", false)).analyze();
+        world.storeResult(ICFGBuilder.ID, icfg);
+
+        InterConstantPropagation analysis = new InterConstantPropagation(
+                new AnalysisConfig(InterConstantPropagation.ID,
+                        "edge-refine", false, "alias-aware", false));
+        @SuppressWarnings("unchecked")
+        DataflowResult<Stmt, CPFact> expected =
+                (DataflowResult<Stmt, CPFact>) analysis.analyze();
+        SummaryCPSolver solver = new SummaryCPSolver(
+                new ConstantPropagation(new AnalysisConfig(ConstantPropagation.ID)),
+                icfg, callGraph);
+        DataflowResult<Stmt, CPFact> result = solver.solve();
+        for (IR ir : irs.values()) {
+            for (Stmt stmt : ir) {
+                Assert.assertEquals(expected.getOutFact(stmt), result.getOutFact(stmt));
+            }
+        }
+        // fib is only analyzed with NAC, though main calls it with 5
+        Assert.assertEquals(1, solver.getMisses());
+        Assert.assertTrue(solver.getNumberOfVisits() <
+                analysis.solver.getNumberOfVisits());
+    }
+
+    private JMethod newMethod(String name, List<Type> paramTypes, Type returnType) {
+        return new JMethod(klass, name, Set.of(Modifier.STATIC), paramTypes,
+                returnType, List.of(), AnnotationHolder.emptyHolder(), null, null);
+    }
+
+    private void buildMain(JMethod main, JMethod fib) {
+        Var n = new Var(main, "n", PrimitiveType.INT, 0);
+        Var z = new Var(main, "z", PrimitiveType.INT, 1);
+        List<Stmt> stmts = List.of(
+                new AssignLiteral(n, IntLiteral.get(5)),
+                newInvoke(main, fib, z, n),
+                new Return());
+        build(main, List.of(), List.of(n, z), stmts);
+    }
+
+    private void buildFib(JMethod fib) {
+        List<Var> vars = new ArrayList<>();
+        for (String name : List.of("n", "c0", "c1", "c2", "t0", "t1", "t2", "t3", "t4")) {
+            vars.add(new Var(fib, name, PrimitiveType.INT, vars.size()));
+        }
+        Var n = vars.get(0), c0 = vars.get(1), c1 = vars.get(2), c2 = vars.get(3);
+        Var t0 = vars.get(4), t1 = vars.get(5), t2 = vars.get(6);
+        Var t3 = vars.get(7), t4 = vars.get(8);
+        If if0 = new If(new ConditionExp(ConditionExp.Op.EQ, n, c0));
+        If if1 = new If(new ConditionExp(ConditionExp.Op.EQ, n, c1));
+        Nop base = new Nop();
+        if0.setTarget(base);
+        if1.setTarget(base);
+        List<Stmt> stmts = List.of(
+                new AssignLiteral(c0, IntLiteral.get(0)),
+                if0,
+                new AssignLiteral(c1, IntLiteral.get(1)),
+                if1,
+                new Binary(t0, new ArithmeticExp(ArithmeticExp.Op.SUB, n, c1)),
+                newInvoke(fib, fib, t1, t0),
+                new AssignLiteral(c2, IntLiteral.get(2)),
+                new Binary(t2, new ArithmeticExp(ArithmeticExp.Op.SUB, n, c2)),
+                newInvoke(fib, fib, t3, t2),
+                new Binary(t4, new ArithmeticExp(ArithmeticExp.Op.ADD, t1, t3)),
+                new Return(t4),
+                base,
+                new Return(n));
+        build(fib, List.of(n), vars, stmts);
+    }
+
+    private Invoke newInvoke(JMethod caller, JMethod callee, Var result, Var arg) {
+        MethodRef ref = MethodRef.get(klass, callee.getName(),
+                callee.getParamTypes(), callee.getReturnType(), true);
+        Invoke invoke = new Invoke(caller, new InvokeStatic(ref, List.of(arg)), result);
+        callEdges.add(new Edge<>(CallKind.STATIC, invoke, callee));
+        return invoke;
+    }
+
+    private void build(JMethod method, List<Var> params, List<Var> vars, List<Stmt> stmts) {
+        for (int i = 0; i < stmts.size(); ++i) {
+            stmts.get(i).setIndex(i);
+        }
+        Set<Var> returnVars = Set.copyOf(stmts.stream()
+                .filter(s -> s instanceof Return r && r.getValue() != null)
+                .map(s -> ((Return) s).getValue())
+                .toList());
+        IR ir = new DefaultIR(method, null, params, returnVars, vars, stmts, List.of());
+        irs.put(method, ir);
+        ir.storeResult(CFGBuilder.ID, new CFGBuilder(new AnalysisConfig(
+                CFGBuilder.ID, "exception", "none", "dump", false)).analyze(ir));
+        callGraph.addReachableMethod(method);
+    }
+}
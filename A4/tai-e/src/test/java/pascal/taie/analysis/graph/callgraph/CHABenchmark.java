@@ -0,0 +1,66 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.graph.callgraph;
+
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.language.classes.ClassHierarchy;
+import pascal.taie.language.classes.HierarchyIndex;
+import pascal.taie.language.classes.JMethod;
+
+/**
+ * Measures the time of building the call graph by {@link CHABuilder}
+ * with the JDK library, separating the first build, which also builds
+ * the IR of the reachable methods, from the later builds, which are
+ * dominated by resolving call sites. This is not a unit test; run it with
+ * <pre>java pascal.taie.analysis.graph.callgraph.CHABenchmark [rounds]</pre>
+ */
+public class CHABenchmark {
+
+    private static final String CLASS_PATH = "src/test/resources/cha";
+
+    private static final String MAIN = "VirtualCall";
+
+    public static void main(String[] args) {
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        Main.buildWorld("-pp", "-cp", CLASS_PATH, "-m", MAIN);
+        ClassHierarchy hierarchy = World.get().getClassHierarchy();
+        long start = System.nanoTime();
+        HierarchyIndex index = new HierarchyIndex(hierarchy);
+        System.out.printf("index of %d classes: %.3fs%n",
+                index.getNumberOfClasses(), (System.nanoTime() - start) / 1e9);
+        start = System.nanoTime();
+        CallGraph<Invoke, JMethod> callGraph = new CHABuilder().build();
+        System.out.printf("first build (with IR): %.3fs, %d reachable methods%n",
+                (System.nanoTime() - start) / 1e9,
+                callGraph.getNumberOfMethods());
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < rounds; ++i) {
+            start = System.nanoTime();
+            new CHABuilder().build();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        System.out.printf("later builds (resolution): %.3fs%n", best / 1e9);
+    }
+}
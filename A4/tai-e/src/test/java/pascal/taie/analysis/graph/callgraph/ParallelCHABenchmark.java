@@ -0,0 +1,85 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.graph.callgraph;
+
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.language.classes.JMethod;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Measures how {@link ParallelCHABuilder} scales with the number of
+ * threads when building the call graph with the JDK library, and checks
+ * that its edges are the same as those of {@link CHABuilder}. The first
+ * sequential build, which also builds the IR of the reachable methods,
+ * is not timed. This is not a unit test; run it with
+ * <pre>java pascal.taie.analysis.graph.callgraph.ParallelCHABenchmark [threads...]</pre>
+ */
+public class ParallelCHABenchmark {
+
+    private static final String CLASS_PATH = "src/test/resources/cha";
+
+    private static final String MAIN = "VirtualCall";
+
+    private static final int ROUNDS = 3;
+
+    public static void main(String[] args) {
+        int[] threads = args.length > 0 ?
+                Arrays.stream(args).mapToInt(Integer::parseInt).toArray() :
+                new int[]{ 1, 2, 4, 8, 16 };
+        Main.buildWorld("-pp", "-cp", CLASS_PATH, "-m", MAIN);
+        JMethod entry = World.get().getMainMethod();
+        Set<String> expected = toStrings(new CHABuilder().build());
+        System.out.printf("%d edges%n", expected.size());
+        double baseline = 0;
+        for (int n : threads) {
+            long best = Long.MAX_VALUE;
+            for (int i = 0; i < ROUNDS; ++i) {
+                CHABuilder builder = n > 1 ? new ParallelCHABuilder(n) : new CHABuilder();
+                long start = System.nanoTime();
+                CallGraph<Invoke, JMethod> callGraph = builder.build();
+                best = Math.min(best, System.nanoTime() - start);
+                if (!toStrings(callGraph).equals(expected)) {
+                    throw new AssertionError("Different call graph with "
+                            + n + " threads from " + entry);
+                }
+            }
+            double seconds = best / 1e9;
+            if (baseline == 0) {
+                baseline = seconds;
+            }
+            System.out.printf("%2d threads: %.3fs (speedup %.2fx)%n",
+                    n, seconds, baseline / seconds);
+        }
+    }
+
+    private static Set<String> toStrings(CallGraph<Invoke, JMethod> callGraph) {
+        return callGraph.edges()
+                .map(edge -> edge.getCallSite().getContainer() + "/" +
+                        edge.getCallSite().getIndex() + " -> " + edge.getCallee())
+                .collect(Collectors.toSet());
+    }
+}
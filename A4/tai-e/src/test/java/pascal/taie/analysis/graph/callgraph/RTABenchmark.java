@@ -0,0 +1,63 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.graph.callgraph;
+
+import pascal.taie.Main;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.language.classes.JMethod;
+
+import java.util.function.Supplier;
+
+/**
+ * Compares the call graphs built by {@link CHABuilder} and
+ * {@link RTABuilder} with the JDK library, in the numbers of reachable
+ * methods and edges and in the build time. Each builder is run once
+ * before being timed, so that the IR of its reachable methods is built.
+ * This is not a unit test; run it with
+ * <pre>java pascal.taie.analysis.graph.callgraph.RTABenchmark [class-path main]</pre>
+ */
+public class RTABenchmark {
+
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        String classPath = args.length > 1 ? args[0] : "src/test/resources/rta";
+        String main = args.length > 1 ? args[1] : "Incremental";
+        Main.buildWorld("-pp", "-cp", classPath, "-m", main);
+        measure("cha", CHABuilder::new);
+        measure("rta", RTABuilder::new);
+    }
+
+    private static void measure(String algorithm,
+                                Supplier<CGBuilder<Invoke, JMethod>> builder) {
+        CallGraph<Invoke, JMethod> callGraph = builder.get().build();
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < ROUNDS; ++i) {
+            long start = System.nanoTime();
+            builder.get().build();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        System.out.printf("%s: %d reachable methods, %d edges, %.3fs%n",
+                algorithm, callGraph.getNumberOfMethods(),
+                callGraph.getNumberOfEdges(), best / 1e9);
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.graph.icfg;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.World;
+import pascal.taie.analysis.dataflow.analysis.constprop.CPFact;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.inter.InterConstantPropagation;
+import pascal.taie.analysis.graph.callgraph.CallGraphBuilder;
+import pascal.taie.analysis.graph.callgraph.CallKind;
+import pascal.taie.analysis.graph.callgraph.DefaultCallGraph;
+import pascal.taie.analysis.graph.callgraph.Edge;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.DefaultIR;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.IRBuilder;
+import pascal.taie.ir.exp.ArithmeticExp;
+import pascal.taie.ir.exp.IntLiteral;
+import pascal.taie.ir.exp.InvokeStatic;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.proginfo.MethodRef;
+import pascal.taie.ir.stmt.AssignLiteral;
+import pascal.taie.ir.stmt.Binary;
+import pascal.taie.ir.stmt.Goto;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.Nop;
+import pascal.taie.ir.stmt.Return;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.annotation.AnnotationHolder;
+import pascal.taie.language.classes.ClassHierarchy;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.classes.Modifier;
+import pascal.taie.language.type.PrimitiveType;
+import pascal.taie.language.type.Type;
+import pascal.taie.language.type.VoidType;
+import pascal.taie.util.collection.Maps;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Checks that {@link LazyICFG} gives the same results of inter-procedural
+ * constant propagation as the whole ICFG, on the IR of
+ * <pre>
+ * static void main() { int n = 5; int z = loop(n); int w = 3; }
+ * static int loop(int p) {
+ *     while (true) { p = p + 1; }
+ *     int d = 7; // unreachable
+ *     return d;
+ * }
+ * </pre>
+ * whose callee never returns and has nodes unreachable from its entry.
+ */
+public class LazyICFGTest {
+
+    private final JClass klass = new JClass(null, "T");
+
+    private final Map<JMethod, IR> irs = Maps.newMap();
+
+    private final DefaultCallGraph callGraph = new DefaultCallGraph();
+
+    @Test
+    public void testSameResult() {
+        World world = new World();
+        World.set(world);
+        world.setIRBuilder(new IRBuilder() {
+            @Override
+            public IR buildIR(JMethod method) {
+                return irs.get(method);
+            }
+
+            @Override
+            public void buildAll(ClassHierarchy hierarchy) {
+            }
+        });
+        JMethod main = newMethod("main", List.of(), VoidType.VOID);
+        JMethod loop = newMethod("loop", List.of(PrimitiveType.INT), PrimitiveType.INT);
+        Invoke callSite = buildMain(main, loop);
+        buildLoop(loop);
+        callGraph.addEntryMethod(main);
+        callGraph.addEdge(new Edge<>(CallKind.STATIC, callSite, loop));
+        world.storeResult(CallGraphBuilder.ID, callGraph);
+
+        ICFG<JMethod, Stmt> icfg = new ICFGBuilder(
+                new AnalysisConfig(ICFGBuilder.ID, "dump", false)).analyze();
+        DataflowResult<Stmt, CPFact> expected = analyze(icfg);
+        LazyICFG lazyICFG = (LazyICFG) new ICFGBuilder(new AnalysisConfig(
+                ICFGBuilder.ID, "dump", false, "lazy-edges", true)).analyze();
+        // unknown nodes reach no methods
+        Assert.assertNull(lazyICFG.getContainingMethodOf(new Nop()));
+        Assert.assertEquals(0, lazyICFG.getNumberOfReachedMethods());
+        DataflowResult<Stmt, CPFact> result = analyze(lazyICFG);
+        Assert.assertEquals(2, lazyICFG.getNumberOfReachedMethods());
+        for (Stmt node : icfg) {
+            Assert.assertEquals(icfg.getContainingMethodOf(node),
+                    lazyICFG.getContainingMethodOf(node));
+            Assert.assertEquals(icfg.getOutEdgesOf(node), lazyICFG.getOutEdgesOf(node));
+            Assert.assertEquals(expected.getInFact(node), result.getInFact(node));
+            Assert.assertEquals(expected.getOutFact(node), result.getOutFact(node));
+        }
+    }
+
+    private DataflowResult<Stmt, CPFact> analyze(ICFG<JMethod, Stmt> icfg) {
+        World.get().storeResult(ICFGBuilder.ID, icfg);
+        @SuppressWarnings("unchecked")
+        DataflowResult<Stmt, CPFact> result = (DataflowResult<Stmt, CPFact>)
+                new InterConstantPropagation(new AnalysisConfig(
+                        InterConstantPropagation.ID,
+                        "edge-refine", false, "alias-aware", false)).analyze();
+        return result;
+    }
+
+    private JMethod newMethod(String name, List<Type> paramTypes, Type returnType) {
+        return new JMethod(klass, name, Set.of(Modifier.STATIC), paramTypes,
+                returnType, List.of(), AnnotationHolder.emptyHolder(), null, null);
+    }
+
+    private Invoke buildMain(JMethod main, JMethod loop) {
+        Var n = new Var(main, "n", PrimitiveType.INT, 0);
+        Var z = new Var(main, "z", PrimitiveType.INT, 1);
+        Var w = new Var(main, "w", PrimitiveType.INT, 2);
+        MethodRef ref = MethodRef.get(klass, loop.getName(),
+                loop.getParamTypes(), loop.getReturnType(), true);
+        Invoke invoke = new Invoke(main, new InvokeStatic(ref, List.of(n)), z);
+        List<Stmt> stmts = List.of(
+                new AssignLiteral(n, IntLiteral.get(5)),
+                invoke,
+                new AssignLiteral(w, IntLiteral.get(3)),
+                new Return());
+        build(main, List.of(), List.of(n, z, w), Set.of(), stmts);
+        return invoke;
+    }
+
+    private void buildLoop(JMethod loop) {
+        Var p = new Var(loop, "p", PrimitiveType.INT, 0);
+        Var c1 = new Var(loop, "c1", PrimitiveType.INT, 1);
+        Var d = new Var(loop, "d", PrimitiveType.INT, 2);
+        Nop head = new Nop();
+        Goto back = new Goto();
+        back.setTarget(head);
+        List<Stmt> stmts = List.of(
+                head,
+                new AssignLiteral(c1, IntLiteral.get(1)),
+                new Binary(p, new ArithmeticExp(ArithmeticExp.Op.ADD, p, c1)),
+                back,
+                new AssignLiteral(d, IntLiteral.get(7)),
+                new Return(d));
+        build(loop, List.of(p), List.of(p, c1, d), Set.of(d), stmts);
+    }
+
+    private void build(JMethod method, List<Var> params, List<Var> vars,
+                       Set<Var> returnVars, List<Stmt> stmts) {
+        for (int i = 0; i < stmts.size(); ++i) {
+            stmts.get(i).setIndex(i);
+        }
+        IR ir = new DefaultIR(method, null, params, returnVars, vars, stmts, List.of());
+        irs.put(method, ir);
+        ir.storeResult(CFGBuilder.ID, new CFGBuilder(new AnalysisConfig(
+                CFGBuilder.ID, "exception", "none", "dump", false)).analyze(ir));
+        callGraph.addReachableMethod(method);
+    }
+}
@@ -0,0 +1,297 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.graph.icfg;
+
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Randomly generated ICFG for testing and benchmarking inter-procedural
+ * solvers without building the world.
+ * <p>
+ * Each method is a chain of nodes from its entry to its exit, with
+ * a back edge which forms a loop over the body. Some nodes in the body
+ * are call sites, which call random methods (thus recursion is possible)
+ * and return to the next node of the chain. Method "m0" is the only
+ * entry method. The nodes are numbered consecutively from 0, and each node
+ * is a single {@link Integer} object, as the solvers may compare nodes
+ * by identity.
+ * <p>
+ * A lazy instance records the methods whose edges are queried, and
+ * the number of times all nodes are queried, to check that solvers
+ * explore it on demand.
+ */
+public class SyntheticICFG implements ICFG<String, Integer> {
+
+    private final List<String> methods = new ArrayList<>();
+
+    private final List<Integer> entries = new ArrayList<>();
+
+    private final List<Integer> exits = new ArrayList<>();
+
+    private final List<String> containingMethods = new ArrayList<>();
+
+    private final Set<Integer> nodes = new LinkedHashSet<>();
+
+    private final MultiMap<String, Integer> methodNodes = Maps.newMultiMap();
+
+    private final MultiMap<Integer, String> callees = Maps.newMultiMap();
+
+    private final MultiMap<String, Integer> callers = Maps.newMultiMap();
+
+    private final MultiMap<Integer, ICFGEdge<Integer>> inEdges = Maps.newMultiMap();
+
+    private final MultiMap<Integer, ICFGEdge<Integer>> outEdges = Maps.newMultiMap();
+
+    private final MultiMap<Integer, Integer> preds = Maps.newMultiMap();
+
+    private final MultiMap<Integer, Integer> succs = Maps.newMultiMap();
+
+    private final boolean lazy;
+
+    private final Set<String> queriedMethods = Sets.newSet();
+
+    private int nodeQueries = 0;
+
+    /**
+     * @param nMethods number of methods
+     * @param size     number of nodes in the body of each method
+     * @param nCalls   number of call sites in each method
+     * @param seed     seed of the random generator
+     */
+    public SyntheticICFG(int nMethods, int size, int nCalls, long seed) {
+        this(nMethods, size, nCalls, seed, false);
+    }
+
+    /**
+     * @param lazy whether this ICFG claims to be built on demand
+     */
+    public SyntheticICFG(int nMethods, int size, int nCalls, long seed,
+                         boolean lazy) {
+        this.lazy = lazy;
+        if (nCalls >= size) {
+            throw new IllegalArgumentException(
+                    "Too many call sites for method size " + size);
+        }
+        Random random = new Random(seed);
+        Map<String, List<Integer>> bodies = Maps.newMap();
+        for (int m = 0; m < nMethods; ++m) {
+            String method = "m" + m;
+            methods.add(method);
+            entries.add(newNode(method));
+            List<Integer> body = new ArrayList<>();
+            for (int i = 0; i < size; ++i) {
+                body.add(newNode(method));
+            }
+            bodies.put(method, body);
+            exits.add(newNode(method));
+        }
+        for (int m = 0; m < nMethods; ++m) {
+            String method = methods.get(m);
+            List<Integer> body = bodies.get(method);
+            // the last node of body is never a call site
+            Set<Integer> callSites = random.ints(0, size - 1)
+                    .distinct()
+                    .limit(nCalls)
+                    .mapToObj(body::get)
+                    .collect(Collectors.toSet());
+            addEdge(new LocalEdge(entries.get(m), body.get(0), false));
+            for (int i = 0; i + 1 < size; ++i) {
+                Integer node = body.get(i);
+                Integer next = body.get(i + 1);
+                if (callSites.contains(node)) {
+                    String callee = methods.get(random.nextInt(nMethods));
+                    int c = methods.indexOf(callee);
+                    callees.put(node, callee);
+                    callers.put(callee, node);
+                    addEdge(new LocalEdge(node, next, true));
+                    addEdge(new CallEdge<>(node, entries.get(c), null));
+                    addEdge(new ReturnEdge<>(exits.get(c), next, node,
+                            List.of(), List.of()));
+                } else {
+                    addEdge(new LocalEdge(node, next, false));
+                }
+            }
+            Integer last = body.get(size - 1);
+            addEdge(new LocalEdge(last, body.get(0), false));
+            addEdge(new LocalEdge(last, exits.get(m), false));
+        }
+    }
+
+    private Integer newNode(String method) {
+        Integer node = containingMethods.size();
+        containingMethods.add(method);
+        nodes.add(node);
+        methodNodes.put(method, node);
+        return node;
+    }
+
+    private void addEdge(ICFGEdge<Integer> edge) {
+        outEdges.put(edge.getSource(), edge);
+        inEdges.put(edge.getTarget(), edge);
+        succs.put(edge.getSource(), edge.getTarget());
+        preds.put(edge.getTarget(), edge.getSource());
+    }
+
+    /**
+     * @return the methods of this ICFG, in the order they are generated.
+     */
+    public List<String> getMethods() {
+        return methods;
+    }
+
+    @Override
+    public Stream<String> entryMethods() {
+        return Stream.of(methods.get(0));
+    }
+
+    /**
+     * @return the methods whose edges have been queried.
+     */
+    public Set<String> getQueriedMethods() {
+        return queriedMethods;
+    }
+
+    /**
+     * @return the number of times all nodes have been queried.
+     */
+    public int getNumberOfNodeQueries() {
+        return nodeQueries;
+    }
+
+    @Override
+    public Set<ICFGEdge<Integer>> getInEdgesOf(Integer node) {
+        queriedMethods.add(getContainingMethodOf(node));
+        return inEdges.get(node);
+    }
+
+    @Override
+    public Set<ICFGEdge<Integer>> getOutEdgesOf(Integer node) {
+        queriedMethods.add(getContainingMethodOf(node));
+        return outEdges.get(node);
+    }
+
+    @Override
+    public Set<String> getCalleesOf(Integer callSite) {
+        return callees.get(callSite);
+    }
+
+    @Override
+    public Set<Integer> getReturnSitesOf(Integer callSite) {
+        return getSuccsOf(callSite).stream()
+                .filter(succ -> getContainingMethodOf(succ)
+                        .equals(getContainingMethodOf(callSite)))
+                .collect(Collectors.toSet());
+    }
+
+    @Override
+    public Integer getEntryOf(String method) {
+        return entries.get(methods.indexOf(method));
+    }
+
+    @Override
+    public Integer getExitOf(String method) {
+        return exits.get(methods.indexOf(method));
+    }
+
+    @Override
+    public Set<Integer> getCallersOf(String method) {
+        return callers.get(method);
+    }
+
+    @Override
+    public String getContainingMethodOf(Integer node) {
+        return containingMethods.get(node);
+    }
+
+    @Override
+    public Set<Integer> getNodesOf(String method) {
+        return methodNodes.get(method);
+    }
+
+    @Override
+    public boolean isCallSite(Integer node) {
+        return callees.containsKey(node);
+    }
+
+    @Override
+    public boolean hasNode(Integer node) {
+        return nodes.contains(node);
+    }
+
+    @Override
+    public boolean hasEdge(Integer source, Integer target) {
+        return getSuccsOf(source).contains(target);
+    }
+
+    @Override
+    public Set<Integer> getPredsOf(Integer node) {
+        queriedMethods.add(getContainingMethodOf(node));
+        return preds.get(node);
+    }
+
+    @Override
+    public Set<Integer> getSuccsOf(Integer node) {
+        queriedMethods.add(getContainingMethodOf(node));
+        return succs.get(node);
+    }
+
+    @Override
+    public Set<Integer> getNodes() {
+        ++nodeQueries;
+        return nodes;
+    }
+
+    @Override
+    public boolean isLazy() {
+        return lazy;
+    }
+
+    /**
+     * Edge within a method. {@link CallToReturnEdge} and {@link NormalEdge}
+     * can only be created from CFG edges, thus this class stands for both.
+     */
+    public static class LocalEdge extends ICFGEdge<Integer> {
+
+        private final boolean callToReturn;
+
+        private LocalEdge(Integer source, Integer target, boolean callToReturn) {
+            super(source, target);
+            this.callToReturn = callToReturn;
+        }
+
+        public boolean isCallToReturn() {
+            return callToReturn;
+        }
+    }
+}
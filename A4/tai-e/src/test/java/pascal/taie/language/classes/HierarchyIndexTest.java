@@ -0,0 +1,345 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.language.classes;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.language.annotation.AnnotationHolder;
+import pascal.taie.language.type.ClassType;
+import pascal.taie.language.type.VoidType;
+import pascal.taie.util.collection.Sets;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Checks that {@link HierarchyIndex} answers the same as searching
+ * the direct subtypes of {@link ClassHierarchyImpl} on random hierarchies.
+ */
+public class HierarchyIndexTest {
+
+    private static final int CLASSES = 200;
+
+    private static final int INTERFACES = 40;
+
+    private static final int METHODS = 8;
+
+    @Test
+    public void testIndex() {
+        for (long seed = 0; seed < 5; ++seed) {
+            RandomHierarchy random = new RandomHierarchy(seed);
+            HierarchyIndex index = random.hierarchy.getIndex();
+            Assert.assertSame(index, random.hierarchy.getIndex());
+            Assert.assertEquals(CLASSES, index.getNumberOfClasses());
+            for (JClass c : random.classes) {
+                Assert.assertEquals(getSubclasses(random.hierarchy, c),
+                        Set.copyOf(index.getSubclassesOf(c)));
+                for (Subsignature subsig : random.subsigs) {
+                    Assert.assertEquals(dispatch(c, subsig),
+                            index.dispatch(c, subsig));
+                    Assert.assertEquals(
+                            dispatch(getSubclasses(random.hierarchy, c), subsig),
+                            index.dispatchSubclasses(c, subsig));
+                }
+            }
+            for (JClass i : random.interfaces) {
+                Set<JClass> implementors = getImplementors(random.hierarchy, i);
+                Assert.assertEquals(implementors, Set.copyOf(index.getImplementorsOf(i)));
+                for (Subsignature subsig : random.subsigs) {
+                    Assert.assertEquals(dispatch(implementors, subsig),
+                            index.dispatchImplementors(i, subsig));
+                }
+            }
+            List<JClass> all = new ArrayList<>(random.classes);
+            all.addAll(random.interfaces);
+            for (JClass sup : all) {
+                for (JClass sub : all) {
+                    Assert.assertEquals(sup + " :> " + sub,
+                            getSupertypes(sub).contains(sup),
+                            index.isSubtype(sup, sub));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSnapshot() throws IOException {
+        Path file = Files.createTempFile("hierarchy", ".snapshot");
+        try {
+            byte[] hash = new byte[32];
+            for (long seed = 0; seed < 5; ++seed) {
+                RandomHierarchy random = new RandomHierarchy(seed);
+                HierarchyIndex index = new HierarchyIndex(random.hierarchy);
+                hash[0] = (byte) seed;
+                HierarchySnapshot.save(index, file, hash);
+                HierarchyIndex loaded = HierarchySnapshot.load(
+                        random.hierarchy, file, hash);
+                Assert.assertNotNull(loaded);
+                Assert.assertEquals(index.getClasses(), loaded.getClasses());
+                Assert.assertArrayEquals(index.getEnds(), loaded.getEnds());
+                Assert.assertEquals(index.getDeclarers().keySet(),
+                        loaded.getDeclarers().keySet());
+                index.getDeclarers().forEach((subsig, numbers) ->
+                        Assert.assertArrayEquals(numbers,
+                                loaded.getDeclarers().get(subsig)));
+                for (JClass c : random.classes) {
+                    for (Subsignature subsig : random.subsigs) {
+                        Assert.assertEquals(index.dispatchSubclasses(c, subsig),
+                                loaded.dispatchSubclasses(c, subsig));
+                    }
+                }
+                for (JClass i : random.interfaces) {
+                    for (Subsignature subsig : random.subsigs) {
+                        Assert.assertEquals(index.dispatchImplementors(i, subsig),
+                                loaded.dispatchImplementors(i, subsig));
+                    }
+                }
+                // snapshot of a different class path is not used
+                hash[0] = (byte) (seed + 1);
+                Assert.assertNull(HierarchySnapshot.load(random.hierarchy, file, hash));
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    // ---------- straightforward implementations ----------
+
+    private static Set<JClass> getSubclasses(ClassHierarchy hierarchy, JClass jclass) {
+        Set<JClass> result = Sets.newSet();
+        Queue<JClass> queue = new ArrayDeque<>();
+        queue.add(jclass);
+        while (!queue.isEmpty()) {
+            JClass c = queue.poll();
+            if (result.add(c)) {
+                queue.addAll(hierarchy.getDirectSubclassesOf(c));
+            }
+        }
+        return result;
+    }
+
+    private static Set<JClass> getImplementors(ClassHierarchy hierarchy, JClass iface) {
+        Set<JClass> result = Sets.newSet();
+        Set<JClass> subinterfaces = Sets.newSet();
+        Queue<JClass> queue = new ArrayDeque<>();
+        queue.add(iface);
+        while (!queue.isEmpty()) {
+            JClass i = queue.poll();
+            if (subinterfaces.add(i)) {
+                hierarchy.getDirectImplementorsOf(i).forEach(c ->
+                        result.addAll(getSubclasses(hierarchy, c)));
+                queue.addAll(hierarchy.getDirectSubinterfacesOf(i));
+            }
+        }
+        return result;
+    }
+
+    private static JMethod dispatch(JClass jclass, Subsignature subsig) {
+        for (JClass c = jclass; c != null; c = c.getSuperClass()) {
+            JMethod method = c.getDeclaredMethod(subsig);
+            if (method != null && !method.isAbstract()) {
+                return method;
+            }
+        }
+        return null;
+    }
+
+    private static Set<JMethod> dispatch(Set<JClass> classes, Subsignature subsig) {
+        Set<JMethod> result = Sets.newSet();
+        for (JClass c : classes) {
+            JMethod method = dispatch(c, subsig);
+            if (method != null) {
+                result.add(method);
+            }
+        }
+        return result;
+    }
+
+    private static Set<JClass> getSupertypes(JClass jclass) {
+        Set<JClass> result = Sets.newSet();
+        Queue<JClass> queue = new ArrayDeque<>();
+        queue.add(jclass);
+        while (!queue.isEmpty()) {
+            JClass c = queue.poll();
+            if (result.add(c)) {
+                if (c.getSuperClass() != null) {
+                    queue.add(c.getSuperClass());
+                }
+                queue.addAll(c.getInterfaces());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Random classes and interfaces. Class c0 is the root of the classes,
+     * and the superclass of the interfaces, like java.lang.Object.
+     */
+    private static class RandomHierarchy implements JClassLoader {
+
+        private final ClassHierarchyImpl hierarchy = new ClassHierarchyImpl();
+
+        private final List<JClass> classes = new ArrayList<>();
+
+        private final List<JClass> interfaces = new ArrayList<>();
+
+        private final List<Subsignature> subsigs = new ArrayList<>();
+
+        private final Map<String, JClass> loaded = new LinkedHashMap<>();
+
+        private RandomHierarchy(long seed) {
+            Random random = new Random(seed);
+            hierarchy.setDefaultClassLoader(this);
+            for (int m = 0; m < METHODS; ++m) {
+                subsigs.add(Subsignature.get("void m" + m + "()"));
+            }
+            JClass root = new JClass(this, "C0");
+            build(random, root, null, List.of(), false);
+            classes.add(root);
+            for (int i = 0; i < INTERFACES; ++i) {
+                JClass iface = new JClass(this, "I" + i);
+                build(random, iface, root, pick(random, interfaces, 2), true);
+                interfaces.add(iface);
+            }
+            for (int i = 1; i < CLASSES; ++i) {
+                JClass c = new JClass(this, "C" + i);
+                JClass superClass = classes.get(random.nextInt(classes.size()));
+                build(random, c, superClass, pick(random, interfaces, 2), false);
+                classes.add(c);
+            }
+            loaded.values().forEach(hierarchy::addClass);
+        }
+
+        private static List<JClass> pick(Random random, List<JClass> from, int max) {
+            List<JClass> result = new ArrayList<>();
+            if (!from.isEmpty()) {
+                for (int n = random.nextInt(max + 1); n > 0; --n) {
+                    JClass c = from.get(random.nextInt(from.size()));
+                    if (!result.contains(c)) {
+                        result.add(c);
+                    }
+                }
+            }
+            return result;
+        }
+
+        private void build(Random random, JClass jclass, JClass superClass,
+                           List<JClass> superinterfaces, boolean isInterface) {
+            List<JMethod> methods = new ArrayList<>();
+            for (int m = 0; m < METHODS; ++m) {
+                if (random.nextInt(3) == 0) {
+                    Set<Modifier> modifiers = isInterface || random.nextInt(4) == 0 ?
+                            Set.of(Modifier.PUBLIC, Modifier.ABSTRACT) :
+                            Set.of(Modifier.PUBLIC);
+                    methods.add(new JMethod(jclass, "m" + m, modifiers, List.of(),
+                            VoidType.VOID, List.of(), AnnotationHolder.emptyHolder(),
+                            null, null));
+                }
+            }
+            Set<Modifier> modifiers = isInterface ?
+                    Set.of(Modifier.PUBLIC, Modifier.INTERFACE, Modifier.ABSTRACT) :
+                    Set.of(Modifier.PUBLIC);
+            jclass.build(new Builder(modifiers, superClass, superinterfaces, methods));
+            loaded.put(jclass.getName(), jclass);
+        }
+
+        @Override
+        public JClass loadClass(String name) {
+            return loaded.get(name);
+        }
+
+        @Override
+        public Collection<JClass> getLoadedClasses() {
+            return loaded.values();
+        }
+    }
+
+    private record Builder(Set<Modifier> modifiers, JClass superClass,
+                           List<JClass> interfaces, List<JMethod> methods)
+            implements JClassBuilder {
+
+        @Override
+        public void build(JClass jclass) {
+        }
+
+        @Override
+        public Set<Modifier> getModifiers() {
+            return modifiers;
+        }
+
+        @Override
+        public String getSimpleName() {
+            return null;
+        }
+
+        @Override
+        public ClassType getClassType() {
+            return null;
+        }
+
+        @Override
+        public JClass getSuperClass() {
+            return superClass;
+        }
+
+        @Override
+        public Collection<JClass> getInterfaces() {
+            return interfaces;
+        }
+
+        @Override
+        public JClass getOuterClass() {
+            return null;
+        }
+
+        @Override
+        public Collection<JField> getDeclaredFields() {
+            return List.of();
+        }
+
+        @Override
+        public Collection<JMethod> getDeclaredMethods() {
+            return methods;
+        }
+
+        @Override
+        public AnnotationHolder getAnnotationHolder() {
+            return AnnotationHolder.emptyHolder();
+        }
+
+        @Override
+        public boolean isApplication() {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+public class Incremental {
+
+    public static void main(String[] args) {
+        A a = new A();
+        a.foo();
+        make();
+    }
+
+    static void make() {
+        new B();
+    }
+}
+
+class A {
+    void foo() {
+    }
+}
+
+class B extends A {
+    void foo() {
+    }
+}
+
+class C extends A {
+    void foo() {
+    }
+}
@@ -22,11 +22,14 @@
 
 package pascal.taie.analysis.pta.core.cs.context;
 
+import pascal.taie.util.Indexable;
+
 /**
  * Representation of contexts in context-sensitive pointer analysis.
  * Each context can be seen as a list of zero or more context elements.
+ * Each distinct context is numbered densely by {@link #getIndex()}.
  */
-public interface Context {
+public interface Context extends Indexable {
 
     /**
      * @return the length (i.e., the number of elements) of this context.
@@ -37,4 +40,16 @@ public interface Context {
      * @return the i-th element of this context. Starts from 0.
      */
     Object getElementAt(int i);
+
+    /**
+     * @return the context which consists of the last (limit - 1) elements
+     * of this context followed by given element.
+     */
+    Context append(Object element, int limit);
+
+    /**
+     * @return the context which consists of the last length elements of
+     * this context, or this context if it is not longer than length.
+     */
+    Context suffix(int length);
 }
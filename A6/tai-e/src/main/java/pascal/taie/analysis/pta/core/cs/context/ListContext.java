@@ -22,29 +22,75 @@
 
 package pascal.taie.analysis.pta.core.cs.context;
 
+import pascal.taie.World;
 import pascal.taie.util.AnalysisException;
+import pascal.taie.util.collection.Maps;
 
-import java.util.List;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
 
 /**
  * List-based contexts. Each context is represented by a list of context elements.
- *
- * @param <T> type of context elements
+ * <p>
+ * The contexts are hash-consed in a trie: each context is the child of
+ * the context without its last element, and is created only once in
+ * current world. Thus, the contexts are compared by reference and their
+ * hash codes are precomputed, and each context is numbered densely.
+ * Contexts are extended by {@link #append(Object, int)}, which looks up
+ * the children of the trie node instead of allocating a new context.
+ * The trie is not thread-safe, as pointer analysis is single-threaded.
  */
-public class ListContext<T> implements Context {
+public class ListContext implements Context {
 
     /**
-     * The empty context.
+     * The empty context, i.e., the root of the trie.
      */
-    private static final ListContext<?> EMPTY_CONTEXT = new ListContext<>(List.of());
+    private static final ListContext EMPTY_CONTEXT = new ListContext(null, null);
+
+    /**
+     * Number of contexts created in current world.
+     */
+    private static int counter = 1;
+
+    static {
+        World.registerResetCallback(ListContext::reset);
+    }
 
     /**
      * List of elements in the context.
      */
-    private final List<T> elements;
+    private final Object[] elements;
+
+    private final int hashCode;
+
+    private final int index;
+
+    /**
+     * Contexts which extend this context by one element,
+     * created on demand.
+     */
+    private Map<Object, ListContext> children;
 
-    private ListContext(List<T> elements) {
-        this.elements = elements;
+    /**
+     * The last suffix of this context given by {@link #suffix(int)}.
+     * The selectors always take the suffixes of the same length,
+     * thus one suffix is enough.
+     */
+    private ListContext lastSuffix;
+
+    private ListContext(ListContext parent, Object element) {
+        if (parent == null) {
+            elements = new Object[0];
+            hashCode = 1; // same as empty list
+            index = 0;
+        } else {
+            elements = Arrays.copyOf(parent.elements, parent.elements.length + 1);
+            elements[parent.elements.length] = element;
+            // same as List.hashCode()
+            hashCode = 31 * parent.hashCode + Objects.hashCode(element);
+            index = counter++;
+        }
     }
 
     /**
@@ -57,45 +103,92 @@ public class ListContext<T> implements Context {
     /**
      * @return a context that consists of given context elements.
      */
-    @SafeVarargs
-    public static <T> Context make(T... elements) {
-        return elements.length == 0 ?
-                EMPTY_CONTEXT : new ListContext<>(List.of(elements));
+    public static Context make(Object... elements) {
+        ListContext context = EMPTY_CONTEXT;
+        for (Object element : elements) {
+            context = context.getChild(element);
+        }
+        return context;
+    }
+
+    private ListContext getChild(Object element) {
+        if (children == null) {
+            children = Maps.newHybridMap();
+        }
+        return children.computeIfAbsent(element, e -> new ListContext(this, e));
+    }
+
+    @Override
+    public Context append(Object element, int limit) {
+        if (limit <= 0) {
+            return EMPTY_CONTEXT;
+        }
+        return suffix(limit - 1).getChild(element);
+    }
+
+    @Override
+    public ListContext suffix(int length) {
+        if (length >= elements.length) {
+            return this;
+        }
+        if (length <= 0) {
+            return EMPTY_CONTEXT;
+        }
+        if (lastSuffix == null || lastSuffix.elements.length != length) {
+            ListContext context = EMPTY_CONTEXT;
+            for (int i = elements.length - length; i < elements.length; ++i) {
+                context = context.getChild(elements[i]);
+            }
+            lastSuffix = context;
+        }
+        return lastSuffix;
+    }
+
+    /**
+     * Clears the trie when the world is reset, so that the contexts
+     * of previous world can be garbage-collected.
+     */
+    private static void reset() {
+        EMPTY_CONTEXT.children = null;
+        counter = 1;
+    }
+
+    /**
+     * @return the number of this context, which is unique
+     * among the contexts of current world.
+     */
+    @Override
+    public int getIndex() {
+        return index;
     }
 
     @Override
     public int getLength() {
-        return elements.size();
+        return elements.length;
     }
 
     @Override
     public Object getElementAt(int i) {
-        if (i >= elements.size()) {
+        if (i >= elements.length) {
             throw new AnalysisException(
                     "Context " + this + " doesn't have " + i + "-th element");
         }
-        return elements.get(i);
+        return elements[i];
     }
 
     @Override
     public boolean equals(Object o) {
-        if (this == o) {
-            return true;
-        }
-        if (o == null || getClass() != o.getClass()) {
-            return false;
-        }
-        ListContext<?> that = (ListContext<?>) o;
-        return elements.equals(that.elements);
+        // contexts are hash-consed
+        return this == o;
     }
 
     @Override
     public int hashCode() {
-        return elements.hashCode();
+        return hashCode;
     }
 
     @Override
     public String toString() {
-        return elements.toString();
+        return Arrays.toString(elements);
     }
 }
@@ -22,19 +22,52 @@
 
 package pascal.taie.analysis.pta.core.cs.element;
 
+import pascal.taie.World;
 import pascal.taie.analysis.pta.core.cs.context.Context;
 import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.util.Indexable;
+
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Represents context-sensitive objects.
+ * <p>
+ * Each object is numbered densely when it is created by {@link CSManager},
+ * so that the objects can be kept in bit vectors.
  */
-public class CSObj extends AbstractCSElement {
+public class CSObj extends AbstractCSElement implements Indexable {
+
+    /**
+     * Objects created in current world, indexed by their numbers.
+     */
+    private static final List<CSObj> objs = new ArrayList<>();
+
+    static {
+        World.registerResetCallback(objs::clear);
+    }
 
     private final Obj obj;
 
+    private final int index;
+
     CSObj(Obj obj, Context context) {
         super(context);
         this.obj = obj;
+        this.index = objs.size();
+        objs.add(this);
+    }
+
+    /**
+     * @return the object of given number.
+     */
+    public static CSObj get(int index) {
+        return objs.get(index);
+    }
+
+    @Override
+    public int getIndex() {
+        return index;
     }
 
     /**
@@ -0,0 +1,111 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.pta.core.cs.element;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash table from pairs of an element and an index,
+ * e.g., a variable and the number of a context, to values.
+ * A lookup takes one linear probe sequence over flat arrays, instead of
+ * looking up the element and then the index in nested maps.
+ * The elements are compared by {@link Object#equals(Object)}.
+ *
+ * @param <E> type of elements
+ * @param <V> type of values
+ */
+final class ElementTable<E, V> {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private Object[] elements = new Object[INITIAL_CAPACITY];
+
+    private int[] indexes = new int[INITIAL_CAPACITY];
+
+    private Object[] values = new Object[INITIAL_CAPACITY];
+
+    private int size = 0;
+
+    /**
+     * @return the value of given element and index, or null if absent.
+     */
+    @SuppressWarnings("unchecked")
+    V get(E element, int index) {
+        int mask = elements.length - 1;
+        Object e;
+        for (int i = hash(element, index) & mask;
+             (e = elements[i]) != null; i = (i + 1) & mask) {
+            if (indexes[i] == index && (e == element || e.equals(element))) {
+                return (V) values[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Puts the value of given element and index, which must be absent.
+     */
+    void put(E element, int index, V value) {
+        if ((size + 1) * 2 > elements.length) {
+            resize();
+        }
+        insert(element, index, value);
+        ++size;
+    }
+
+    private void insert(Object element, int index, Object value) {
+        int mask = elements.length - 1;
+        int i = hash(element, index) & mask;
+        while (elements[i] != null) {
+            i = (i + 1) & mask;
+        }
+        elements[i] = element;
+        indexes[i] = index;
+        values[i] = value;
+    }
+
+    private void resize() {
+        Object[] oldElements = elements;
+        int[] oldIndexes = indexes;
+        Object[] oldValues = values;
+        int capacity = oldElements.length * 2;
+        elements = new Object[capacity];
+        indexes = new int[capacity];
+        values = new Object[capacity];
+        for (int i = 0; i < oldElements.length; ++i) {
+            if (oldElements[i] != null) {
+                insert(oldElements[i], oldIndexes[i], oldValues[i]);
+            }
+        }
+    }
+
+    private static int hash(Object element, int index) {
+        int h = element.hashCode() * 0x9E3779B9 + index * 0x85EBCA6B;
+        return h ^ (h >>> 16);
+    }
+
+    @Override
+    public String toString() {
+        return "ElementTable{size=" + size + ", capacity=" +
+                elements.length + "}";
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.pta.core.cs.element;
+
+import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.analysis.pta.pts.PointsToSetFactory;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.language.classes.JField;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementation of {@link CSManager} which looks up the elements by
+ * the dense numbers of contexts and context-sensitive objects instead of
+ * nested maps.
+ * <p>
+ * Variables, objects, call sites, methods and instance fields are kept in
+ * {@link ElementTable}s indexed by the numbers of their contexts (or base
+ * objects for instance fields), and array indexes are kept in an array
+ * indexed by the numbers of the array objects, which grows on demand.
+ * Variables are not numbered globally ({@link Var#getIndex()} is unique
+ * only in its method), thus they are hashed in the tables together with
+ * the context numbers.
+ */
+public class IndexedCSManager implements CSManager {
+
+    private final ElementTable<Var, CSVar> vars = new ElementTable<>();
+
+    private final ElementTable<Obj, CSObj> objs = new ElementTable<>();
+
+    private final ElementTable<Invoke, CSCallSite> callSites = new ElementTable<>();
+
+    private final ElementTable<JMethod, CSMethod> methods = new ElementTable<>();
+
+    private final ElementTable<JField, InstanceField> instanceFields = new ElementTable<>();
+
+    /**
+     * Array indexes of the array objects, indexed by the numbers
+     * of the array objects.
+     */
+    private ArrayIndex[] arrayIndexes = new ArrayIndex[64];
+
+    private final Map<JField, StaticField> staticFields = Maps.newMap();
+
+    /**
+     * Context-sensitive variables of each variable.
+     */
+    private final MultiMap<Var, CSVar> csVarsOf = Maps.newMultiMap();
+
+    private final List<CSVar> csVarList = new ArrayList<>();
+
+    private final List<CSObj> objList = new ArrayList<>();
+
+    private final List<InstanceField> instanceFieldList = new ArrayList<>();
+
+    private final List<ArrayIndex> arrayIndexList = new ArrayList<>();
+
+    @Override
+    public CSVar getCSVar(Context context, Var var) {
+        CSVar csVar = vars.get(var, context.getIndex());
+        if (csVar == null) {
+            csVar = initializePointsToSet(new CSVar(var, context));
+            vars.put(var, context.getIndex(), csVar);
+            csVarsOf.put(var, csVar);
+            csVarList.add(csVar);
+        }
+        return csVar;
+    }
+
+    @Override
+    public CSObj getCSObj(Context heapContext, Obj obj) {
+        CSObj csObj = objs.get(obj, heapContext.getIndex());
+        if (csObj == null) {
+            csObj = new CSObj(obj, heapContext);
+            objs.put(obj, heapContext.getIndex(), csObj);
+            objList.add(csObj);
+        }
+        return csObj;
+    }
+
+    @Override
+    public CSCallSite getCSCallSite(Context context, Invoke callSite) {
+        CSCallSite csCallSite = callSites.get(callSite, context.getIndex());
+        if (csCallSite == null) {
+            csCallSite = new CSCallSite(callSite, context);
+            callSites.put(callSite, context.getIndex(), csCallSite);
+        }
+        return csCallSite;
+    }
+
+    @Override
+    public CSMethod getCSMethod(Context context, JMethod method) {
+        CSMethod csMethod = methods.get(method, context.getIndex());
+        if (csMethod == null) {
+            csMethod = new CSMethod(method, context);
+            methods.put(method, context.getIndex(), csMethod);
+        }
+        return csMethod;
+    }
+
+    @Override
+    public StaticField getStaticField(JField field) {
+        return staticFields.computeIfAbsent(field,
+                f -> initializePointsToSet(new StaticField(f)));
+    }
+
+    @Override
+    public InstanceField getInstanceField(CSObj base, JField field) {
+        InstanceField instanceField = instanceFields.get(field, base.getIndex());
+        if (instanceField == null) {
+            instanceField = initializePointsToSet(new InstanceField(base, field));
+            instanceFields.put(field, base.getIndex(), instanceField);
+            instanceFieldList.add(instanceField);
+        }
+        return instanceField;
+    }
+
+    @Override
+    public ArrayIndex getArrayIndex(CSObj array) {
+        int index = array.getIndex();
+        if (index >= arrayIndexes.length) {
+            arrayIndexes = Arrays.copyOf(arrayIndexes,
+                    Math.max(index + 1, arrayIndexes.length * 2));
+        }
+        ArrayIndex arrayIndex = arrayIndexes[index];
+        if (arrayIndex == null) {
+            arrayIndex = initializePointsToSet(new ArrayIndex(array));
+            arrayIndexes[index] = arrayIndex;
+            arrayIndexList.add(arrayIndex);
+        }
+        return arrayIndex;
+    }
+
+    @Override
+    public Collection<Var> getVars() {
+        return Collections.unmodifiableSet(csVarsOf.keySet());
+    }
+
+    @Override
+    public Collection<CSVar> getCSVarsOf(Var var) {
+        return Collections.unmodifiableSet(csVarsOf.get(var));
+    }
+
+    @Override
+    public Collection<CSVar> getCSVars() {
+        return Collections.unmodifiableList(csVarList);
+    }
+
+    @Override
+    public Collection<CSObj> getObjects() {
+        return Collections.unmodifiableList(objList);
+    }
+
+    @Override
+    public Collection<StaticField> getStaticFields() {
+        return Collections.unmodifiableCollection(staticFields.values());
+    }
+
+    @Override
+    public Collection<InstanceField> getInstanceFields() {
+        return Collections.unmodifiableList(instanceFieldList);
+    }
+
+    @Override
+    public Collection<ArrayIndex> getArrayIndexes() {
+        return Collections.unmodifiableList(arrayIndexList);
+    }
+
+    private static <P extends Pointer> P initializePointsToSet(P pointer) {
+        pointer.setPointsToSet(PointsToSetFactory.make());
+        return pointer;
+    }
+}
@@ -45,14 +45,14 @@ public class _1CallSelector implements ContextSelector {
     public Context selectContext(CSCallSite callSite, JMethod callee) {
         // TODO - finish me
         Invoke invoke = callSite.getCallSite();
-        return ListContext.make(invoke);
+        return callSite.getContext().append(invoke, 1);
     }
 
     @Override
     public Context selectContext(CSCallSite callSite, CSObj recv, JMethod callee) {
         // TODO - finish me
         Invoke invoke = callSite.getCallSite();
-        return ListContext.make(invoke);
+        return callSite.getContext().append(invoke, 1);
     }
 
     @Override
@@ -50,7 +50,7 @@ public class _1ObjSelector implements ContextSelector {
     public Context selectContext(CSCallSite callSite, CSObj recv, JMethod callee) {
         // TODO - finish me
         Obj obj = recv.getObject();
-        return ListContext.make(obj);
+        return recv.getContext().append(obj, 1);
     }
 
     @Override
@@ -53,7 +53,7 @@ public class _1TypeSelector implements ContextSelector {
     public Context selectContext(CSCallSite callSite, CSObj recv, JMethod callee) {
         // TODO - finish me
         Type type = recv.getObject().getContainerType();
-        return ListContext.make(type);
+        return recv.getContext().append(type, 1);
     }
 
     @Override
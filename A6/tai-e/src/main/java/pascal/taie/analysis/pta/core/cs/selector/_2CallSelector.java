@@ -44,14 +44,8 @@ public class _2CallSelector implements ContextSelector {
     @Override
     public Context selectContext(CSCallSite callSite, JMethod callee) {
         // TODO - finish me
-        Context context = callSite.getContext();
         Invoke invoke = callSite.getCallSite();
-        int length = context.getLength();
-        if (length == 0) {
-            return ListContext.make(invoke);
-        } else {
-            return ListContext.make(context.getElementAt(length - 1), invoke);
-        }
+        return callSite.getContext().append(invoke, 2);
     }
 
     @Override
@@ -63,12 +57,6 @@ public class _2CallSelector implements ContextSelector {
     @Override
     public Context selectHeapContext(CSMethod method, Obj obj) {
         // TODO - finish me
-        Context context = method.getContext();
-        int length = context.getLength();
-        if (length == 0) {
-            return getEmptyContext();
-        } else {
-            return ListContext.make(context.getElementAt(length - 1));
-        }
+        return method.getContext().suffix(1);
     }
 }
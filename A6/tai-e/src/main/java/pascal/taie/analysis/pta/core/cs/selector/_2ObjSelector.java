@@ -49,25 +49,12 @@ public class _2ObjSelector implements ContextSelector {
     @Override
     public Context selectContext(CSCallSite callSite, CSObj recv, JMethod callee) {
         // TODO - finish me
-        Context context = recv.getContext();
-        Obj obj = recv.getObject();
-        int length = context.getLength();
-        if (length == 0) {
-            return ListContext.make(obj);
-        } else {
-            return ListContext.make(context.getElementAt(length-1), obj);
-        }
+        return recv.getContext().append(recv.getObject(), 2);
     }
 
     @Override
     public Context selectHeapContext(CSMethod method, Obj obj) {
         // TODO - finish me
-        Context context = method.getContext();
-        int length = context.getLength();
-        if (length == 0) {
-            return getEmptyContext();
-        } else {
-            return ListContext.make(context.getElementAt(length - 1));
-        }
+        return method.getContext().suffix(1);
     }
 }
@@ -51,24 +51,12 @@ public class _2TypeSelector implements ContextSelector {
     public Context selectContext(CSCallSite callSite, CSObj recv, JMethod callee) {
         // TODO - finish me
         Type type = recv.getObject().getContainerType();
-        Context context = recv.getContext();
-        int length = context.getLength();
-        if (length == 0) {
-            return ListContext.make(type);
-        } else {
-            return ListContext.make(context.getElementAt(length-1), type);
-        }
+        return recv.getContext().append(type, 2);
     }
 
     @Override
     public Context selectHeapContext(CSMethod method, Obj obj) {
         // TODO - finish me
-        Context context = method.getContext();
-        int length = context.getLength();
-        if (length == 0) {
-            return getEmptyContext();
-        } else {
-            return ListContext.make(context.getElementAt(length - 1));
-        }
+        return method.getContext().suffix(1);
     }
 }
@@ -25,19 +25,51 @@ package pascal.taie.analysis.pta.cs;
 import pascal.taie.analysis.pta.core.cs.element.Pointer;
 import pascal.taie.util.collection.Maps;
 import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Sets;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
  * Represents pointer flow graph in context-sensitive pointer analysis.
+ * <p>
+ * The pointers in a cycle of the graph always point to the same objects,
+ * thus they can be collapsed into a single node. Collapsed pointers are
+ * kept in a union-find structure: each pointer belongs to the node of
+ * its representative, and the edges are maintained between representatives.
+ * The solver makes all pointers of a node share one points-to set.
  */
 class PointerFlowGraph {
 
     /**
-     * Map from a pointer (node) to its successors in PFG.
+     * Map from a representative (node) to its successors in PFG.
+     * The successors may be collapsed after the edges are added,
+     * thus they are not necessarily representatives.
      */
     private final MultiMap<Pointer, Pointer> successors = Maps.newMultiMap();
 
+    /**
+     * Map from a collapsed pointer to the pointer it is collapsed into.
+     * The representatives are not in this map.
+     */
+    private final Map<Pointer, Pointer> parents = Maps.newMap();
+
+    /**
+     * Map from a representative to all pointers in its node, including
+     * itself. The pointers which are never collapsed are not in this map.
+     */
+    private final MultiMap<Pointer, Pointer> members = Maps.newMultiMap();
+
+    private int nCycles = 0;
+
+    private int nCollapsed = 0;
+
     /**
      * Adds an edge (source -> target) to this PFG.
      *
@@ -45,13 +77,154 @@ class PointerFlowGraph {
      * otherwise false.
      */
     boolean addEdge(Pointer source, Pointer target) {
-        return successors.put(source, target);
+        Pointer sourceRep = getRep(source);
+        Pointer targetRep = getRep(target);
+        // edges inside a node are useless as its pointers share points-to set
+        return sourceRep != targetRep && successors.put(sourceRep, targetRep);
     }
 
     /**
      * @return successors of given pointer in the PFG.
      */
     Set<Pointer> getSuccsOf(Pointer pointer) {
-        return successors.get(pointer);
+        return successors.get(getRep(pointer));
+    }
+
+    /**
+     * @return the representative of the node which given pointer belongs to.
+     */
+    Pointer getRep(Pointer pointer) {
+        Pointer parent = parents.get(pointer);
+        if (parent == null) {
+            return pointer;
+        }
+        Pointer rep = getRep(parent);
+        if (rep != parent) { // path compression
+            parents.put(pointer, rep);
+        }
+        return rep;
+    }
+
+    /**
+     * @return all pointers in the node which given pointer belongs to.
+     */
+    Set<Pointer> getMembersOf(Pointer pointer) {
+        Pointer rep = getRep(pointer);
+        Set<Pointer> result = members.get(rep);
+        return result.isEmpty() ? Set.of(rep) : result;
+    }
+
+    /**
+     * Finds the cycles reachable from given pointer by Tarjan's algorithm.
+     *
+     * @return the strongly connected components which consist of more than
+     * one node, each of which is given by the representatives of its nodes.
+     */
+    List<Set<Pointer>> findCycles(Pointer pointer) {
+        List<Set<Pointer>> cycles = new ArrayList<>();
+        Map<Pointer, Integer> indexes = Maps.newMap();
+        Map<Pointer, Integer> lows = Maps.newMap();
+        Deque<Pointer> stack = new ArrayDeque<>();
+        Set<Pointer> onStack = Sets.newSet();
+        Deque<Visit> visits = new ArrayDeque<>();
+        Pointer root = getRep(pointer);
+        indexes.put(root, 0);
+        lows.put(root, 0);
+        stack.push(root);
+        onStack.add(root);
+        visits.push(new Visit(root, successors.get(root).iterator()));
+        while (!visits.isEmpty()) {
+            Visit visit = visits.peek();
+            Pointer node = visit.node();
+            if (visit.succs().hasNext()) {
+                Pointer succ = getRep(visit.succs().next());
+                Integer index = indexes.get(succ);
+                if (index == null) {
+                    index = indexes.size();
+                    indexes.put(succ, index);
+                    lows.put(succ, index);
+                    stack.push(succ);
+                    onStack.add(succ);
+                    visits.push(new Visit(succ, successors.get(succ).iterator()));
+                } else if (onStack.contains(succ)) {
+                    lows.put(node, Math.min(lows.get(node), index));
+                }
+            } else {
+                visits.pop();
+                int low = lows.get(node);
+                if (!visits.isEmpty()) {
+                    Pointer pred = visits.peek().node();
+                    lows.put(pred, Math.min(lows.get(pred), low));
+                }
+                if (low == indexes.get(node)) {
+                    Set<Pointer> scc = Sets.newSet();
+                    Pointer p;
+                    do {
+                        p = stack.pop();
+                        onStack.remove(p);
+                        scc.add(p);
+                    } while (p != node);
+                    if (scc.size() > 1) {
+                        cycles.add(scc);
+                    }
+                }
+            }
+        }
+        return cycles;
+    }
+
+    /**
+     * Collapses the nodes of given representatives into one node.
+     *
+     * @return the representative of the collapsed node.
+     */
+    Pointer collapse(Collection<Pointer> reps) {
+        Pointer rep = null;
+        for (Pointer p : reps) {
+            if (rep == null || getMembersOf(p).size() > getMembersOf(rep).size()) {
+                rep = p;
+            }
+        }
+        Set<Pointer> succs = Sets.newSet();
+        for (Pointer p : reps) {
+            succs.addAll(successors.get(p));
+            successors.removeAll(p);
+            if (p != rep) {
+                members.putAll(rep, getMembersOf(p));
+                members.removeAll(p);
+                parents.put(p, rep);
+                ++nCollapsed;
+            }
+        }
+        members.put(rep, rep);
+        for (Pointer succ : succs) {
+            Pointer succRep = getRep(succ);
+            if (succRep != rep) {
+                successors.put(rep, succRep);
+            }
+        }
+        ++nCycles;
+        return rep;
+    }
+
+    /**
+     * @return the number of cycles collapsed so far.
+     */
+    int getNumberOfCycles() {
+        return nCycles;
+    }
+
+    /**
+     * @return the number of pointers collapsed into other pointers so far.
+     */
+    int getNumberOfCollapsed() {
+        return nCollapsed;
+    }
+
+    /**
+     * A node being visited in {@link #findCycles(Pointer)}, with
+     * its successors to be visited.
+     */
+    private record Visit(Pointer node, Iterator<Pointer> succs) {
     }
 }
@@ -27,6 +27,7 @@ import org.apache.logging.log4j.Logger;
 import pascal.taie.World;
 import pascal.taie.analysis.graph.callgraph.CallGraphs;
 import pascal.taie.analysis.graph.callgraph.CallKind;
+import pascal.taie.analysis.graph.callgraph.DispatchCache;
 import pascal.taie.analysis.graph.callgraph.Edge;
 import pascal.taie.analysis.pta.PointerAnalysisResult;
 import pascal.taie.analysis.pta.PointerAnalysisResultImpl;
@@ -38,6 +39,7 @@ import pascal.taie.analysis.pta.core.cs.element.CSManager;
 import pascal.taie.analysis.pta.core.cs.element.CSMethod;
 import pascal.taie.analysis.pta.core.cs.element.CSObj;
 import pascal.taie.analysis.pta.core.cs.element.CSVar;
+import pascal.taie.analysis.pta.core.cs.element.IndexedCSManager;
 import pascal.taie.analysis.pta.core.cs.element.InstanceField;
 import pascal.taie.analysis.pta.core.cs.element.MapBasedCSManager;
 import pascal.taie.analysis.pta.core.cs.element.Pointer;
@@ -53,11 +55,20 @@ import pascal.taie.ir.exp.InvokeExp;
 import pascal.taie.ir.exp.Var;
 import pascal.taie.ir.proginfo.FieldRef;
 import pascal.taie.ir.stmt.*;
+import pascal.taie.language.classes.ClassNames;
+import pascal.taie.language.classes.JClass;
 import pascal.taie.language.classes.JField;
 import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.ArrayType;
+import pascal.taie.language.type.ClassType;
 import pascal.taie.language.type.Type;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 class Solver {
 
@@ -79,6 +90,18 @@ class Solver {
 
     private PointerAnalysisResult result;
 
+    private DispatchCache dispatchCache;
+
+    /**
+     * Whether to collapse the cycles in the PFG.
+     */
+    private boolean collapseCycles;
+
+    /**
+     * PFG edges which have been checked for cycles.
+     */
+    private MultiMap<Pointer, Pointer> checkedEdges;
+
     Solver(AnalysisOptions options, HeapModel heapModel,
            ContextSelector contextSelector) {
         this.options = options;
@@ -89,13 +112,26 @@ class Solver {
     void solve() {
         initialize();
         analyze();
+        logger.info("Work list entries: {} enqueued, {} merged, {} processed",
+                workList.getNumberOfEnqueued(), workList.getNumberOfMerged(),
+                workList.getNumberOfProcessed());
+        if (collapseCycles) {
+            logger.info("PFG cycles: {} collapsed, {} pointers merged",
+                    pointerFlowGraph.getNumberOfCycles(),
+                    pointerFlowGraph.getNumberOfCollapsed());
+        }
+        dispatchCache.logStatistics();
     }
 
     private void initialize() {
-        csManager = new MapBasedCSManager();
+        csManager = "indexed".equals(options.getString("csmanager")) ?
+                new IndexedCSManager() : new MapBasedCSManager();
         callGraph = new CSCallGraph(csManager);
         pointerFlowGraph = new PointerFlowGraph();
-        workList = new WorkList();
+        workList = new WorkList("delta".equals(options.getString("worklist")));
+        dispatchCache = DispatchCache.get();
+        collapseCycles = "collapse".equals(options.getString("pfg"));
+        checkedEdges = Maps.newMultiMap();
         // process program entry, i.e., main method
         Context defContext = contextSelector.getEmptyContext();
         JMethod main = World.get().getMainMethod();
@@ -258,47 +294,60 @@ class Solver {
 
             PointsToSet delta = propagate(n, pts);
 
-            if (n instanceof CSVar csVar) {
-                for (CSObj csObj: delta) {
-                    Var var = csVar.getVar();
+            if (!delta.isEmpty()) {
+                // pointers collapsed with n share its points-to set
+                for (Pointer member : pointerFlowGraph.getMembersOf(n)) {
+                    if (member instanceof CSVar csVar) {
+                        processInstanceStmts(csVar, delta);
+                    }
+                }
+            }
+        }
+    }
 
-                    for (StoreField storeField : var.getStoreFields()) { // x.f = y;
-                        JField field = storeField.getFieldRef().resolve();
-                        InstanceField fieldPtr = csManager.getInstanceField(csObj, field);
-                        Var y = storeField.getRValue();
-                        CSVar yPtr = csManager.getCSVar(csVar.getContext(), y);
+    /**
+     * Processes instance field/array accesses and instance calls
+     * on the objects newly pointed by given variable.
+     */
+    private void processInstanceStmts(CSVar csVar, PointsToSet delta) {
+        for (CSObj csObj: delta) {
+            Var var = csVar.getVar();
 
-                        addPFGEdge(yPtr, fieldPtr);
-                    }
+            for (StoreField storeField : var.getStoreFields()) { // x.f = y;
+                JField field = storeField.getFieldRef().resolve();
+                InstanceField fieldPtr = csManager.getInstanceField(csObj, field);
+                Var y = storeField.getRValue();
+                CSVar yPtr = csManager.getCSVar(csVar.getContext(), y);
 
-                    for (LoadField loadField : var.getLoadFields()) { // y = x.f;
-                        JField field = loadField.getFieldRef().resolve();
-                        InstanceField fieldPtr = csManager.getInstanceField(csObj, field);
-                        Var y = loadField.getLValue();
-                        CSVar yPtr = csManager.getCSVar(csVar.getContext(), y);
+                addPFGEdge(yPtr, fieldPtr);
+            }
 
-                        addPFGEdge(fieldPtr, yPtr);
-                    }
+            for (LoadField loadField : var.getLoadFields()) { // y = x.f;
+                JField field = loadField.getFieldRef().resolve();
+                InstanceField fieldPtr = csManager.getInstanceField(csObj, field);
+                Var y = loadField.getLValue();
+                CSVar yPtr = csManager.getCSVar(csVar.getContext(), y);
 
-                    for (StoreArray storeArray : var.getStoreArrays()) { // x[i] = y;
-                        ArrayIndex arrayPtr = csManager.getArrayIndex(csObj);
-                        Var y = storeArray.getRValue();
-                        CSVar yPtr = csManager.getCSVar(csVar.getContext(), y);
+                addPFGEdge(fieldPtr, yPtr);
+            }
 
-                        addPFGEdge(yPtr, arrayPtr);
-                    }
+            for (StoreArray storeArray : var.getStoreArrays()) { // x[i] = y;
+                ArrayIndex arrayPtr = csManager.getArrayIndex(csObj);
+                Var y = storeArray.getRValue();
+                CSVar yPtr = csManager.getCSVar(csVar.getContext(), y);
 
-                    for (LoadArray loadArray : var.getLoadArrays()) { // y = x[i];
-                        ArrayIndex arrayPtr = csManager.getArrayIndex(csObj);
-                        Var y = loadArray.getLValue();
-                        CSVar yPtr = csManager.getCSVar(csVar.getContext(), y);
+                addPFGEdge(yPtr, arrayPtr);
+            }
 
-                        addPFGEdge(arrayPtr, yPtr);
-                    }
+            for (LoadArray loadArray : var.getLoadArrays()) { // y = x[i];
+                ArrayIndex arrayPtr = csManager.getArrayIndex(csObj);
+                Var y = loadArray.getLValue();
+                CSVar yPtr = csManager.getCSVar(csVar.getContext(), y);
 
-                    processCall(csVar, csObj);
-                }
+                addPFGEdge(arrayPtr, yPtr);
             }
+
+            processCall(csVar, csObj);
         }
     }
 
@@ -308,24 +357,79 @@ class Solver {
      */
     private PointsToSet propagate(Pointer pointer, PointsToSet pointsToSet) {
         // TODO - finish me
-        PointsToSet oldPointsToSet = pointer.getPointsToSet();
-        PointsToSet delta = PointsToSetFactory.make();
-
-        for (CSObj csObj : pointsToSet) {
-            if (oldPointsToSet.addObject(csObj)) {
-                delta.addObject(csObj);
-            }
-        }
+        PointsToSet delta = pointer.getPointsToSet().addAllDiff(pointsToSet);
 
         if (!delta.isEmpty()) {
+            List<Pointer> cycleCandidates = List.of();
             for (Pointer s : pointerFlowGraph.getSuccsOf(pointer)) {
                 workList.addEntry(s, delta);
+                if (collapseCycles && isCycleCandidate(pointer, s)) {
+                    if (cycleCandidates.isEmpty()) {
+                        cycleCandidates = new ArrayList<>();
+                    }
+                    cycleCandidates.add(s);
+                }
+            }
+            for (Pointer s : cycleCandidates) {
+                collapseCycles(s);
             }
         }
 
         return delta;
     }
 
+    /**
+     * Lazy cycle detection: an edge "source -> target" is likely in a cycle
+     * if the objects just propagated to source are already pointed by
+     * target, i.e., they have the same points-to set. Each edge is checked
+     * only once to bound the cost of detection.
+     */
+    private boolean isCycleCandidate(Pointer source, Pointer target) {
+        PointsToSet sourceSet = source.getPointsToSet();
+        PointsToSet targetSet = target.getPointsToSet();
+        return sourceSet != targetSet // not collapsed yet
+                && sourceSet.size() == targetSet.size()
+                && checkedEdges.put(source, target)
+                && sourceSet.objects().allMatch(targetSet::contains);
+    }
+
+    /**
+     * Collapses the cycles reachable from given pointer. The pointers of
+     * a collapsed cycle share the union of their points-to sets, thus the
+     * objects missed by each of them are processed as its new objects.
+     */
+    private void collapseCycles(Pointer pointer) {
+        for (Set<Pointer> cycle : pointerFlowGraph.findCycles(pointer)) {
+            PointsToSet union = PointsToSetFactory.make();
+            for (Pointer p : cycle) {
+                union.addAll(p.getPointsToSet());
+            }
+            Map<Pointer, PointsToSet> missed = Maps.newMap();
+            for (Pointer p : cycle) {
+                PointsToSet old = p.getPointsToSet();
+                PointsToSet diff = PointsToSetFactory.make();
+                for (CSObj obj : union) {
+                    if (!old.contains(obj)) {
+                        diff.addObject(obj);
+                    }
+                }
+                for (Pointer member : pointerFlowGraph.getMembersOf(p)) {
+                    missed.put(member, diff);
+                }
+            }
+            Pointer rep = pointerFlowGraph.collapse(cycle);
+            missed.forEach((member, diff) -> {
+                member.setPointsToSet(union);
+                if (!diff.isEmpty() && member instanceof CSVar csVar) {
+                    processInstanceStmts(csVar, diff);
+                }
+            });
+            for (Pointer s : pointerFlowGraph.getSuccsOf(rep)) {
+                workList.addEntry(s, union);
+            }
+        }
+    }
+
     /**
      * Processes instance calls when points-to set of the receiver variable changes.
      *
@@ -386,6 +490,20 @@ class Solver {
      */
     private JMethod resolveCallee(CSObj recv, Invoke callSite) {
         Type type = recv != null ? recv.getObject().getType() : null;
+        if (callSite.isVirtual() || callSite.isInterface()) {
+            // the same receiver type is dispatched on for each object
+            // and context, thus the targets are cached
+            JClass receiverClass = null;
+            if (type instanceof ClassType classType) {
+                receiverClass = classType.getJClass();
+            } else if (type instanceof ArrayType) {
+                receiverClass = World.get().getClassHierarchy()
+                        .getJREClass(ClassNames.OBJECT);
+            }
+            if (receiverClass != null) {
+                return dispatchCache.dispatch(receiverClass, callSite.getMethodRef());
+            }
+        }
         return CallGraphs.resolveCallee(type, callSite);
     }
 
@@ -24,22 +24,82 @@ package pascal.taie.analysis.pta.cs;
 
 import pascal.taie.analysis.pta.core.cs.element.Pointer;
 import pascal.taie.analysis.pta.pts.PointsToSet;
+import pascal.taie.analysis.pta.pts.PointsToSetFactory;
+import pascal.taie.util.collection.Maps;
 
 import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.Queue;
 
 /**
  * Represents work list in pointer analysis.
+ * <p>
+ * By default, the entries are processed in FIFO order, and a pointer
+ * may be in many entries. In delta mode, each pointer has at most one
+ * pending entry: the points-to sets added for a pending pointer are merged
+ * into its pending set (the delta), which is copied from the first added
+ * set on the first merge, as the added sets may be shared. The pending
+ * pointers are processed in least-recently-fired order, i.e., the pointers
+ * never processed come first, and the others in the order of their last
+ * processing, so that the deltas of the pointers processed later, which
+ * are usually downstream in the pointer flow graph, can accumulate.
  */
 class WorkList {
 
+    private final boolean isDelta;
+
     private final Queue<Entry> entries = new ArrayDeque<>();
 
+    /**
+     * Pending pointers in delta mode.
+     */
+    private final Queue<Pending> pendingQueue = new PriorityQueue<>(
+            Comparator.comparingLong(Pending::lastFired)
+                    .thenComparingLong(Pending::sequence));
+
+    /**
+     * Pending sets of the pending pointers in delta mode.
+     */
+    private final Map<Pointer, Delta> deltas = Maps.newMap();
+
+    /**
+     * Time of the last processing of each pointer in delta mode.
+     */
+    private final Map<Pointer, Long> lastFired = Maps.newMap();
+
+    private long time = 0;
+
+    private long nEnqueued = 0;
+
+    private long nMerged = 0;
+
+    private long nProcessed = 0;
+
+    WorkList(boolean isDelta) {
+        this.isDelta = isDelta;
+    }
+
     /**
      * Adds an entry to the work list.
      */
     void addEntry(Pointer pointer, PointsToSet pointsToSet) {
-        entries.add(new Entry(pointer, pointsToSet));
+        if (!isDelta) {
+            ++nEnqueued;
+            entries.add(new Entry(pointer, pointsToSet));
+            return;
+        }
+        Delta delta = deltas.get(pointer);
+        if (delta != null) {
+            ++nMerged;
+            delta.merge(pointsToSet);
+        } else {
+            ++nEnqueued;
+            deltas.put(pointer, new Delta(pointsToSet));
+            pendingQueue.add(new Pending(pointer,
+                    lastFired.getOrDefault(pointer, -1L), time++));
+        }
     }
 
     /**
@@ -47,14 +107,50 @@ class WorkList {
      * if this work list is empty.
      */
     Entry pollEntry() {
-        return entries.poll();
+        if (!isDelta) {
+            Entry entry = entries.poll();
+            if (entry != null) {
+                ++nProcessed;
+            }
+            return entry;
+        }
+        Pending pending = pendingQueue.poll();
+        if (pending == null) {
+            return null;
+        }
+        ++nProcessed;
+        Pointer pointer = pending.pointer();
+        lastFired.put(pointer, time++);
+        return new Entry(pointer, deltas.remove(pointer).pointsToSet);
     }
 
     /**
      * @return true if the work list is empty, otherwise false.
      */
     boolean isEmpty() {
-        return entries.isEmpty();
+        return isDelta ? pendingQueue.isEmpty() : entries.isEmpty();
+    }
+
+    /**
+     * @return the number of entries added to this work list,
+     * excluding the entries merged into pending entries.
+     */
+    long getNumberOfEnqueued() {
+        return nEnqueued;
+    }
+
+    /**
+     * @return the number of entries merged into pending entries.
+     */
+    long getNumberOfMerged() {
+        return nMerged;
+    }
+
+    /**
+     * @return the number of entries retrieved from this work list.
+     */
+    long getNumberOfProcessed() {
+        return nProcessed;
     }
 
     /**
@@ -63,4 +159,38 @@ class WorkList {
      */
     record Entry(Pointer pointer, PointsToSet pointsToSet) {
     }
+
+    /**
+     * Pending pointer in delta mode.
+     *
+     * @param lastFired time of the last processing of the pointer,
+     *                  -1 if it has not been processed
+     * @param sequence  time of adding the pointer
+     */
+    private record Pending(Pointer pointer, long lastFired, long sequence) {
+    }
+
+    /**
+     * Pending set of a pointer, which is copied on the first merge.
+     */
+    private static class Delta {
+
+        private PointsToSet pointsToSet;
+
+        private boolean isCopied = false;
+
+        private Delta(PointsToSet pointsToSet) {
+            this.pointsToSet = pointsToSet;
+        }
+
+        private void merge(PointsToSet other) {
+            if (!isCopied) {
+                PointsToSet copy = PointsToSetFactory.make();
+                copy.addAll(pointsToSet);
+                pointsToSet = copy;
+                isCopied = true;
+            }
+            pointsToSet.addAll(other);
+        }
+    }
 }
@@ -0,0 +1,274 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.pta.pts;
+
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Points-to set represented by a sparse bit vector over the numbers
+ * of {@link CSObj}s, i.e., {@link CSObj#getIndex()}.
+ * <p>
+ * The bits are kept in 64-bit words, and only the non-zero words are
+ * stored, sorted by their positions in the whole bit vector, thus
+ * the size of a set is proportional to the number of words in use
+ * rather than the largest object number. Adding a set of this kind
+ * merges the words of both sets, and {@link #addAllDiff(PointsToSet)}
+ * obtains the added objects of each word from the same merge.
+ */
+class BitVectorPointsToSet implements PointsToSet {
+
+    private static final int INITIAL_CAPACITY = 2;
+
+    /**
+     * Positions of the words in use, in ascending order.
+     */
+    private int[] keys;
+
+    /**
+     * Words in use, where the i-th word holds the bits of objects
+     * numbered from {@code keys[i] * 64} to {@code keys[i] * 64 + 63}.
+     */
+    private long[] words;
+
+    /**
+     * Number of words in use.
+     */
+    private int length;
+
+    /**
+     * Number of objects in this set.
+     */
+    private int size;
+
+    BitVectorPointsToSet() {
+        keys = new int[INITIAL_CAPACITY];
+        words = new long[INITIAL_CAPACITY];
+    }
+
+    @Override
+    public boolean addObject(CSObj obj) {
+        int index = obj.getIndex();
+        int key = index >>> 6;
+        long bit = 1L << index;
+        int i = Arrays.binarySearch(keys, 0, length, key);
+        if (i >= 0) {
+            if ((words[i] & bit) != 0) {
+                return false;
+            }
+            words[i] |= bit;
+        } else {
+            insert(-i - 1, key, bit);
+        }
+        ++size;
+        return true;
+    }
+
+    private void insert(int i, int key, long word) {
+        if (length == keys.length) {
+            int capacity = Math.max(INITIAL_CAPACITY, length * 2);
+            keys = Arrays.copyOf(keys, capacity);
+            words = Arrays.copyOf(words, capacity);
+        }
+        System.arraycopy(keys, i, keys, i + 1, length - i);
+        System.arraycopy(words, i, words, i + 1, length - i);
+        keys[i] = key;
+        words[i] = word;
+        ++length;
+    }
+
+    /**
+     * Appends a word after all words in use.
+     */
+    private void append(int key, long word) {
+        insert(length, key, word);
+        size += Long.bitCount(word);
+    }
+
+    @Override
+    public boolean addAll(PointsToSet pts) {
+        if (pts instanceof BitVectorPointsToSet other) {
+            return merge(other, null);
+        }
+        boolean changed = false;
+        for (CSObj obj : pts) {
+            changed |= addObject(obj);
+        }
+        return changed;
+    }
+
+    @Override
+    public PointsToSet addAllDiff(PointsToSet pts) {
+        if (pts instanceof BitVectorPointsToSet other) {
+            BitVectorPointsToSet diff = new BitVectorPointsToSet();
+            merge(other, diff);
+            return diff;
+        }
+        return PointsToSet.super.addAllDiff(pts);
+    }
+
+    /**
+     * Adds the objects of other set to this set word by word. The words
+     * in use by both sets are merged in place, and the words only in use
+     * by other set are then inserted from the end, so that each word is
+     * moved at most once.
+     *
+     * @param diff if not null, the added objects are appended to it.
+     * @return true if this set changed as a result of the call.
+     */
+    private boolean merge(BitVectorPointsToSet other, BitVectorPointsToSet diff) {
+        int oldSize = size;
+        int missing = 0;
+        for (int i = 0, j = 0; j < other.length; ) {
+            if (i < length && keys[i] < other.keys[j]) {
+                ++i;
+                continue;
+            }
+            long added;
+            if (i < length && keys[i] == other.keys[j]) {
+                added = other.words[j] & ~words[i];
+                words[i++] |= added;
+            } else {
+                added = other.words[j];
+                ++missing;
+            }
+            if (added != 0) {
+                size += Long.bitCount(added);
+                if (diff != null) {
+                    diff.append(other.keys[j], added);
+                }
+            }
+            ++j;
+        }
+        if (missing > 0) {
+            int newLength = length + missing;
+            if (newLength > keys.length) {
+                int capacity = Math.max(newLength, length * 2);
+                keys = Arrays.copyOf(keys, capacity);
+                words = Arrays.copyOf(words, capacity);
+            }
+            for (int i = length - 1, j = other.length - 1, k = newLength - 1; j >= 0; --k) {
+                if (i >= 0 && keys[i] >= other.keys[j]) {
+                    if (keys[i] == other.keys[j]) {
+                        --j;
+                    }
+                    keys[k] = keys[i];
+                    words[k] = words[i--];
+                } else {
+                    keys[k] = other.keys[j];
+                    words[k] = other.words[j--];
+                }
+            }
+            length = newLength;
+        }
+        return size != oldSize;
+    }
+
+    @Override
+    public boolean contains(CSObj obj) {
+        int index = obj.getIndex();
+        int i = Arrays.binarySearch(keys, 0, length, index >>> 6);
+        return i >= 0 && (words[i] & (1L << index)) != 0;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Set<CSObj> getObjects() {
+        return new AbstractSet<>() {
+
+            @Override
+            public Iterator<CSObj> iterator() {
+                return BitVectorPointsToSet.this.iterator();
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return o instanceof CSObj obj &&
+                        BitVectorPointsToSet.this.contains(obj);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public Stream<CSObj> objects() {
+        return getObjects().stream();
+    }
+
+    @Override
+    public Iterator<CSObj> iterator() {
+        return new Iterator<>() {
+
+            /**
+             * Position of current word.
+             */
+            private int i = 0;
+
+            /**
+             * Bits of current word which are not yet iterated.
+             */
+            private long word = length > 0 ? words[0] : 0;
+
+            @Override
+            public boolean hasNext() {
+                while (word == 0 && i + 1 < length) {
+                    word = words[++i];
+                }
+                return word != 0;
+            }
+
+            @Override
+            public CSObj next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int index = (keys[i] << 6) | Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+                return CSObj.get(index);
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return getObjects().toString();
+    }
+}
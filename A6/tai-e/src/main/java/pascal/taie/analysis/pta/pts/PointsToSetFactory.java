@@ -35,8 +35,24 @@ public class PointsToSetFactory {
 
     private static final Supplier<Set<CSObj>> setFactory = Sets::newHybridSet;
 
+    /**
+     * Whether to make {@link BitVectorPointsToSet}s instead of
+     * points-to sets delegating to hybrid sets.
+     */
+    private static boolean isBitVector = false;
+
+    /**
+     * Selects the implementation of points-to sets by the option
+     * "pts" of pointer analysis: "bit" for bit vectors, and others
+     * (including absent) for hybrid sets.
+     */
+    public static void setImplementation(String pts) {
+        isBitVector = "bit".equals(pts);
+    }
+
     public static PointsToSet make() {
-        return new DelegatePointsToSet(setFactory.get());
+        return isBitVector ? new BitVectorPointsToSet() :
+                new DelegatePointsToSet(setFactory.get());
     }
 
     /**
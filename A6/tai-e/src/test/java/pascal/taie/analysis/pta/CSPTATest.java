@@ -93,4 +93,49 @@ public class CSPTATest {
     public void testArray() {
         Tests.testCSPTA(DIR, "Array");
     }
+
+    @Test
+    public void testTwoObjectBitVector() {
+        Tests.testCSPTA(DIR, "TwoObject", "cs:2-obj", "pts:bit");
+    }
+
+    @Test
+    public void testArrayBitVector() {
+        Tests.testCSPTA(DIR, "Array", "pts:bit");
+    }
+
+    @Test
+    public void testTwoCallDelta() {
+        Tests.testCSPTA(DIR, "TwoCall", "cs:2-call", "worklist:delta");
+    }
+
+    @Test
+    public void testStoreLoadDelta() {
+        Tests.testCSPTA(DIR, "StoreLoad", "worklist:delta");
+    }
+
+    @Test
+    public void testAssignCollapse() {
+        Tests.testCSPTA(DIR, "Assign", "pfg:collapse");
+    }
+
+    @Test
+    public void testTwoObjectCollapse() {
+        Tests.testCSPTA(DIR, "TwoObject", "cs:2-obj", "pfg:collapse");
+    }
+
+    @Test
+    public void testArrayCollapseDelta() {
+        Tests.testCSPTA(DIR, "Array", "pfg:collapse", "worklist:delta");
+    }
+
+    @Test
+    public void testTwoObjectIndexed() {
+        Tests.testCSPTA(DIR, "TwoObject", "cs:2-obj", "csmanager:indexed");
+    }
+
+    @Test
+    public void testArrayIndexed() {
+        Tests.testCSPTA(DIR, "Array", "csmanager:indexed");
+    }
 }
@@ -0,0 +1,70 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.pta.core.cs.context;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+public class ListContextTest {
+
+    @Test
+    public void testInterning() {
+        Context ab = ListContext.make("a", "b");
+        Assert.assertSame(ab, ListContext.make("a", "b"));
+        Assert.assertSame(ab, ListContext.make("a").append("b", 2));
+        Assert.assertNotSame(ab, ListContext.make("b", "a"));
+        Assert.assertSame(ListContext.make(), ListContext.make(new Object[0]));
+        Assert.assertNotEquals(((ListContext) ab).getIndex(),
+                ((ListContext) ListContext.make("b", "a")).getIndex());
+        // hash codes are the same as the lists
+        Assert.assertEquals(List.of("a", "b").hashCode(), ab.hashCode());
+        Assert.assertEquals(List.of().hashCode(), ListContext.make().hashCode());
+        Assert.assertEquals("[a, b]", ab.toString());
+    }
+
+    @Test
+    public void testAppend() {
+        Context empty = ListContext.make();
+        Context a = empty.append("a", 2);
+        Context ab = a.append("b", 2);
+        Context bc = ab.append("c", 2);
+        Assert.assertSame(ListContext.make("a"), a);
+        Assert.assertSame(ListContext.make("b", "c"), bc);
+        Assert.assertEquals(2, bc.getLength());
+        Assert.assertEquals("b", bc.getElementAt(0));
+        Assert.assertEquals("c", bc.getElementAt(1));
+        Assert.assertSame(ListContext.make("d"), bc.append("d", 1));
+        Assert.assertSame(empty, bc.append("d", 0));
+    }
+
+    @Test
+    public void testSuffix() {
+        Context abc = ListContext.make("a", "b", "c");
+        Assert.assertSame(ListContext.make("c"), abc.suffix(1));
+        Assert.assertSame(ListContext.make("b", "c"), abc.suffix(2));
+        Assert.assertSame(ListContext.make("c"), abc.suffix(1));
+        Assert.assertSame(abc, abc.suffix(3));
+        Assert.assertSame(ListContext.make(), abc.suffix(0));
+    }
+}
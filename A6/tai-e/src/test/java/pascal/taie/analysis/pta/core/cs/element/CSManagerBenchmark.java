@@ -0,0 +1,142 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.pta.core.cs.element;
+
+import pascal.taie.Main;
+import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.cs.context.ListContext;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.analysis.pta.cs.CSPTA;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.Type;
+
+import java.util.Optional;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Compares {@link MapBasedCSManager} and {@link IndexedCSManager} in
+ * the throughput of the lookups of existing variables, objects and
+ * array indexes, and, if a program is given, in the time of
+ * 2-object-sensitive pointer analysis of it. Each measurement is repeated and the best is reported.
+ * This is not a unit test; run it with
+ * <pre>java pascal.taie.analysis.pta.core.cs.element.CSManagerBenchmark [class-path main]</pre>
+ */
+public class CSManagerBenchmark {
+
+    private static final int ROUNDS = 5;
+
+    private static final int VARS = 10_000;
+
+    private static final int CONTEXTS = 100;
+
+    private static final int LOOKUPS = 5_000_000;
+
+    public static void main(String[] args) {
+        measureLookups("map", MapBasedCSManager::new);
+        measureLookups("indexed", IndexedCSManager::new);
+        if (args.length > 1) {
+            Main.buildWorld("-pp", "-cp", args[0], "-m", args[1]);
+            measureAnalysis("map");
+            measureAnalysis("indexed");
+        }
+    }
+
+    private static void measureLookups(String name, Supplier<CSManager> supplier) {
+        Var[] vars = new Var[VARS];
+        for (int i = 0; i < VARS; ++i) {
+            vars[i] = new Var(null, "v" + i, null, i);
+        }
+        Context[] contexts = new Context[CONTEXTS];
+        for (int i = 0; i < CONTEXTS; ++i) {
+            contexts[i] = ListContext.make(i);
+        }
+        CSManager csManager = supplier.get();
+        // creates all elements, so that only lookups are measured
+        for (Var var : vars) {
+            for (Context context : contexts) {
+                csManager.getCSVar(context, var);
+                csManager.getArrayIndex(csManager.getCSObj(context, MockObj.OBJ));
+            }
+        }
+        long best = Long.MAX_VALUE;
+        int checksum = 0;
+        for (int round = 0; round < ROUNDS; ++round) {
+            Random random = new Random(0);
+            long start = System.nanoTime();
+            for (int i = 0; i < LOOKUPS; ++i) {
+                Context context = contexts[random.nextInt(CONTEXTS)];
+                CSVar csVar = csManager.getCSVar(context, vars[random.nextInt(VARS)]);
+                CSObj csObj = csManager.getCSObj(context, MockObj.OBJ);
+                checksum += csVar.hashCode() + csManager.getArrayIndex(csObj).hashCode();
+            }
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        System.out.printf("%s: %.1fM lookups/s (%d)%n", name,
+                3.0 * LOOKUPS / best * 1e3, checksum);
+    }
+
+    private static void measureAnalysis(String csManager) {
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; ++round) {
+            CSPTA cspta = new CSPTA(new AnalysisConfig(CSPTA.ID,
+                    "cs", "2-obj", "csmanager", csManager,
+                    "only-app", true, "implicit-entries", false,
+                    "merge-string-constants", false,
+                    "merge-string-objects", false,
+                    "merge-string-builders", false,
+                    "merge-exception-objects", true));
+            long start = System.nanoTime();
+            cspta.analyze();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        System.out.printf("%s: 2-obj pointer analysis %.3fs%n",
+                csManager, best / 1e9);
+    }
+
+    private enum MockObj implements Obj {
+
+        OBJ;
+
+        @Override
+        public Type getType() {
+            return null;
+        }
+
+        @Override
+        public Object getAllocation() {
+            return null;
+        }
+
+        @Override
+        public Optional<JMethod> getContainerMethod() {
+            return Optional.empty();
+        }
+
+        @Override
+        public Type getContainerType() {
+            return null;
+        }
+    }
+}
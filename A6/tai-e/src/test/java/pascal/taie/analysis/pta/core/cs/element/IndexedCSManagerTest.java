@@ -0,0 +1,114 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.pta.core.cs.element;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.cs.context.ListContext;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.Type;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+public class IndexedCSManagerTest {
+
+    private static final int N = 1000;
+
+    @Test
+    public void testCSVars() {
+        CSManager csManager = new IndexedCSManager();
+        List<Var> vars = new ArrayList<>();
+        for (int i = 0; i < N; ++i) {
+            vars.add(new Var(null, "v" + i, null, 0));
+        }
+        Context c1 = ListContext.make("c1");
+        Context c2 = ListContext.make("c2");
+        List<CSVar> csVars = new ArrayList<>();
+        for (Var var : vars) {
+            csVars.add(csManager.getCSVar(c1, var));
+            csVars.add(csManager.getCSVar(c2, var));
+        }
+        for (int i = 0; i < N; ++i) {
+            Var var = vars.get(i);
+            CSVar csVar = csManager.getCSVar(c1, var);
+            Assert.assertSame(csVars.get(2 * i), csVar);
+            Assert.assertSame(var, csVar.getVar());
+            Assert.assertSame(c1, csVar.getContext());
+            Assert.assertTrue(csVar.getPointsToSet().isEmpty());
+            Assert.assertEquals(Set.of(csVar, csVars.get(2 * i + 1)),
+                    Set.copyOf(csManager.getCSVarsOf(var)));
+        }
+        Assert.assertEquals(2 * N, csManager.getCSVars().size());
+        Assert.assertEquals(N, csManager.getVars().size());
+    }
+
+    @Test
+    public void testObjsAndFields() {
+        CSManager csManager = new IndexedCSManager();
+        List<CSObj> objs = new ArrayList<>();
+        for (int i = 0; i < N; ++i) {
+            objs.add(csManager.getCSObj(ListContext.make(i), MockObj.OBJ));
+        }
+        for (int i = 0; i < N; ++i) {
+            CSObj obj = objs.get(i);
+            Assert.assertSame(obj, csManager.getCSObj(ListContext.make(i), MockObj.OBJ));
+            ArrayIndex arrayIndex = csManager.getArrayIndex(obj);
+            Assert.assertSame(obj, arrayIndex.getArray());
+            Assert.assertSame(arrayIndex, csManager.getArrayIndex(obj));
+        }
+        Assert.assertEquals(N, csManager.getObjects().size());
+        Assert.assertEquals(N, csManager.getArrayIndexes().size());
+        Assert.assertTrue(csManager.getInstanceFields().isEmpty());
+        Assert.assertTrue(csManager.getCSVarsOf(new Var(null, "x", null, 0)).isEmpty());
+    }
+
+    private enum MockObj implements Obj {
+
+        OBJ;
+
+        @Override
+        public Type getType() {
+            return null;
+        }
+
+        @Override
+        public Object getAllocation() {
+            return null;
+        }
+
+        @Override
+        public Optional<JMethod> getContainerMethod() {
+            return Optional.empty();
+        }
+
+        @Override
+        public Type getContainerType() {
+            return null;
+        }
+    }
+}
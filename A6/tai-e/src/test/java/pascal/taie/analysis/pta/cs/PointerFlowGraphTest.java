@@ -0,0 +1,107 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.pta.cs;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.analysis.pta.core.cs.context.ListContext;
+import pascal.taie.analysis.pta.core.cs.element.CSManager;
+import pascal.taie.analysis.pta.core.cs.element.MapBasedCSManager;
+import pascal.taie.analysis.pta.core.cs.element.Pointer;
+import pascal.taie.ir.exp.Var;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public class PointerFlowGraphTest {
+
+    private final CSManager csManager = new MapBasedCSManager();
+
+    private final Pointer a = pointer("a"), b = pointer("b"), c = pointer("c"),
+            d = pointer("d"), e = pointer("e");
+
+    @Test
+    public void testFindCycles() {
+        PointerFlowGraph pfg = newGraph();
+        List<Set<Pointer>> cycles = pfg.findCycles(a);
+        Assert.assertEquals(2, cycles.size());
+        Assert.assertTrue(cycles.contains(Set.of(a, b, c)));
+        Assert.assertTrue(cycles.contains(Set.of(d, e)));
+        // no cycle is reachable from e except {d, e}
+        Assert.assertEquals(List.of(Set.of(d, e)), pfg.findCycles(e));
+    }
+
+    @Test
+    public void testCollapse() {
+        PointerFlowGraph pfg = newGraph();
+        Pointer abc = pfg.collapse(Set.of(a, b, c));
+        for (Pointer p : List.of(a, b, c)) {
+            Assert.assertSame(abc, pfg.getRep(p));
+            Assert.assertEquals(Set.of(a, b, c), pfg.getMembersOf(p));
+        }
+        Assert.assertSame(d, pfg.getRep(d));
+        Assert.assertEquals(Set.of(d), pfg.getMembersOf(d));
+        // the edges inside the cycle are gone
+        Assert.assertEquals(Set.of(d), pfg.getSuccsOf(b));
+        Assert.assertFalse(pfg.addEdge(a, c));
+
+        Pointer de = pfg.collapse(Set.of(d, e));
+        // successors are not updated by the collapse, but their reps are
+        Assert.assertEquals(Set.of(de), pfg.getSuccsOf(abc)
+                .stream()
+                .map(pfg::getRep)
+                .collect(Collectors.toSet()));
+        Assert.assertTrue(pfg.addEdge(e, b));
+        Assert.assertFalse(pfg.addEdge(d, a));
+        List<Set<Pointer>> cycles = pfg.findCycles(c);
+        Assert.assertEquals(List.of(Set.of(abc, de)), cycles);
+        Pointer rep = pfg.collapse(cycles.get(0));
+        for (Pointer p : List.of(a, b, c, d, e)) {
+            Assert.assertSame(rep, pfg.getRep(p));
+        }
+        Assert.assertEquals(Set.of(a, b, c, d, e), pfg.getMembersOf(e));
+        Assert.assertTrue(pfg.getSuccsOf(rep).isEmpty());
+        Assert.assertTrue(pfg.findCycles(a).isEmpty());
+        Assert.assertEquals(3, pfg.getNumberOfCycles());
+        Assert.assertEquals(4, pfg.getNumberOfCollapsed());
+    }
+
+    /**
+     * @return a PFG with cycles a -> b -> c -> a and d -> e -> d,
+     * and an edge c -> d.
+     */
+    private PointerFlowGraph newGraph() {
+        PointerFlowGraph pfg = new PointerFlowGraph();
+        pfg.addEdge(a, b);
+        pfg.addEdge(b, c);
+        pfg.addEdge(c, a);
+        pfg.addEdge(c, d);
+        pfg.addEdge(d, e);
+        pfg.addEdge(e, d);
+        return pfg;
+    }
+
+    private Pointer pointer(String name) {
+        return csManager.getCSVar(ListContext.make(), new Var(null, name, null, 0));
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.pta.cs;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.cs.context.ListContext;
+import pascal.taie.analysis.pta.core.cs.element.CSManager;
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.analysis.pta.core.cs.element.MapBasedCSManager;
+import pascal.taie.analysis.pta.core.cs.element.Pointer;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.analysis.pta.pts.PointsToSet;
+import pascal.taie.analysis.pta.pts.PointsToSetFactory;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.Type;
+
+import java.util.Optional;
+import java.util.Set;
+
+public class WorkListTest {
+
+    private final CSManager csManager = new MapBasedCSManager();
+
+    private final Context context = ListContext.make();
+
+    @Test
+    public void testDelta() {
+        WorkList workList = new WorkList(true);
+        Pointer x = pointer("x"), y = pointer("y");
+        CSObj o1 = obj(1), o2 = obj(2), o3 = obj(3);
+        PointsToSet shared = PointsToSetFactory.make(o1);
+        workList.addEntry(x, shared);
+        workList.addEntry(y, PointsToSetFactory.make(o3));
+        workList.addEntry(x, PointsToSetFactory.make(o2));
+        // the added set is not modified by merging
+        Assert.assertEquals(Set.of(o1), shared.getObjects());
+        WorkList.Entry entry = workList.pollEntry();
+        Assert.assertSame(x, entry.pointer());
+        Assert.assertEquals(Set.of(o1, o2), entry.pointsToSet().getObjects());
+        // x is fired, thus x comes after y, which has not been fired
+        workList.addEntry(x, PointsToSetFactory.make(o3));
+        Assert.assertSame(y, workList.pollEntry().pointer());
+        Assert.assertSame(x, workList.pollEntry().pointer());
+        Assert.assertTrue(workList.isEmpty());
+        Assert.assertNull(workList.pollEntry());
+        Assert.assertEquals(3, workList.getNumberOfEnqueued());
+        Assert.assertEquals(1, workList.getNumberOfMerged());
+        Assert.assertEquals(3, workList.getNumberOfProcessed());
+    }
+
+    @Test
+    public void testLeastRecentlyFired() {
+        WorkList workList = new WorkList(true);
+        Pointer x = pointer("x"), y = pointer("y"), z = pointer("z");
+        CSObj o = obj(0);
+        for (Pointer p : new Pointer[]{ x, y, z }) {
+            workList.addEntry(p, PointsToSetFactory.make(o));
+        }
+        // fires x, y and z in order
+        for (int i = 0; i < 3; ++i) {
+            workList.pollEntry();
+        }
+        workList.addEntry(z, PointsToSetFactory.make(o));
+        workList.addEntry(y, PointsToSetFactory.make(o));
+        workList.addEntry(x, PointsToSetFactory.make(o));
+        Assert.assertSame(x, workList.pollEntry().pointer());
+        Assert.assertSame(y, workList.pollEntry().pointer());
+        Assert.assertSame(z, workList.pollEntry().pointer());
+    }
+
+    @Test
+    public void testFIFO() {
+        WorkList workList = new WorkList(false);
+        Pointer x = pointer("x");
+        workList.addEntry(x, PointsToSetFactory.make(obj(1)));
+        workList.addEntry(x, PointsToSetFactory.make(obj(2)));
+        Assert.assertEquals(2, workList.getNumberOfEnqueued());
+        Assert.assertEquals(0, workList.getNumberOfMerged());
+        Assert.assertEquals(Set.of(obj(1)),
+                workList.pollEntry().pointsToSet().getObjects());
+        Assert.assertEquals(Set.of(obj(2)),
+                workList.pollEntry().pointsToSet().getObjects());
+    }
+
+    private Pointer pointer(String name) {
+        return csManager.getCSVar(context, new Var(null, name, null, 0));
+    }
+
+    private CSObj obj(int i) {
+        return csManager.getCSObj(ListContext.make(i), MockObj.OBJ);
+    }
+
+    private enum MockObj implements Obj {
+
+        OBJ;
+
+        @Override
+        public Type getType() {
+            return null;
+        }
+
+        @Override
+        public Object getAllocation() {
+            return null;
+        }
+
+        @Override
+        public Optional<JMethod> getContainerMethod() {
+            return Optional.empty();
+        }
+
+        @Override
+        public Type getContainerType() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.pta.pts;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.analysis.pta.core.cs.context.ListContext;
+import pascal.taie.analysis.pta.core.cs.element.CSManager;
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.analysis.pta.core.cs.element.MapBasedCSManager;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.Type;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Checks that {@link BitVectorPointsToSet} behaves the same as
+ * a set of objects on random operations.
+ */
+public class BitVectorPointsToSetTest {
+
+    private static final int OBJECTS = 2000;
+
+    private static final int SETS = 20;
+
+    private static final int OPERATIONS = 2000;
+
+    @Test
+    public void testRandomOperations() {
+        List<CSObj> objs = makeObjects();
+        Random random = new Random(0);
+        List<BitVectorPointsToSet> sets = new ArrayList<>();
+        List<Set<CSObj>> expected = new ArrayList<>();
+        for (int i = 0; i < SETS; ++i) {
+            sets.add(new BitVectorPointsToSet());
+            expected.add(new HashSet<>());
+        }
+        for (int n = 0; n < OPERATIONS; ++n) {
+            int i = random.nextInt(SETS);
+            int j = random.nextInt(SETS);
+            switch (random.nextInt(4)) {
+                case 0, 1 -> {
+                    // objects of nearby numbers share words
+                    int base = random.nextInt(OBJECTS - 100);
+                    CSObj obj = objs.get(base + random.nextInt(100));
+                    Assert.assertEquals(expected.get(i).add(obj),
+                            sets.get(i).addObject(obj));
+                }
+                case 2 -> Assert.assertEquals(
+                        expected.get(i).addAll(expected.get(j)),
+                        sets.get(i).addAll(sets.get(j)));
+                case 3 -> {
+                    Set<CSObj> diff = new HashSet<>(expected.get(j));
+                    diff.removeAll(expected.get(i));
+                    expected.get(i).addAll(expected.get(j));
+                    Assert.assertEquals(diff,
+                            sets.get(i).addAllDiff(sets.get(j)).getObjects());
+                }
+            }
+            Assert.assertEquals(expected.get(i), sets.get(i).getObjects());
+        }
+        for (int i = 0; i < SETS; ++i) {
+            BitVectorPointsToSet set = sets.get(i);
+            Assert.assertEquals(expected.get(i).size(), set.size());
+            Assert.assertEquals(expected.get(i).isEmpty(), set.isEmpty());
+            for (CSObj obj : objs) {
+                Assert.assertEquals(expected.get(i).contains(obj), set.contains(obj));
+            }
+            List<CSObj> iterated = new ArrayList<>();
+            set.forEach(iterated::add);
+            Assert.assertEquals(expected.get(i).size(), iterated.size());
+            Assert.assertEquals(expected.get(i), new HashSet<>(iterated));
+        }
+    }
+
+    private static List<CSObj> makeObjects() {
+        CSManager csManager = new MapBasedCSManager();
+        Obj obj = new MockObj();
+        List<CSObj> objs = new ArrayList<>();
+        for (int i = 0; i < OBJECTS; ++i) {
+            objs.add(csManager.getCSObj(ListContext.make(i), obj));
+        }
+        return objs;
+    }
+
+    private static class MockObj implements Obj {
+
+        @Override
+        public Type getType() {
+            return null;
+        }
+
+        @Override
+        public Object getAllocation() {
+            return null;
+        }
+
+        @Override
+        public Optional<JMethod> getContainerMethod() {
+            return Optional.empty();
+        }
+
+        @Override
+        public Type getContainerType() {
+            return null;
+        }
+    }
+}
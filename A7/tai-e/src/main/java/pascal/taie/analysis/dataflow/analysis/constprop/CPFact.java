@@ -48,6 +48,14 @@ public class CPFact extends MapFact<Var, Value> {
         super(map);
     }
 
+    /**
+     * Constructor for the subclasses which keep the mappings
+     * in their own representation.
+     */
+    protected CPFact(Void unused) {
+        super(unused);
+    }
+
     /**
      * @return the value of given variable in this fact,
      * or UNDEF the variable is absent in this fact.
@@ -69,6 +77,25 @@ public class CPFact extends MapFact<Var, Value> {
         }
     }
 
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CPFact that)) {
+            return false;
+        }
+        // facts of different representations are compared by mappings
+        return map != null && that.map != null ?
+                super.equals(o) : equalsMappings(that);
+    }
+
+    @Override
+    public int hashCode() {
+        // must agree with the hash code of other representations
+        return hashMappings();
+    }
+
     @Override
     public CPFact copy() {
         return new CPFact(this.map);
@@ -40,8 +40,14 @@ public class ConstantPropagation extends
 
     public static final String ID = "constprop";
 
+    /**
+     * Whether represent the facts as {@link DenseCPFact}.
+     */
+    private final boolean denseFact;
+
     public ConstantPropagation(AnalysisConfig config) {
         super(config);
+        denseFact = getOptions().getBooleanOrDefault("dense-fact", false);
     }
 
     @Override
@@ -52,7 +58,8 @@ public class ConstantPropagation extends
     @Override
     public CPFact newBoundaryFact(CFG<Stmt> cfg) {
         // TODO - finish me
-        CPFact boundaryFact = new CPFact();
+        CPFact boundaryFact = denseFact ?
+                new DenseCPFact(cfg.getIR().getVars()) : new CPFact();
         for (Var param : cfg.getIR().getParams()) {
             boundaryFact.update(param, Value.getNAC());
         }
@@ -63,12 +70,17 @@ public class ConstantPropagation extends
     @Override
     public CPFact newInitialFact() {
         // TODO - finish me
-        return new CPFact();
+        return denseFact ? new DenseCPFact() : new CPFact();
     }
 
     @Override
     public void meetInto(CPFact fact, CPFact target) {
         // TODO - finish me
+        if (fact instanceof DenseCPFact denseSource
+                && target instanceof DenseCPFact denseTarget) {
+            denseTarget.meet(denseSource);
+            return;
+        }
         for (Var var : fact.keySet()) {
             Value v1 = fact.get(var);
             Value v2 = target.get(var);
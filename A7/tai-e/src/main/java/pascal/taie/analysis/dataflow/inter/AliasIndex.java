@@ -0,0 +1,112 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter;
+
+import pascal.taie.analysis.pta.PointerAnalysisResult;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.LoadArray;
+import pascal.taie.ir.stmt.LoadField;
+import pascal.taie.language.classes.JField;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Inverted index of a points-to result, which maps each object to
+ * the field and array loads whose bases may point to it.
+ * <p>
+ * The index is built in one pass over the points-to sets of the variables,
+ * thus the loads which may alias with a store on a variable can be
+ * collected from the objects it points to, instead of intersecting its
+ * points-to set with the ones of all other variables. The points-to sets
+ * are kept as well, so that loads can look up the values stored to
+ * the objects their bases point to.
+ */
+class AliasIndex {
+
+    private final Map<Var, Set<Obj>> pointsTo = Maps.newMap();
+
+    /**
+     * Maps each object to the instance field loads whose bases may point
+     * to it, grouped by the resolved fields of the loads.
+     */
+    private final Map<Obj, MultiMap<JField, LoadField>> fieldLoads = Maps.newMap();
+
+    private final MultiMap<Obj, LoadArray> loadArrays = Maps.newMultiMap();
+
+    /**
+     * @param pta      the points-to result to be indexed
+     * @param resolver resolves the field of an instance field load
+     */
+    AliasIndex(PointerAnalysisResult pta, Function<LoadField, JField> resolver) {
+        for (Var var : pta.getVars()) {
+            Set<Obj> pts = pta.getPointsToSet(var);
+            pointsTo.put(var, pts);
+            List<LoadArray> arrayLoads = var.getLoadArrays();
+            if (var.getLoadFields().isEmpty() && arrayLoads.isEmpty()) {
+                continue;
+            }
+            // each load is resolved once, not once per object
+            MultiMap<JField, LoadField> loadsByField = Maps.newMultiMap();
+            var.getLoadFields().forEach(load ->
+                    loadsByField.put(resolver.apply(load), load));
+            for (Obj obj : pts) {
+                if (!loadsByField.isEmpty()) {
+                    fieldLoads.computeIfAbsent(obj, unused -> Maps.newMultiMap())
+                            .putAll(loadsByField);
+                }
+                if (!arrayLoads.isEmpty()) {
+                    loadArrays.putAll(obj, arrayLoads);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the objects which given variable points to.
+     */
+    Set<Obj> getPointsToSet(Var var) {
+        return pointsTo.getOrDefault(var, Set.of());
+    }
+
+    /**
+     * @return the loads of given instance field whose bases
+     * point to given object.
+     */
+    Set<LoadField> getLoadFields(Obj obj, JField field) {
+        MultiMap<JField, LoadField> loads = fieldLoads.get(obj);
+        return loads != null ? loads.get(field) : Set.of();
+    }
+
+    /**
+     * @return the array loads whose bases point to given object.
+     */
+    Set<LoadArray> getLoadArrays(Obj obj) {
+        return loadArrays.get(obj);
+    }
+}
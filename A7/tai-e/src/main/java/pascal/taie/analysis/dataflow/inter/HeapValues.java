@@ -0,0 +1,154 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter;
+
+import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
+import pascal.taie.analysis.dataflow.analysis.constprop.Value;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.language.classes.JField;
+import pascal.taie.util.collection.Maps;
+
+import java.util.Map;
+
+/**
+ * Abstract values stored in the heap locations, i.e., the meets of the
+ * values stored to each instance field (Obj, JField), each array
+ * (Obj, index) and each static field.
+ * <p>
+ * The values are only updated by meeting with the stored values, which is
+ * exact as the facts of the stores only go down the lattice, thus loads
+ * are answered by lookups instead of visiting the stores.
+ * <p>
+ * The elements of each array are bucketed by their constant indexes.
+ * The values stored with NAC indexes may be loaded by any index, and
+ * the values stored with UNDEF indexes are never loaded.
+ */
+class HeapValues {
+
+    private final ConstantPropagation cp;
+
+    private final Map<Obj, Map<JField, Value>> fieldValues = Maps.newMap();
+
+    private final Map<Obj, ArrayValues> arrayValues = Maps.newMap();
+
+    private final Map<JField, Value> staticFieldValues = Maps.newMap();
+
+    HeapValues(ConstantPropagation cp) {
+        this.cp = cp;
+    }
+
+    Value getFieldValue(Obj base, JField field) {
+        Map<JField, Value> values = fieldValues.get(base);
+        return values == null ? Value.getUndef() :
+                values.getOrDefault(field, Value.getUndef());
+    }
+
+    /**
+     * Meets given value into the value of given instance field.
+     *
+     * @return true if the value of the field changes.
+     */
+    boolean storeFieldValue(Obj base, JField field, Value value) {
+        return meetInto(fieldValues.computeIfAbsent(base, unused -> Maps.newMap()),
+                field, value);
+    }
+
+    Value getArrayValue(Obj array, Value index) {
+        ArrayValues values = arrayValues.get(array);
+        if (values == null || index.isUndef()) {
+            return Value.getUndef();
+        } else if (index.isConstant()) {
+            return cp.meetValue(values.nacIndex,
+                    values.constIndexes.getOrDefault(index.getConstant(), Value.getUndef()));
+        } else {
+            return values.all;
+        }
+    }
+
+    /**
+     * Meets given value into the elements of given array
+     * which may be stored at given index.
+     *
+     * @return true if the value of some elements changes.
+     */
+    boolean storeArrayValue(Obj array, Value index, Value value) {
+        if (index.isUndef()) {
+            return false;
+        }
+        ArrayValues values = arrayValues.computeIfAbsent(array, unused -> new ArrayValues());
+        boolean changed;
+        if (index.isConstant()) {
+            changed = meetInto(values.constIndexes, index.getConstant(), value);
+        } else {
+            Value nacIndex = cp.meetValue(values.nacIndex, value);
+            changed = !nacIndex.equals(values.nacIndex);
+            values.nacIndex = nacIndex;
+        }
+        values.all = cp.meetValue(values.all, value);
+        return changed;
+    }
+
+    Value getStaticFieldValue(JField field) {
+        return staticFieldValues.getOrDefault(field, Value.getUndef());
+    }
+
+    /**
+     * Meets given value into the value of given static field.
+     *
+     * @return true if the value of the field changes.
+     */
+    boolean storeStaticFieldValue(JField field, Value value) {
+        return meetInto(staticFieldValues, field, value);
+    }
+
+    private <K> boolean meetInto(Map<K, Value> values, K key, Value value) {
+        Value oldValue = values.getOrDefault(key, Value.getUndef());
+        Value newValue = cp.meetValue(oldValue, value);
+        if (newValue.equals(oldValue)) {
+            return false;
+        }
+        values.put(key, newValue);
+        return true;
+    }
+
+    /**
+     * Values of the elements of an array.
+     */
+    private static class ArrayValues {
+
+        /**
+         * Values stored at each constant index.
+         */
+        private final Map<Integer, Value> constIndexes = Maps.newMap();
+
+        /**
+         * Meet of the values stored at NAC indexes.
+         */
+        private Value nacIndex = Value.getUndef();
+
+        /**
+         * Meet of all values stored to the array.
+         */
+        private Value all = Value.getUndef();
+    }
+}
@@ -39,8 +39,8 @@ import pascal.taie.ir.exp.*;
 import pascal.taie.ir.stmt.*;
 import pascal.taie.language.classes.JField;
 import pascal.taie.language.classes.JMethod;
-import pascal.taie.util.collection.HybridArrayHashMap;
-import pascal.taie.util.collection.HybridArrayHashSet;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
 
 import java.util.*;
 
@@ -54,16 +54,23 @@ public class InterConstantPropagation extends
 
     private final ConstantPropagation cp;
 
-    private final Map<JField, Set<StoreField>> field2StaticStoreFields = new HybridArrayHashMap<>();
-    private  final Map<JField, Set<LoadField>> field2StaticLoadFields = new HybridArrayHashMap<>();
-    private final Map<Var, Set<StoreField>> var2InstanceStoreFields = new HybridArrayHashMap<>();
-    private final Map<Var, Set<LoadField>> var2InstanceLoadFields = new HybridArrayHashMap<>();
-    private final Map<Var, Set<StoreArray>> var2StoreArrays = new HybridArrayHashMap<>();
-    private final Map<Var, Set<LoadArray>> var2LoadArrays = new HybridArrayHashMap<>();
+    private final HeapValues heapValues;
+
+    private AliasIndex aliasIndex;
+
+    private final MultiMap<JField, LoadField> staticLoadFields = Maps.newMultiMap();
+
+    /**
+     * Resolved fields of the field loads and stores in the ICFG,
+     * so that they are not resolved on every visit.
+     */
+    private final Map<FieldStmt<?, ?>, JField> fields = Maps.newMap();
 
     public InterConstantPropagation(AnalysisConfig config) {
         super(config);
-        cp = new ConstantPropagation(new AnalysisConfig(ConstantPropagation.ID));
+        cp = new ConstantPropagation(new AnalysisConfig(ConstantPropagation.ID,
+                "dense-fact", getOptions().getBooleanOrDefault("dense-fact", false)));
+        heapValues = new HeapValues(cp);
     }
 
     @Override
@@ -72,20 +79,25 @@ public class InterConstantPropagation extends
         PointerAnalysisResult pta = World.get().getResult(ptaId);
         // You can do initialization work here
 
-        // instance fields and arrays
-        for (Var var1 : pta.getVars()) {
-            for (Var var2 : pta.getVars()) {
-                Set<Obj> pts1 = pta.getPointsToSet(var1);
-                Set<Obj> pts2 = pta.getPointsToSet(var2);
-
-                if (pts1.stream().anyMatch(pts2::contains)) { // has intersection
-                    var2InstanceStoreFields.computeIfAbsent(var1, k -> new HashSet<>()).addAll(var2.getStoreFields());
-                    var2InstanceLoadFields.computeIfAbsent(var1, k-> new HashSet<>()).addAll(var2.getLoadFields());
-                    var2StoreArrays.computeIfAbsent(var1, k -> new HashSet<>()).addAll(var2.getStoreArrays());
-                    var2LoadArrays.computeIfAbsent(var1, k -> new HashSet<>()).addAll(var2.getLoadArrays());
+        for (Stmt stmt : icfg) {
+            if (stmt instanceof FieldStmt<?, ?> fieldStmt) {
+                JField field = getField(fieldStmt);
+                if (stmt instanceof LoadField loadField && loadField.isStatic()) {
+                    staticLoadFields.put(field, loadField);
                 }
             }
         }
+        // instance fields and arrays: the accesses which may alias with
+        // the ones on a variable are found via the objects it points to
+        aliasIndex = new AliasIndex(pta, this::getField);
+    }
+
+    /**
+     * @return the resolved field of given field access, which is
+     * resolved once and cached in {@link #fields}.
+     */
+    private JField getField(FieldStmt<?, ?> fieldStmt) {
+        return fields.computeIfAbsent(fieldStmt, s -> s.getFieldRef().resolve());
     }
 
     @Override
@@ -136,17 +148,14 @@ public class InterConstantPropagation extends
         Var index = loadArray.getArrayAccess().getIndex();
         if (ConstantPropagation.canHoldInt(y) && ConstantPropagation.canHoldInt(index)) {
             CPFact newOut = in.copy();
-
-            Var x = loadArray.getArrayAccess().getBase();
-            Value curIndexVal = in.get(index);
-
-            Set<StoreArray> xRelatedStoreArrays = var2StoreArrays.get(x);
-            if (xRelatedStoreArrays != null) {
-                newOut.update(y, xRelatedStoreArrays.stream()
-                        .filter(storeArray -> isAliasArrayIndex(curIndexVal, solver.getInFact(storeArray).get(storeArray.getArrayAccess().getIndex())))
-                        .map(storeArray -> solver.getInFact(storeArray).get(storeArray.getRValue()))
-                        .reduce(cp::meetValue).orElse(Value.getUndef())
-                );
+            Set<Obj> pts = aliasIndex.getPointsToSet(loadArray.getArrayAccess().getBase());
+            if (!pts.isEmpty()) {
+                Value indexVal = in.get(index);
+                Value value = Value.getUndef();
+                for (Obj array : pts) {
+                    value = cp.meetValue(value, heapValues.getArrayValue(array, indexVal));
+                }
+                newOut.update(y, value);
             }
 
             return out.copyFrom(newOut);
@@ -157,13 +166,13 @@ public class InterConstantPropagation extends
 
     private boolean transferStoreArrayNode(StoreArray storeArray, CPFact in, CPFact out) { // x[i] = y;
         Var y = storeArray.getRValue();
-        if (!in.equals(out)) {
-            Var index = storeArray.getArrayAccess().getIndex();
-            if (ConstantPropagation.canHoldInt(y) && ConstantPropagation.canHoldInt(index)) {
-                Var x = storeArray.getArrayAccess().getBase();
-                Set<LoadArray> xRelatedLoadArrays = var2LoadArrays.get(x);
-                if (xRelatedLoadArrays != null) {
-                    solver.addToWorkList(xRelatedLoadArrays);
+        Var index = storeArray.getArrayAccess().getIndex();
+        if (ConstantPropagation.canHoldInt(y) && ConstantPropagation.canHoldInt(index)) {
+            Value indexVal = in.get(index);
+            Value value = in.get(y);
+            for (Obj array : aliasIndex.getPointsToSet(storeArray.getArrayAccess().getBase())) {
+                if (heapValues.storeArrayValue(array, indexVal, value)) {
+                    solver.addToWorkList(aliasIndex.getLoadArrays(array));
                 }
             }
         }
@@ -171,40 +180,22 @@ public class InterConstantPropagation extends
         return out.copyFrom(in);
     }
 
-    private boolean isAliasArrayIndex(Value i1, Value i2) {
-        if (i1.isUndef() || i2.isUndef()) {
-            return false;
-        } else if (i1.isConstant() && i2.isConstant()) {
-            return i1.getConstant() == i2.getConstant();
-        } else {
-            return true;
-        }
-    }
-
     private boolean transferLoadFieldNode(LoadField loadField, CPFact in, CPFact out) { // y = x.f | y = F.f
         Var y = loadField.getLValue();
         if (ConstantPropagation.canHoldInt(y)) {
             CPFact newOut = in.copy();
-            FieldAccess fieldAccess = loadField.getFieldAccess();
-            if (fieldAccess instanceof InstanceFieldAccess instanceFieldAccess) {
-                Var x = instanceFieldAccess.getBase();
-                JField jField = instanceFieldAccess.getFieldRef().resolve();
-                Set<StoreField> xRelatedStoreFields = var2InstanceStoreFields.get(x);
-                if (xRelatedStoreFields != null) {
-                    newOut.update(y, xRelatedStoreFields.stream()
-                            .filter(storeField -> jField.equals(storeField.getFieldRef().resolve()))
-                            .map(storeField -> solver.getInFact(storeField).get(storeField.getRValue()))
-                            .reduce(cp::meetValue).orElse(Value.getUndef())
-                    );
+            JField field = getField(loadField);
+            if (loadField.getFieldAccess() instanceof InstanceFieldAccess instanceFieldAccess) {
+                Set<Obj> pts = aliasIndex.getPointsToSet(instanceFieldAccess.getBase());
+                if (!pts.isEmpty()) {
+                    Value value = Value.getUndef();
+                    for (Obj base : pts) {
+                        value = cp.meetValue(value, heapValues.getFieldValue(base, field));
+                    }
+                    newOut.update(y, value);
                 }
             } else {
-                StaticFieldAccess staticFieldAccess = (StaticFieldAccess) fieldAccess;
-                JField jField = staticFieldAccess.getFieldRef().resolve();
-                field2StaticLoadFields.computeIfAbsent(jField, k -> new HashSet<>()).add(loadField);
-                newOut.update(y, field2StaticStoreFields.computeIfAbsent(jField, k -> new HashSet<>())
-                        .stream().map(storeField -> solver.getInFact(storeField).get(storeField.getRValue()))
-                        .reduce(cp::meetValue).orElse(Value.getUndef())
-                );
+                newOut.update(y, heapValues.getStaticFieldValue(field));
             }
 
             return out.copyFrom(newOut);
@@ -214,23 +205,18 @@ public class InterConstantPropagation extends
     }
 
     private boolean transferStoreFieldNode(StoreField storeField, CPFact in, CPFact out) { // x.f = y;
-        FieldAccess fieldAccess = storeField.getFieldAccess();
         Var y = storeField.getRValue();
-        Value yInVal = in.get(y);
-        Value yOutVal = out.get(y);
-        if (ConstantPropagation.canHoldInt(y) && !yInVal.equals(yOutVal)) {
-            if (fieldAccess instanceof InstanceFieldAccess instanceFieldAccess) {
-                Var x = instanceFieldAccess.getBase();
-                Set<LoadField> xRelatedLoadFields = var2InstanceLoadFields.get(x);
-                if (xRelatedLoadFields != null) {
-                    solver.addToWorkList(xRelatedLoadFields);
+        if (ConstantPropagation.canHoldInt(y)) {
+            JField field = getField(storeField);
+            Value value = in.get(y);
+            if (storeField.getFieldAccess() instanceof InstanceFieldAccess instanceFieldAccess) {
+                for (Obj base : aliasIndex.getPointsToSet(instanceFieldAccess.getBase())) {
+                    if (heapValues.storeFieldValue(base, field, value)) {
+                        solver.addToWorkList(aliasIndex.getLoadFields(base, field));
+                    }
                 }
-            } else {
-                StaticFieldAccess staticFieldAccess = (StaticFieldAccess) fieldAccess;
-                JField jField = staticFieldAccess.getFieldRef().resolve();
-                field2StaticStoreFields.computeIfAbsent(jField, k -> new HashSet<>()).add(storeField);
-
-                solver.addToWorkList(field2StaticLoadFields.computeIfAbsent(jField, k -> new HashSet<>()));
+            } else if (heapValues.storeStaticFieldValue(field, value)) {
+                solver.addToWorkList(staticLoadFields.get(field));
             }
         }
 
@@ -260,7 +246,7 @@ public class InterConstantPropagation extends
     @Override
     protected CPFact transferCallEdge(CallEdge<Stmt> edge, CPFact callSiteOut) {
         // TODO - finish me
-        CPFact newOut = new CPFact();
+        CPFact newOut = cp.newInitialFact();
 
         Stmt sourceStmt = edge.getSource();
         assert sourceStmt instanceof Invoke;
@@ -278,7 +264,7 @@ public class InterConstantPropagation extends
     @Override
     protected CPFact transferReturnEdge(ReturnEdge<Stmt> edge, CPFact returnOut) {
         // TODO - finish me
-        CPFact newOut = new CPFact();
+        CPFact newOut = cp.newInitialFact();
 
         Collection<Var> returnVars = edge.getReturnVars();
         Value returnValue = returnVars.stream().map(returnOut::get).reduce(cp::meetValue).orElse(Value.getUndef());
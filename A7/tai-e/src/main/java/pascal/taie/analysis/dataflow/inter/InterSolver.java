@@ -22,28 +22,36 @@
 
 package pascal.taie.analysis.dataflow.inter;
 
-import com.google.common.collect.Queues;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
 import pascal.taie.analysis.graph.icfg.ICFG;
 import pascal.taie.analysis.graph.icfg.ICFGEdge;
 
-import java.util.Queue;
 import java.util.Set;
 
 /**
  * Solver for inter-procedural data-flow analysis.
  * The workload of inter-procedural analysis is heavy, thus we always
  * adopt work-list algorithm for efficiency.
+ * The nodes are visited in the order given by {@link InterWorkList}.
  */
 class InterSolver<Method, Node, Fact> {
 
+    private static final Logger logger = LogManager.getLogger(InterSolver.class);
+
     private final InterDataflowAnalysis<Node, Fact> analysis;
 
     private final ICFG<Method, Node> icfg;
 
     private DataflowResult<Node, Fact> result;
 
-    private Queue<Node> workList;
+    private InterWorkList<Node> workList;
+
+    /**
+     * Number of times the nodes are visited by the solver.
+     */
+    private int visits;
 
     InterSolver(InterDataflowAnalysis<Node, Fact> analysis,
                 ICFG<Method, Node> icfg) {
@@ -55,12 +63,15 @@ class InterSolver<Method, Node, Fact> {
         result = new DataflowResult<>();
         initialize();
         doSolve();
+        logger.info("{} ICFG nodes, {} node visits",
+                icfg.getNumberOfNodes(), visits);
         return result;
     }
 
     private void initialize() {
         // TODO - finish me
-        workList = Queues.newArrayDeque();
+        workList = new InterWorkList<>(icfg);
+        visits = 0;
 
         for (Node node : icfg) {
             result.setInFact(node, analysis.newInitialFact());
@@ -79,7 +90,8 @@ class InterSolver<Method, Node, Fact> {
         }
 
         while (!workList.isEmpty()) {
-            Node curBlock = workList.remove();
+            Node curBlock = workList.poll();
+            ++visits;
             // calculate IN[B] and update the result
             Fact inB = result.getInFact(curBlock);
             for (ICFGEdge<Node> inEdge: icfg.getInEdgesOf(curBlock)) {
@@ -104,4 +116,11 @@ class InterSolver<Method, Node, Fact> {
     public Fact getInFact(Node node) {
         return result.getInFact(node);
     }
+
+    /**
+     * @return the number of times the nodes are visited in last solving.
+     */
+    int getNumberOfVisits() {
+        return visits;
+    }
 }
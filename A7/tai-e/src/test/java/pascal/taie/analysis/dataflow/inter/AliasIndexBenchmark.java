@@ -0,0 +1,100 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter;
+
+import pascal.taie.World;
+import pascal.taie.analysis.pta.PointerAnalysisResult;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.LoadArray;
+import pascal.taie.ir.stmt.LoadField;
+import pascal.taie.ir.stmt.StoreArray;
+import pascal.taie.ir.stmt.StoreField;
+import pascal.taie.util.collection.Maps;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Compares the initialization of {@link InterConstantPropagation}, which
+ * builds an {@link AliasIndex}, with intersecting the points-to sets of
+ * all pairs of variables, on synthetic points-to results of growing sizes.
+ * This is not a unit test; run it with
+ * <pre>java pascal.taie.analysis.dataflow.inter.AliasIndexBenchmark [vars...]</pre>
+ */
+public class AliasIndexBenchmark {
+
+    private static final String PTA_ID = "pta";
+
+    public static void main(String[] args) {
+        int[] sizes = args.length > 0 ?
+                Arrays.stream(args).mapToInt(Integer::parseInt).toArray() :
+                new int[]{ 1000, 2000, 4000, 8000 };
+        World.set(new World());
+        for (int nVars : sizes) {
+            AliasIndexTest.SyntheticPTA synthetic =
+                    new AliasIndexTest.SyntheticPTA(nVars, nVars / 5, 3, 0);
+            PointerAnalysisResult pta = synthetic.getResult();
+            World.get().storeResult(PTA_ID, pta);
+            long start = System.nanoTime();
+            initializePairwise(pta);
+            double pairwise = (System.nanoTime() - start) / 1e9;
+            start = System.nanoTime();
+            new InterConstantPropagation(new AnalysisConfig(
+                    InterConstantPropagation.ID, "pta", PTA_ID)).initialize();
+            double indexed = (System.nanoTime() - start) / 1e9;
+            System.out.printf("%5d vars: pairwise %.3fs, indexed %.3fs%n",
+                    nVars, pairwise, indexed);
+        }
+    }
+
+    /**
+     * Previous initialization, which intersects the points-to sets
+     * of all pairs of variables.
+     */
+    private static void initializePairwise(PointerAnalysisResult pta) {
+        Map<Var, Set<StoreField>> var2StoreFields = Maps.newMap();
+        Map<Var, Set<LoadField>> var2LoadFields = Maps.newMap();
+        Map<Var, Set<StoreArray>> var2StoreArrays = Maps.newMap();
+        Map<Var, Set<LoadArray>> var2LoadArrays = Maps.newMap();
+        for (Var var1 : pta.getVars()) {
+            for (Var var2 : pta.getVars()) {
+                Set<Obj> pts1 = pta.getPointsToSet(var1);
+                Set<Obj> pts2 = pta.getPointsToSet(var2);
+                if (pts1.stream().anyMatch(pts2::contains)) {
+                    var2StoreFields.computeIfAbsent(var1, k -> new HashSet<>())
+                            .addAll(var2.getStoreFields());
+                    var2LoadFields.computeIfAbsent(var1, k -> new HashSet<>())
+                            .addAll(var2.getLoadFields());
+                    var2StoreArrays.computeIfAbsent(var1, k -> new HashSet<>())
+                            .addAll(var2.getStoreArrays());
+                    var2LoadArrays.computeIfAbsent(var1, k -> new HashSet<>())
+                            .addAll(var2.getLoadArrays());
+                }
+            }
+        }
+    }
+}
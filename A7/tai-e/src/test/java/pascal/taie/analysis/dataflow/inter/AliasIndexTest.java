@@ -0,0 +1,163 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.analysis.pta.PointerAnalysisResult;
+import pascal.taie.analysis.pta.core.heap.MockObj;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.ir.exp.ArrayAccess;
+import pascal.taie.ir.exp.InstanceFieldAccess;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.proginfo.FieldRef;
+import pascal.taie.ir.stmt.LoadArray;
+import pascal.taie.ir.stmt.LoadField;
+import pascal.taie.ir.stmt.StoreArray;
+import pascal.taie.ir.stmt.StoreField;
+import pascal.taie.language.annotation.AnnotationHolder;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JField;
+import pascal.taie.language.type.ArrayType;
+import pascal.taie.language.type.PrimitiveType;
+import pascal.taie.language.type.Type;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Checks that {@link AliasIndex} finds the same aliased loads
+ * as intersecting the points-to sets of all pairs of variables.
+ */
+public class AliasIndexTest {
+
+    @Test
+    public void testIndex() {
+        SyntheticPTA pta = new SyntheticPTA(500, 100, 3, 0);
+        AliasIndex index = new AliasIndex(pta.getResult(), load -> pta.field);
+        JField other = new JField(pta.field.getDeclaringClass(), "g", Set.of(),
+                PrimitiveType.INT, AnnotationHolder.emptyHolder());
+        for (Var var1 : pta.vars) {
+            Set<Obj> pts1 = pta.pointsTo.get(var1);
+            Assert.assertEquals(pts1, index.getPointsToSet(var1));
+            Set<LoadField> expectedLoadFields = Sets.newSet();
+            Set<LoadArray> expectedLoadArrays = Sets.newSet();
+            for (Var var2 : pta.vars) {
+                if (pts1.stream().anyMatch(pta.pointsTo.get(var2)::contains)) {
+                    expectedLoadFields.addAll(var2.getLoadFields());
+                    expectedLoadArrays.addAll(var2.getLoadArrays());
+                }
+            }
+            Set<LoadField> loadFields = Sets.newSet();
+            Set<LoadArray> loadArrays = Sets.newSet();
+            for (Obj obj : pts1) {
+                loadFields.addAll(index.getLoadFields(obj, pta.field));
+                loadArrays.addAll(index.getLoadArrays(obj));
+                // all loads are on pta.field
+                Assert.assertTrue(index.getLoadFields(obj, other).isEmpty());
+            }
+            Assert.assertEquals(expectedLoadFields, loadFields);
+            Assert.assertEquals(expectedLoadArrays, loadArrays);
+        }
+    }
+
+    /**
+     * Random points-to result of variables which are the bases of
+     * field and array accesses.
+     */
+    static class SyntheticPTA {
+
+        final List<Var> vars = new ArrayList<>();
+
+        final List<Obj> objs = new ArrayList<>();
+
+        final Map<Var, Set<Obj>> pointsTo = Maps.newMap();
+
+        /**
+         * The field of all field accesses.
+         */
+        final JField field;
+
+        /**
+         * @param nVars number of variables
+         * @param nObjs number of objects
+         * @param size  maximum size of a points-to set
+         * @param seed  seed of the random generator
+         */
+        SyntheticPTA(int nVars, int nObjs, int size, long seed) {
+            Random random = new Random(seed);
+            JClass c = new JClass(null, "C");
+            FieldRef f = FieldRef.get(c, "f", PrimitiveType.INT, false);
+            field = new JField(c, "f", Set.of(), PrimitiveType.INT,
+                    AnnotationHolder.emptyHolder());
+            // array accesses require bases of array type
+            Type type = new ArrayType(PrimitiveType.INT, 1, PrimitiveType.INT);
+            for (int i = 0; i < nObjs; ++i) {
+                objs.add(new MockObj("Obj", i, PrimitiveType.INT));
+            }
+            for (int i = 0; i < nVars; ++i) {
+                Var base = new Var(null, "v" + i, type, i);
+                Var value = new Var(null, "x" + i, PrimitiveType.INT, i);
+                Var index = new Var(null, "i" + i, PrimitiveType.INT, i);
+                switch (random.nextInt(5)) {
+                    case 0 -> new StoreField(new InstanceFieldAccess(f, base), value);
+                    case 1 -> new LoadField(value, new InstanceFieldAccess(f, base));
+                    case 2 -> new StoreArray(new ArrayAccess(base, index), value);
+                    case 3 -> new LoadArray(value, new ArrayAccess(base, index));
+                    // case 4: no accesses
+                }
+                Set<Obj> pts = Sets.newSet();
+                int n = random.nextInt(size + 1);
+                for (int j = 0; j < n; ++j) {
+                    pts.add(objs.get(random.nextInt(nObjs)));
+                }
+                vars.add(base);
+                pointsTo.put(base, pts);
+            }
+        }
+
+        /**
+         * @return the points-to result, which only supports
+         * {@link PointerAnalysisResult#getVars()} and
+         * {@link PointerAnalysisResult#getPointsToSet(Var)}.
+         */
+        PointerAnalysisResult getResult() {
+            return (PointerAnalysisResult) Proxy.newProxyInstance(
+                    PointerAnalysisResult.class.getClassLoader(),
+                    new Class<?>[]{ PointerAnalysisResult.class },
+                    (proxy, method, args) -> switch (method.getName()) {
+                        case "getVars" -> (Collection<Var>) vars;
+                        case "getPointsToSet" -> pointsTo.get((Var) args[0]);
+                        default -> throw new UnsupportedOperationException(
+                                method.getName());
+                    });
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
+import pascal.taie.analysis.dataflow.analysis.constprop.Value;
+import pascal.taie.analysis.pta.core.heap.MockObj;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.language.annotation.AnnotationHolder;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JField;
+import pascal.taie.language.type.PrimitiveType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Checks that {@link HeapValues} answers loads with the meets of
+ * the values of the stores which may alias with them.
+ */
+public class HeapValuesTest {
+
+    private final ConstantPropagation cp = new ConstantPropagation(
+            new AnalysisConfig(ConstantPropagation.ID));
+
+    private static final Value[] VALUES = {
+            Value.getUndef(), Value.makeConstant(0), Value.makeConstant(1),
+            Value.makeConstant(2), Value.getNAC()
+    };
+
+    @Test
+    public void testFields() {
+        HeapValues values = new HeapValues(cp);
+        Obj o1 = new MockObj("Obj", 1, PrimitiveType.INT);
+        Obj o2 = new MockObj("Obj", 2, PrimitiveType.INT);
+        JClass c = new JClass(null, "C");
+        JField f = new JField(c, "f", Set.of(), PrimitiveType.INT,
+                AnnotationHolder.emptyHolder());
+        JField g = new JField(c, "g", Set.of(), PrimitiveType.INT,
+                AnnotationHolder.emptyHolder());
+        Assert.assertTrue(values.storeFieldValue(o1, f, Value.makeConstant(1)));
+        Assert.assertFalse(values.storeFieldValue(o1, f, Value.makeConstant(1)));
+        Assert.assertEquals(Value.makeConstant(1), values.getFieldValue(o1, f));
+        Assert.assertEquals(Value.getUndef(), values.getFieldValue(o1, g));
+        Assert.assertEquals(Value.getUndef(), values.getFieldValue(o2, f));
+        Assert.assertTrue(values.storeFieldValue(o1, f, Value.makeConstant(2)));
+        Assert.assertEquals(Value.getNAC(), values.getFieldValue(o1, f));
+        Assert.assertFalse(values.storeStaticFieldValue(g, Value.getUndef()));
+        Assert.assertTrue(values.storeStaticFieldValue(g, Value.makeConstant(0)));
+        Assert.assertEquals(Value.makeConstant(0), values.getStaticFieldValue(g));
+        Assert.assertEquals(Value.getUndef(), values.getStaticFieldValue(f));
+    }
+
+    /**
+     * Compares with meeting the values of all stores whose indexes
+     * may be equal to the index of the load.
+     */
+    @Test
+    public void testArrays() {
+        Random random = new Random(0);
+        for (int round = 0; round < 100; ++round) {
+            HeapValues values = new HeapValues(cp);
+            Obj array = new MockObj("Array", round, PrimitiveType.INT);
+            List<Value[]> stores = new ArrayList<>();
+            for (int i = 0; i < 10; ++i) {
+                Value index = VALUES[random.nextInt(VALUES.length)];
+                Value value = VALUES[random.nextInt(VALUES.length)];
+                stores.add(new Value[]{ index, value });
+                values.storeArrayValue(array, index, value);
+                for (Value loadIndex : VALUES) {
+                    Value expected = Value.getUndef();
+                    for (Value[] store : stores) {
+                        if (mayAlias(loadIndex, store[0])) {
+                            expected = cp.meetValue(expected, store[1]);
+                        }
+                    }
+                    Assert.assertEquals(expected, values.getArrayValue(array, loadIndex));
+                }
+            }
+        }
+    }
+
+    private static boolean mayAlias(Value i1, Value i2) {
+        if (i1.isUndef() || i2.isUndef()) {
+            return false;
+        } else if (i1.isConstant() && i2.isConstant()) {
+            return i1.getConstant() == i2.getConstant();
+        } else {
+            return true;
+        }
+    }
+}
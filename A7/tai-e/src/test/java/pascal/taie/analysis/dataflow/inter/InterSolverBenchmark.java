@@ -0,0 +1,76 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter;
+
+import pascal.taie.analysis.graph.icfg.SyntheticICFG;
+
+import java.util.Arrays;
+import java.util.function.IntSupplier;
+
+/**
+ * Compares {@link InterSolver} with the plain FIFO work-list solver
+ * on synthetic ICFGs of growing sizes. This is not a unit test; run it with
+ * <pre>java pascal.taie.analysis.dataflow.inter.InterSolverBenchmark [methods...]</pre>
+ */
+public class InterSolverBenchmark {
+
+    private static final int SIZE = 50;
+
+    private static final int CALLS = 5;
+
+    private static final int ROUNDS = 3;
+
+    public static void main(String[] args) {
+        int[] sizes = args.length > 0 ?
+                Arrays.stream(args).mapToInt(Integer::parseInt).toArray() :
+                new int[]{ 100, 200, 400 };
+        for (int nMethods : sizes) {
+            SyntheticICFG icfg = new SyntheticICFG(nMethods, SIZE, CALLS, 0);
+            InterSolverTest.MethodTokenAnalysis analysis =
+                    new InterSolverTest.MethodTokenAnalysis(icfg);
+            InterSolver<String, Integer, ?> solver = new InterSolver<>(analysis, icfg);
+            InterSolverTest.FIFOSolver<String, Integer, ?> fifo =
+                    new InterSolverTest.FIFOSolver<>(analysis, icfg);
+            System.out.printf("%d nodes%n", icfg.getNumberOfNodes());
+            run("  fifo", () -> {
+                fifo.solve();
+                return fifo.getNumberOfVisits();
+            });
+            run("  sweep", () -> {
+                solver.solve();
+                return solver.getNumberOfVisits();
+            });
+        }
+    }
+
+    private static void run(String name, IntSupplier solve) {
+        long best = Long.MAX_VALUE;
+        int visits = 0;
+        for (int i = 0; i < ROUNDS; ++i) {
+            long start = System.nanoTime();
+            visits = solve.getAsInt();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        System.out.printf("%s: %.3fs, %d node visits%n", name, best / 1e9, visits);
+    }
+}